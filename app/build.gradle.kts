@@ -29,6 +29,13 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        unitTests.isIncludeAndroidResources = true
+        unitTests.all {
+            // -Ppuzzle.drawBudget=true exige 16 ms por frame en PuzzleViewDrawCostTest
+            it.systemProperty("puzzle.drawBudget", project.findProperty("puzzle.drawBudget") ?: "false")
+        }
+    }
 }
 
 dependencies {
@@ -38,6 +45,7 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
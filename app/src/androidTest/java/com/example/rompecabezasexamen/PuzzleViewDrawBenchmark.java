@@ -0,0 +1,72 @@
+package com.example.rompecabezasexamen;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Costo de PuzzleView.onDraw según el tablero (3x3 a 10x10)
+ * 
+ * Cada frame se dibuja en un bitmap del tamaño de una pantalla (por
+ * software). Es el peor caso, porque con aceleración por hardware el
+ * dibujo pasa a la GPU. Los tiempos se escriben en logcat con la etiqueta
+ * PUZZLE_BENCH; no se comparan con un presupuesto porque dependen del equipo.
+ * PuzzleViewDrawCostTest mide lo mismo sin dispositivo, con Robolectric.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PuzzleViewDrawBenchmark {
+    
+    private static final String TAG = "PUZZLE_BENCH";
+    private static final int VIEW_SIZE = 1080;
+    private static final int WARMUP_FRAMES = 50;
+    private static final int MEASURED_FRAMES = 200;
+    
+    @Test
+    public void measureDrawCostUpTo10x10() {
+        for (boolean numbers : new boolean[]{false, true}) {
+            for (int size = 3; size <= 10; size++) {
+                double millis = measureDrawMillis(size, numbers);
+                Log.i(TAG, String.format(Locale.ROOT, "%s %dx%d: %.3f ms/frame",
+                        numbers ? "números" : "imagen", size, size, millis));
+            }
+        }
+    }
+    
+    /**
+     * Tiempo medio de onDraw con todas las piezas visibles (en el hilo principal)
+     */
+    private static double measureDrawMillis(int size, boolean numbers) {
+        double[] millis = new double[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            Bitmap image = numbers ? null : Bitmap.createBitmap(1024, 768, Bitmap.Config.ARGB_8888);
+            PuzzleView view = new PuzzleView(InstrumentationRegistry.getInstrumentation().getTargetContext());
+            view.setPuzzle(image, size);
+            view.layout(0, 0, VIEW_SIZE, VIEW_SIZE);
+            view.showHint(size - 1, size - 2);
+            
+            Bitmap target = Bitmap.createBitmap(VIEW_SIZE, VIEW_SIZE, Bitmap.Config.ARGB_8888);
+            Canvas canvas = new Canvas(target);
+            for (int i = 0; i < WARMUP_FRAMES; i++) {
+                view.onDraw(canvas);
+            }
+            
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_FRAMES; i++) {
+                view.onDraw(canvas);
+            }
+            millis[0] = (System.nanoTime() - start) / 1e6 / MEASURED_FRAMES;
+            assertEquals(size * size, view.getLastFrameTileCount());
+        });
+        return millis[0];
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.rompecabezasexamen;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara los dos backends de PuzzleView (canvas y RenderNodes) sobre la
+ * misma secuencia de movimientos animados
+ * 
+ * Por cada frame se toman de FrameMetrics el tiempo total y el tiempo en
+ * el hilo principal (entrada, animación, medida, grabación y sincronización).
+ * Los percentiles se escriben en logcat con la etiqueta PUZZLE_BENCH.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PuzzleViewRenderBenchmark {
+    
+    private static final String TAG = "PUZZLE_BENCH";
+    private static final int PUZZLE_SIZE = 5;
+    private static final int MOVES = 40;
+    
+    /**
+     * Frames medidos de una pasada (se llenan desde el hilo de métricas)
+     */
+    private static class FrameSamples {
+        final List<Long> totalNanos = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> mainThreadNanos = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> drawNanos = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean recording;
+        
+        void add(FrameMetrics metrics) {
+            if (!recording || metrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) return;
+            totalNanos.add(metrics.getMetric(FrameMetrics.TOTAL_DURATION));
+            drawNanos.add(metrics.getMetric(FrameMetrics.DRAW_DURATION));
+            mainThreadNanos.add(metrics.getMetric(FrameMetrics.INPUT_HANDLING_DURATION)
+                    + metrics.getMetric(FrameMetrics.ANIMATION_DURATION)
+                    + metrics.getMetric(FrameMetrics.LAYOUT_MEASURE_DURATION)
+                    + metrics.getMetric(FrameMetrics.DRAW_DURATION)
+                    + metrics.getMetric(FrameMetrics.SYNC_DURATION));
+        }
+    }
+    
+    @Test
+    public void compareBackendsOnScriptedMoves() {
+        HandlerThread metricsThread = new HandlerThread("frame-metrics");
+        metricsThread.start();
+        
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            FrameSamples canvas = run(scenario, PuzzleView.RenderBackend.CANVAS, new Handler(metricsThread.getLooper()));
+            FrameSamples nodes = run(scenario, PuzzleView.RenderBackend.RENDER_NODE, new Handler(metricsThread.getLooper()));
+            
+            report("CANVAS", canvas);
+            report("RENDER_NODE", nodes);
+            assertFalse(canvas.totalNanos.isEmpty());
+            assertFalse(nodes.totalNanos.isEmpty());
+        } finally {
+            metricsThread.quitSafely();
+        }
+    }
+    
+    /**
+     * Reproduce la secuencia de movimientos con un backend y devuelve sus frames
+     */
+    private FrameSamples run(ActivityScenario<MainActivity> scenario, PuzzleView.RenderBackend backend,
+                             Handler metricsHandler) {
+        FrameSamples samples = new FrameSamples();
+        PuzzleView[] holder = new PuzzleView[1];
+        Window.OnFrameMetricsAvailableListener listener =
+                (window, metrics, dropped) -> samples.add(new FrameMetrics(metrics));
+        
+        scenario.onActivity(activity -> {
+            Bitmap image = Bitmap.createBitmap(1024, 1024, Bitmap.Config.ARGB_8888);
+            image.eraseColor(Color.rgb(108, 92, 231));
+            PuzzleView view = new PuzzleView(activity);
+            activity.setContentView(view);
+            view.setPuzzle(image, PUZZLE_SIZE);
+            view.setRenderBackend(backend);
+            activity.getWindow().addOnFrameMetricsAvailableListener(listener, metricsHandler);
+            holder[0] = view;
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        PuzzleView view = holder[0];
+        
+        // Mismo guion para los dos backends: el vacío recorre un cuadrado de 2x2
+        int[][] script = {{-1, 0}, {0, -1}, {1, 0}, {0, 1}};
+        samples.recording = true;
+        for (int move = 0; move < MOVES; move++) {
+            int[] step = script[move % script.length];
+            boolean[] moved = new boolean[1];
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+                int[] empty = findEmpty(view.getCurrentBoard());
+                moved[0] = view.slidePiece(empty[0] + step[0], empty[1] + step[1]);
+            });
+            assertTrue(moved[0]);
+            waitForAnimation(view);
+        }
+        samples.recording = false;
+        
+        scenario.onActivity(activity -> activity.getWindow().removeOnFrameMetricsAvailableListener(listener));
+        return samples;
+    }
+    
+    private static void waitForAnimation(PuzzleView view) {
+        boolean[] animating = {true};
+        while (animating[0]) {
+            SystemClock.sleep(16);
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> animating[0] = view.isAnimating());
+        }
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    }
+    
+    private static int[] findEmpty(int[][] board) {
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board.length; j++) {
+                if (board[i][j] == 0) return new int[]{i, j};
+            }
+        }
+        throw new IllegalStateException("Tablero sin espacio vacío");
+    }
+    
+    private static void report(String name, FrameSamples samples) {
+        Log.i(TAG, String.format(Locale.ROOT,
+                "%s: %d frames, total p50 %.2f ms p90 %.2f ms, hilo principal p50 %.2f ms p90 %.2f ms, grabación p50 %.2f ms",
+                name, samples.totalNanos.size(),
+                percentileMillis(samples.totalNanos, 50), percentileMillis(samples.totalNanos, 90),
+                percentileMillis(samples.mainThreadNanos, 50), percentileMillis(samples.mainThreadNanos, 90),
+                percentileMillis(samples.drawNanos, 50)));
+    }
+    
+    private static double percentileMillis(List<Long> values, int percentile) {
+        List<Long> sorted;
+        synchronized (values) {
+            sorted = new ArrayList<>(values);
+        }
+        if (sorted.isEmpty()) return 0;
+        Collections.sort(sorted);
+        int index = Math.min(sorted.size() - 1, sorted.size() * percentile / 100);
+        return sorted.get(index) / 1e6;
+    }
+}
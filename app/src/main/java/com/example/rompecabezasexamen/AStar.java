@@ -1,6 +1,7 @@
 package com.example.rompecabezasexamen;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Implementación del algoritmo A* para resolver puzzles deslizantes
@@ -16,98 +17,182 @@ import java.util.*;
  *    - h(n) es la heurística (distancia Manhattan)
  * 4. Siempre explora el estado con menor f(n)
  * 5. Termina cuando encuentra el estado objetivo
+ * 
+ * Cuando aparece un camino mejor hacia un estado que ya está en openSet no
+ * se saca la entrada vieja de la cola (remove es O(n) en PriorityQueue): se
+ * encola la nueva y la vieja se descarta al salir (borrado perezoso).
  */
 public class AStar {
     
     private static final int MAX_ITERATIONS = 50000; // Límite de iteraciones
-    private PriorityQueue<PuzzleState> openSet;      // Estados por explorar
-    private Set<PuzzleState> closedSet;              // Estados ya explorados
-    private List<String> solutionMoves;             // Secuencia de movimientos de la solución
-    private int iterations;                          // Contador de iteraciones
-    private boolean solutionFound;                   // Bandera de solución encontrada
+    private static final int INTERRUPT_CHECK_INTERVAL = 1024;  // Iteraciones entre consultas de interrupción
+    private final int maxIterations;                 // Límite de iteraciones de esta instancia
+    private final ThreadLocal<SearchContext> contexts;   // Estructuras de búsqueda reutilizadas por hilo
+    private volatile Heuristic heuristic;            // Heurística (null = distancia Manhattan)
+    private volatile SolverResult lastResult;        // Resultado de la última búsqueda (API antigua)
+    
+    /**
+     * Estructuras de una búsqueda en curso
+     * 
+     * Cada hilo tiene la suya, así que varias búsquedas pueden correr a la
+     * vez sobre la misma instancia sin bloqueos. Se vacían al terminar pero
+     * conservan su capacidad para la siguiente búsqueda del mismo hilo.
+     */
+    private static final class SearchContext {
+        final PriorityQueue<PuzzleState> openSet = new PriorityQueue<>();   // Estados por explorar
+        final Map<PuzzleState, PuzzleState> openIndex = new HashMap<>();   // Entrada vigente de cada estado en openSet
+        final ClosedSet closedSet;                                         // Estados ya explorados
+        
+        SearchContext(ClosedSet closedSet) {
+            this.closedSet = closedSet;
+        }
+        
+        void clear() {
+            openSet.clear();
+            openIndex.clear();
+            closedSet.clear();
+        }
+    }
     
     /**
      * Constructor del algoritmo A*
      */
     public AStar() {
-        this.openSet = new PriorityQueue<>();
-        this.closedSet = new HashSet<>();
-        this.solutionMoves = new ArrayList<>();
-        this.iterations = 0;
-        this.solutionFound = false;
+        this(HashClosedSet::new, MAX_ITERATIONS);
+    }
+    
+    /**
+     * Constructor con un conjunto cerrado y límite de iteraciones propios
+     * (por ejemplo SpillingClosedSet para búsquedas que no caben en memoria)
+     * 
+     * El conjunto dado es uno solo: esta instancia no debe usarse desde
+     * varios hilos a la vez. Para eso usar el constructor con fábrica.
+     */
+    public AStar(ClosedSet closedSet, int maxIterations) {
+        this(() -> closedSet, maxIterations);
+    }
+    
+    /**
+     * Constructor con una fábrica de conjuntos cerrados (uno por hilo)
+     */
+    public AStar(Supplier<ClosedSet> closedSetFactory, int maxIterations) {
+        this.maxIterations = maxIterations;
+        this.contexts = ThreadLocal.withInitial(() -> new SearchContext(closedSetFactory.get()));
     }
     
     /**
      * Resuelve el puzzle usando el algoritmo A*
      * 
+     * No modifica el estado de la instancia: se puede llamar desde varios
+     * hilos a la vez y el resultado es inmutable.
+     * 
      * @param initialBoard Configuración inicial del tablero
-     * @return Lista de movimientos para resolver el puzzle (null si no hay solución)
+     * @return Resultado con los movimientos (null si no hay solución o se superó el límite)
      */
-    public List<String> solvePuzzle(int[][] initialBoard) {
+    public SolverResult solve(int[][] initialBoard) {
+        long start = System.currentTimeMillis();
+        Heuristic heuristic = this.heuristic;
+        
         // Verificar si el puzzle ya está resuelto
-        PuzzleState initialState = new PuzzleState(initialBoard, 0, null, null);
+        PuzzleState initialState = new PuzzleState(initialBoard, 0, null, null, heuristic);
+        int initialHeuristic = initialState.getHCost();
         if (initialState.isGoal()) {
-            return new ArrayList<>(); // Ya está resuelto
+            return new SolverResult(new ArrayList<>(), SolverResult.Engine.A_STAR, true,
+                    System.currentTimeMillis() - start, 0, initialHeuristic, -1);
         }
         
         // Verificar si el puzzle es resoluble
         if (!isSolvable(initialBoard)) {
-            return null; // Puzzle no tiene solución
+            return new SolverResult(null, SolverResult.Engine.A_STAR, false,
+                    System.currentTimeMillis() - start, 0, initialHeuristic, -1);
         }
         
-        // Reiniciar estructuras de datos
-        openSet.clear();
-        closedSet.clear();
-        solutionMoves.clear();
-        iterations = 0;
-        solutionFound = false;
-        
-        // Agregar estado inicial al conjunto abierto
-        openSet.add(initialState);
-        
-        // Bucle principal del algoritmo A*
-        while (!openSet.isEmpty() && iterations < MAX_ITERATIONS) {
-            iterations++;
-            
-            // Obtener el estado con menor costo F
-            PuzzleState current = openSet.poll();
+        SearchContext context = contexts.get();
+        context.clear();
+        try {
+            List<String> moves = null;
+            int iterations = 0;
             
-            // Agregar al conjunto cerrado
-            closedSet.add(current);
+            // Agregar estado inicial al conjunto abierto
+            context.openSet.add(initialState);
+            context.openIndex.put(initialState, initialState);
             
-            // Verificar si alcanzamos el objetivo
-            if (current.isGoal()) {
-                solutionFound = true;
-                reconstructPath(current);
-                return solutionMoves;
-            }
-            
-            // Explorar estados vecinos
-            for (PuzzleState neighbor : current.getNeighbors()) {
-                // Saltar si ya está en el conjunto cerrado
-                if (closedSet.contains(neighbor)) {
+            // Bucle principal del algoritmo A*
+            while (!context.openSet.isEmpty() && iterations < maxIterations) {
+                // Obtener el estado con menor costo F
+                PuzzleState current = context.openSet.poll();
+                
+                // Saltar entradas obsoletas: el estado se volvió a encolar con menor g
+                if (context.openIndex.get(current) != current) {
                     continue;
                 }
+                context.openIndex.remove(current);
+                iterations++;
                 
-                // Si no está en el conjunto abierto, agregarlo
-                if (!openSet.contains(neighbor)) {
-                    openSet.add(neighbor);
-                } else {
-                    // Si ya está en el conjunto abierto, verificar si este camino es mejor
-                    updateNeighborIfBetter(neighbor);
+                // Abandonar si el hilo se interrumpió (búsqueda cancelada)
+                if (iterations % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                
+                // Agregar al conjunto cerrado
+                context.closedSet.add(current);
+                
+                // Verificar si alcanzamos el objetivo
+                if (current.isGoal()) {
+                    moves = reconstructPath(current);
+                    break;
+                }
+                
+                // Explorar estados vecinos
+                for (PuzzleState neighbor : current.getNeighbors()) {
+                    // Saltar si ya está en el conjunto cerrado
+                    if (context.closedSet.contains(neighbor)) {
+                        continue;
+                    }
+                    
+                    PuzzleState open = context.openIndex.get(neighbor);
+                    if (open == null) {
+                        // Si no está en el conjunto abierto, agregarlo
+                        context.openSet.add(neighbor);
+                        context.openIndex.put(neighbor, neighbor);
+                    } else if (neighbor.getGCost() < open.getGCost()) {
+                        // Ya estaba en el conjunto abierto pero este camino es mejor:
+                        // la entrada anterior queda en la cola y se salta al salir
+                        context.openSet.add(neighbor);
+                        context.openIndex.put(neighbor, neighbor);
+                    }
                 }
             }
+            
+            // moves queda en null si no se encontró solución dentro del límite de iteraciones
+            return new SolverResult(moves, SolverResult.Engine.A_STAR, moves != null,
+                    System.currentTimeMillis() - start, iterations, initialHeuristic, -1);
+        } finally {
+            context.clear();
         }
-        
-        // No se encontró solución dentro del límite de iteraciones
-        return null;
+    }
+    
+    /**
+     * Resuelve el puzzle usando el algoritmo A*
+     * 
+     * API anterior: guarda el resultado para los getters de la instancia.
+     * Con varios hilos los getters devuelven el de la última búsqueda que
+     * terminó; en ese caso usar solve().
+     * 
+     * @param initialBoard Configuración inicial del tablero
+     * @return Lista de movimientos para resolver el puzzle (null si no hay solución)
+     */
+    public List<String> solvePuzzle(int[][] initialBoard) {
+        SolverResult result = solve(initialBoard);
+        lastResult = result;
+        return result.isSolved() ? new ArrayList<>(result.getMoves()) : null;
     }
     
     /**
      * Reconstruye el camino de la solución desde el estado objetivo
      * hasta el estado inicial siguiendo los padres
      */
-    private void reconstructPath(PuzzleState goalState) {
+    private List<String> reconstructPath(PuzzleState goalState) {
         List<String> path = new ArrayList<>();
         PuzzleState current = goalState;
         
@@ -119,20 +204,7 @@ public class AStar {
         
         // Invertir la lista para obtener el orden correcto
         Collections.reverse(path);
-        solutionMoves = path;
-    }
-    
-    /**
-     * Actualiza un vecino en el conjunto abierto si se encuentra un mejor camino
-     */
-    private void updateNeighborIfBetter(PuzzleState neighbor) {
-        for (PuzzleState state : openSet) {
-            if (state.equals(neighbor) && neighbor.getGCost() < state.getGCost()) {
-                openSet.remove(state);
-                openSet.add(neighbor);
-                break;
-            }
-        }
+        return path;
     }
     
     /**
@@ -259,23 +331,38 @@ public class AStar {
      */
     public String getExecutionInfo() {
         return String.format("Iteraciones: %d, Solución encontrada: %s, Movimientos: %d",
-                iterations, solutionFound, solutionMoves.size());
+                getIterations(), isSolutionFound(), getSolutionLength());
+    }
+    
+    /**
+     * Cambia la heurística usada en las próximas búsquedas (null = distancia Manhattan)
+     * 
+     * Los estados cerrados no se reabren, así que la solución solo es
+     * óptima si la heurística es consistente. PatternDatabaseHeuristic es
+     * admisible pero no consistente: con ella usar IDAStar.
+     */
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
     }
     
-    // Getters para información adicional
+    // Getters para información adicional (de la última llamada a solvePuzzle)
     public int getIterations() {
-        return iterations;
+        SolverResult result = lastResult;
+        return result == null ? 0 : (int) result.getNodesExpanded();
     }
     
     public boolean isSolutionFound() {
-        return solutionFound;
+        SolverResult result = lastResult;
+        return result != null && result.isSolved();
     }
     
     public List<String> getSolutionMoves() {
-        return new ArrayList<>(solutionMoves);
+        SolverResult result = lastResult;
+        return result == null || !result.isSolved() ? new ArrayList<>() : new ArrayList<>(result.getMoves());
     }
     
     public int getSolutionLength() {
-        return solutionMoves.size();
+        SolverResult result = lastResult;
+        return result == null || !result.isSolved() ? 0 : result.getMoves().size();
     }
 }
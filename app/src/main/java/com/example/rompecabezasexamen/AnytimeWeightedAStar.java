@@ -0,0 +1,218 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A* ponderado "anytime" para tableros grandes o con poco tiempo
+ * 
+ * Funcionamiento:
+ * 1. Busca con f(n) = g(n) + w·h(n) empezando con un peso alto: encuentra
+ *    una solución rápido aunque no sea la más corta (esta primera pasada
+ *    no se corta por el plazo)
+ * 2. Mientras quede tiempo repite con pesos menores, podando todo estado
+ *    con g(n) + h(n) >= costo de la mejor solución conocida
+ * 3. Al vencer el plazo devuelve la mejor solución encontrada; si terminó
+ *    la pasada con w = 1 la solución es óptima
+ * 
+ * Si el hilo se interrumpe devuelve la mejor solución que tenga (o null).
+ */
+public class AnytimeWeightedAStar {
+    
+    private static final double[] WEIGHTS = {5.0, 3.0, 2.0, 1.5, 1.25, 1.0};
+    private static final int DEFAULT_MAX_EXPANSIONS = 2_000_000;   // Por pasada
+    private static final int CLOCK_INTERVAL = 256;                  // Expansiones entre consultas al reloj
+    
+    private final int maxExpansions;
+    private Heuristic heuristic;   // Heurística (null = distancia Manhattan)
+    
+    // Resultados de la última búsqueda
+    private List<String> solutionMoves;
+    private long expansions;
+    private int passes;
+    private double lastWeight;
+    private boolean optimal;
+    private boolean passExhausted;   // La última pasada vació la cola
+    private long elapsedMillis;
+    
+    /**
+     * Nodo de la cola ordenado por g + w·h
+     */
+    private static final class Node implements Comparable<Node> {
+        final PuzzleState state;
+        final double priority;
+        
+        Node(PuzzleState state, double weight) {
+            this.state = state;
+            this.priority = state.getGCost() + weight * state.getHCost();
+        }
+        
+        @Override
+        public int compareTo(Node other) {
+            if (priority != other.priority) {
+                return Double.compare(priority, other.priority);
+            }
+            return Integer.compare(state.getHCost(), other.state.getHCost());
+        }
+    }
+    
+    public AnytimeWeightedAStar() {
+        this(DEFAULT_MAX_EXPANSIONS);
+    }
+    
+    public AnytimeWeightedAStar(int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+    
+    /**
+     * Resuelve el puzzle mejorando la solución hasta que vence el plazo
+     * 
+     * @param initialBoard Configuración inicial del tablero
+     * @param budgetMillis Tiempo disponible en milisegundos
+     * @return Mejor lista de movimientos encontrada (null si no hay solución)
+     */
+    public List<String> solvePuzzle(int[][] initialBoard, long budgetMillis) {
+        return solvePuzzle(initialBoard, budgetMillis, null);
+    }
+    
+    /**
+     * Igual que solvePuzzle(board, budget) pero partiendo de una solución
+     * conocida (por ejemplo de HierarchicalSolver): todas las pasadas se
+     * acotan con su costo y se cortan al vencer el plazo
+     * 
+     * @param incumbent Solución inicial (null = ninguna)
+     */
+    public List<String> solvePuzzle(int[][] initialBoard, long budgetMillis, List<String> incumbent) {
+        long start = System.currentTimeMillis();
+        long deadline = start + budgetMillis;
+        solutionMoves = incumbent == null ? null : new ArrayList<>(incumbent);
+        expansions = 0;
+        passes = 0;
+        lastWeight = 0;
+        optimal = false;
+        
+        try {
+            PuzzleState root = new PuzzleState(initialBoard, 0, null, null, heuristic);
+            if (root.isGoal()) {
+                optimal = true;
+                solutionMoves = new ArrayList<>();
+                return new ArrayList<>();
+            }
+            if (!new AStar().isSolvable(initialBoard)) {
+                return null;
+            }
+            
+            for (double weight : WEIGHTS) {
+                if (solutionMoves != null && System.currentTimeMillis() >= deadline) break;
+                if (Thread.currentThread().isInterrupted()) break;
+                int bound = solutionMoves == null ? Integer.MAX_VALUE : solutionMoves.size();
+                
+                passes++;
+                lastWeight = weight;
+                PuzzleState goal = search(root, weight, bound, deadline);
+                if (goal != null) {
+                    solutionMoves = buildPath(goal);
+                }
+                
+                // Con w = 1 la pasada es A* normal: si encontró una solución o
+                // vació la cola sin mejorar la cota, la mejor solución es óptima
+                if (weight == 1.0 && (goal != null || passExhausted)) {
+                    optimal = solutionMoves != null;
+                }
+            }
+            return solutionMoves == null ? null : new ArrayList<>(solutionMoves);
+        } finally {
+            elapsedMillis = System.currentTimeMillis() - start;
+        }
+    }
+    
+    /**
+     * Una pasada de A* ponderado acotada por el costo de la mejor solución
+     * 
+     * @return Estado objetivo con costo menor que bound, o null
+     */
+    private PuzzleState search(PuzzleState root, double weight, int bound, long deadline) {
+        PriorityQueue<Node> openSet = new PriorityQueue<>();
+        Map<PuzzleState, Integer> bestG = new HashMap<>();
+        openSet.add(new Node(root, weight));
+        bestG.put(root, 0);
+        long passExpansions = 0;
+        passExhausted = false;
+        
+        while (!openSet.isEmpty() && passExpansions < maxExpansions) {
+            PuzzleState state = openSet.poll().state;
+            if (bestG.get(state) < state.getGCost()) continue;
+            if (state.getFCost() >= bound) continue;
+            
+            if (state.isGoal()) {
+                return state;
+            }
+            
+            passExpansions++;
+            expansions++;
+            if (passExpansions % CLOCK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            // La primera pasada no se corta: siempre se devuelve alguna solución
+            if (bound != Integer.MAX_VALUE && passExpansions % CLOCK_INTERVAL == 0
+                    && System.currentTimeMillis() >= deadline) {
+                return null;
+            }
+            
+            for (PuzzleState child : state.getNeighbors()) {
+                if (child.getFCost() >= bound) continue;
+                Integer known = bestG.get(child);
+                if (known == null || child.getGCost() < known) {
+                    bestG.put(child, child.getGCost());
+                    openSet.add(new Node(child, weight));
+                }
+            }
+        }
+        passExhausted = openSet.isEmpty();
+        return null;
+    }
+    
+    private List<String> buildPath(PuzzleState goal) {
+        List<String> path = new ArrayList<>();
+        for (PuzzleState current = goal; current.getParent() != null; current = current.getParent()) {
+            path.add(current.getMove());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    /**
+     * Obtiene información sobre la última ejecución del algoritmo
+     */
+    public String getExecutionInfo() {
+        return String.format("Pasadas: %d, Último peso: %.2f, Expansiones: %d, Movimientos: %d, Óptima: %s, Tiempo: %d ms",
+                passes, lastWeight, expansions, solutionMoves == null ? 0 : solutionMoves.size(),
+                optimal, elapsedMillis);
+    }
+    
+    // Configuración
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+    
+    // Getters para información adicional
+    public long getExpansions() {
+        return expansions;
+    }
+    
+    public int getPasses() {
+        return passes;
+    }
+    
+    public boolean isOptimal() {
+        return optimal;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.rompecabezasexamen;
+
+/**
+ * Conjunto cerrado (estados ya explorados) usado por los algoritmos de búsqueda
+ * 
+ * Permite cambiar la estructura que guarda los estados explorados sin tocar
+ * el algoritmo: una tabla hash en memoria para búsquedas normales o una
+ * implementación que vuelca a disco para búsquedas muy grandes.
+ */
+public interface ClosedSet {
+    
+    /**
+     * Agrega un estado al conjunto
+     * 
+     * @return true si el estado no estaba en el conjunto
+     */
+    boolean add(PuzzleState state);
+    
+    /**
+     * Verifica si un estado ya fue explorado
+     */
+    boolean contains(PuzzleState state);
+    
+    /**
+     * Número de estados guardados
+     */
+    long size();
+    
+    /**
+     * Elimina todos los estados guardados
+     */
+    void clear();
+}
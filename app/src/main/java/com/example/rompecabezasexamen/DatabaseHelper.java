@@ -16,7 +16,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     
     // Configuración de la base de datos
     private static final String DATABASE_NAME = "puzzle_game.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 2;   // 2: columna frame_stats en game_records
     
     // Tabla de jugadores
     private static final String TABLE_PLAYERS = "players";
@@ -33,6 +33,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String COLUMN_RECORD_MOVES = "moves";
     private static final String COLUMN_RECORD_SCORE = "score";
     private static final String COLUMN_RECORD_COMPLETED_AT = "completed_at";
+    private static final String COLUMN_RECORD_FRAME_STATS = "frame_stats";
     
     // Instancia singleton
     private static DatabaseHelper instance;
@@ -67,7 +68,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 COLUMN_RECORD_TIME + " INTEGER NOT NULL," +
                 COLUMN_RECORD_MOVES + " INTEGER NOT NULL," +
                 COLUMN_RECORD_SCORE + " INTEGER NOT NULL," +
-                COLUMN_RECORD_COMPLETED_AT + " INTEGER NOT NULL" +
+                COLUMN_RECORD_COMPLETED_AT + " INTEGER NOT NULL," +
+                COLUMN_RECORD_FRAME_STATS + " TEXT" +
                 ")";
         
         db.execSQL(createPlayersTable);
@@ -76,6 +78,13 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Versión 2 solo agrega una columna: se conservan los récords existentes
+        if (oldVersion == 1 && newVersion >= 2) {
+            db.execSQL("ALTER TABLE " + TABLE_GAME_RECORDS +
+                    " ADD COLUMN " + COLUMN_RECORD_FRAME_STATS + " TEXT");
+            return;
+        }
+        
         // Eliminar tablas existentes si la versión de la base de datos se actualiza
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_GAME_RECORDS);
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_PLAYERS);
@@ -172,6 +181,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put(COLUMN_RECORD_MOVES, record.getMoves());
         values.put(COLUMN_RECORD_SCORE, record.getScore());
         values.put(COLUMN_RECORD_COMPLETED_AT, record.getCompletedAt());
+        values.put(COLUMN_RECORD_FRAME_STATS, record.getFrameStats());
         
         long id = db.insert(TABLE_GAME_RECORDS, null, values);
         db.close();
@@ -228,6 +238,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                         cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_RECORD_SCORE)),
                         cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_RECORD_COMPLETED_AT))
                 );
+                record.setFrameStats(cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_RECORD_FRAME_STATS)));
                 records.add(record);
             } while (cursor.moveToNext());
             cursor.close();
@@ -260,6 +271,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                     cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_RECORD_SCORE)),
                     cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_RECORD_COMPLETED_AT))
             );
+            bestRecord.setFrameStats(cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_RECORD_FRAME_STATS)));
             cursor.close();
         }
         
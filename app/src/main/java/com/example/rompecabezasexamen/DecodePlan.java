@@ -0,0 +1,144 @@
+package com.example.rompecabezasexamen;
+
+import java.util.Locale;
+
+/**
+ * Plan para decodificar solo el cuadrado central de una imagen
+ * 
+ * Funcionamiento:
+ * 1. La región es el cuadrado central de la imagen original (el mismo sin
+ *    importar la orientación EXIF, porque es un cuadrado centrado)
+ * 2. inSampleSize es la mayor potencia de 2 que deja la región con un lado
+ *    de al menos targetSide: el decodificador lee solo esa región y ya
+ *    submuestreada
+ * 3. Si la región decodificada es más grande que targetSide (o hay que
+ *    rotarla) se hace una única copia escalada/rotada al lado final
+ * 
+ * Picos de memoria (bitmaps vivos a la vez, ARGB_8888):
+ * - este plan: región submuestreada + salida (menos de 5 veces la salida)
+ * - decodificación completa anterior: imagen completa + recorte + escalada
+ * 
+ * No depende de Android para poder probarse en la JVM.
+ */
+public class DecodePlan {
+    
+    public static final int BYTES_PER_PIXEL = 4;   // ARGB_8888
+    
+    private final int sourceWidth;
+    private final int sourceHeight;
+    private final int regionLeft;       // Cuadrado central en coordenadas de la imagen original
+    private final int regionTop;
+    private final int regionSide;
+    private final int sampleSize;       // inSampleSize (potencia de 2)
+    private final int decodedSide;      // Lado de la región ya submuestreada
+    private final int outputSide;       // Lado final (nunca mayor que la región)
+    private final boolean copyNeeded;   // Hace falta escalar o rotar la región
+    
+    private DecodePlan(int sourceWidth, int sourceHeight, int targetSide, boolean rotated) {
+        this.sourceWidth = sourceWidth;
+        this.sourceHeight = sourceHeight;
+        this.regionSide = Math.min(sourceWidth, sourceHeight);
+        this.regionLeft = (sourceWidth - regionSide) / 2;
+        this.regionTop = (sourceHeight - regionSide) / 2;
+        
+        int sample = 1;
+        while (regionSide / (sample * 2) >= targetSide) {
+            sample *= 2;
+        }
+        this.sampleSize = sample;
+        this.decodedSide = Math.max(1, regionSide / sample);
+        this.outputSide = Math.min(targetSide, decodedSide);
+        this.copyNeeded = rotated || decodedSide != outputSide;
+    }
+    
+    /**
+     * Plan para el cuadrado central con el lado pedido
+     * 
+     * @param sourceWidth Ancho de la imagen (sin aplicar la orientación EXIF)
+     * @param sourceHeight Alto de la imagen
+     * @param targetSide Lado final buscado en píxeles
+     * @param rotated La imagen tiene una rotación EXIF que hay que aplicar
+     */
+    public static DecodePlan centerSquare(int sourceWidth, int sourceHeight, int targetSide, boolean rotated) {
+        if (sourceWidth <= 0 || sourceHeight <= 0 || targetSide <= 0) {
+            throw new IllegalArgumentException("Tamaños inválidos: " + sourceWidth + "x" + sourceHeight
+                    + " -> " + targetSide);
+        }
+        return new DecodePlan(sourceWidth, sourceHeight, targetSide, rotated);
+    }
+    
+    /**
+     * Bytes del bitmap de la región submuestreada
+     */
+    public long getDecodedBytes() {
+        return (long) decodedSide * decodedSide * BYTES_PER_PIXEL;
+    }
+    
+    /**
+     * Bytes del bitmap final
+     */
+    public long getOutputBytes() {
+        return (long) outputSide * outputSide * BYTES_PER_PIXEL;
+    }
+    
+    /**
+     * Mayor cantidad de bytes de bitmaps vivos a la vez durante el plan
+     */
+    public long getPeakBytes() {
+        return copyNeeded ? getDecodedBytes() + getOutputBytes() : getDecodedBytes();
+    }
+    
+    /**
+     * Pico de la decodificación completa anterior: la imagen entera, su
+     * recorte cuadrado y la copia escalada al lado pedido vivos a la vez
+     */
+    public static long fullDecodePeakBytes(int sourceWidth, int sourceHeight, int targetSide) {
+        long side = Math.min(sourceWidth, sourceHeight);
+        long scaled = Math.min(side, targetSide);
+        return ((long) sourceWidth * sourceHeight + side * side + scaled * scaled) * BYTES_PER_PIXEL;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Región %d,%d %dx%d, muestreo 1/%d -> %d -> %d, pico %d KB",
+                regionLeft, regionTop, regionSide, regionSide, sampleSize, decodedSide, outputSide,
+                getPeakBytes() / 1024);
+    }
+    
+    // Getters
+    public int getSourceWidth() {
+        return sourceWidth;
+    }
+    
+    public int getSourceHeight() {
+        return sourceHeight;
+    }
+    
+    public int getRegionLeft() {
+        return regionLeft;
+    }
+    
+    public int getRegionTop() {
+        return regionTop;
+    }
+    
+    public int getRegionSide() {
+        return regionSide;
+    }
+    
+    public int getSampleSize() {
+        return sampleSize;
+    }
+    
+    public int getDecodedSide() {
+        return decodedSide;
+    }
+    
+    public int getOutputSide() {
+        return outputSide;
+    }
+    
+    public boolean isCopyNeeded() {
+        return copyNeeded;
+    }
+}
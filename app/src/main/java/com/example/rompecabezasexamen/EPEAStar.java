@@ -0,0 +1,252 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Implementación de EPEA* (A* con expansión parcial mejorada)
+ * 
+ * En A* normal, al expandir un estado se crean e insertan en la cola todos
+ * sus vecinos, aunque la mayoría tenga un f(n) mayor que el costo óptimo y
+ * nunca llegue a expandirse. EPEA* evita ese trabajo:
+ * 1. Cada nodo de la cola guarda un F "almacenado" (al principio su f(n))
+ * 2. Al expandirlo solo se generan los hijos cuyo f es exactamente F; el
+ *    cambio de f de cada hijo se conoce sin crearlo gracias a una tabla de
+ *    operadores por (pieza, celda, dirección)
+ * 3. Si quedan hijos con f mayor, el padre se reinserta con el siguiente F
+ * 
+ * Con la distancia Manhattan, mover una pieza cambia h en +1 o -1, así que
+ * cada hijo tiene Δf = 0 o Δf = 2. La tabla de operadores solo existe para
+ * esta heurística; con PDB habría que precalcular tablas por patrón.
+ */
+public class EPEAStar {
+    
+    private static final int DEFAULT_MAX_EXPANSIONS = 2_000_000;
+    
+    private final int maxExpansions;
+    
+    // Contadores de la última búsqueda
+    private long expansions;          // Veces que se sacó un nodo de la cola
+    private long childrenGenerated;   // Hijos creados e insertados en la cola
+    private long candidates;          // Hijos válidos que A* habría creado al expandir
+    private long childrenCreated;     // Hijos creados (algunos se descartan por duplicados)
+    private long reinsertions;        // Padres reinsertados con un F mayor
+    private long elapsedMillis;
+    private boolean solutionFound;
+    private List<String> solutionMoves = new ArrayList<>();
+    
+    /**
+     * Nodo de la cola: estado más su F almacenado
+     */
+    private static final class Node implements Comparable<Node> {
+        final PuzzleState state;
+        final int storedF;
+        final boolean firstExpansion;
+        
+        Node(PuzzleState state, int storedF, boolean firstExpansion) {
+            this.state = state;
+            this.storedF = storedF;
+            this.firstExpansion = firstExpansion;
+        }
+        
+        @Override
+        public int compareTo(Node other) {
+            if (storedF != other.storedF) {
+                return Integer.compare(storedF, other.storedF);
+            }
+            // Con F iguales, priorizar el más profundo (menor h)
+            return Integer.compare(state.getHCost(), other.state.getHCost());
+        }
+    }
+    
+    public EPEAStar() {
+        this(DEFAULT_MAX_EXPANSIONS);
+    }
+    
+    public EPEAStar(int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+    
+    /**
+     * Resuelve el puzzle usando EPEA* con distancia Manhattan
+     * 
+     * @param initialBoard Configuración inicial del tablero
+     * @return Lista de movimientos para resolver el puzzle (null si no hay solución)
+     */
+    public List<String> solvePuzzle(int[][] initialBoard) {
+        long start = System.currentTimeMillis();
+        expansions = childrenGenerated = candidates = childrenCreated = reinsertions = 0;
+        solutionFound = false;
+        solutionMoves = new ArrayList<>();
+        
+        try {
+            PuzzleState root = new PuzzleState(initialBoard, 0, null, null);
+            if (root.isGoal()) {
+                solutionFound = true;
+                return new ArrayList<>();
+            }
+            if (!new AStar().isSolvable(initialBoard)) {
+                return null;
+            }
+            
+            int size = initialBoard.length;
+            int[] deltaH = OperatorTable.forSize(size);
+            PriorityQueue<Node> openSet = new PriorityQueue<>();
+            Map<PuzzleState, Integer> bestG = new HashMap<>();
+            openSet.add(new Node(root, root.getFCost(), true));
+            bestG.put(root, 0);
+            
+            while (!openSet.isEmpty() && expansions < maxExpansions) {
+                Node node = openSet.poll();
+                PuzzleState state = node.state;
+                
+                // Entrada obsoleta: ya se llegó a este estado por un camino más corto
+                if (bestG.get(state) < state.getGCost()) continue;
+                
+                expansions++;
+                if (state.isGoal()) {
+                    solutionFound = true;
+                    solutionMoves = buildPath(state);
+                    return new ArrayList<>(solutionMoves);
+                }
+                
+                int f = state.getFCost();
+                int nextF = Integer.MAX_VALUE;
+                int emptyCell = state.getEmptyRow() * size + state.getEmptyCol();
+                
+                for (int direction = 0; direction < 4; direction++) {
+                    if (!state.canMove(direction)) continue;
+                    if (node.firstExpansion) candidates++;
+                    
+                    // Δf del hijo sin crearlo: 1 movimiento más el cambio de h de la pieza
+                    int tileRow = state.getEmptyRow() + PuzzleState.ROW_MOVES[direction];
+                    int tileCol = state.getEmptyCol() + PuzzleState.COL_MOVES[direction];
+                    int tile = state.getTile(tileRow, tileCol);
+                    int childF = f + 1 + deltaH[OperatorTable.index(size, tile, emptyCell, direction)];
+                    
+                    if (childF == node.storedF) {
+                        PuzzleState child = state.getNeighbor(direction);
+                        childrenCreated++;
+                        Integer known = bestG.get(child);
+                        if (known == null || child.getGCost() < known) {
+                            bestG.put(child, child.getGCost());
+                            openSet.add(new Node(child, childF, true));
+                            childrenGenerated++;
+                        }
+                    } else if (childF > node.storedF) {
+                        nextF = Math.min(nextF, childF);
+                    }
+                }
+                
+                if (nextF != Integer.MAX_VALUE) {
+                    // Quedan hijos con f mayor: reinsertar el padre con el siguiente F
+                    openSet.add(new Node(state, nextF, false));
+                    reinsertions++;
+                }
+            }
+            
+            return null;
+        } finally {
+            elapsedMillis = System.currentTimeMillis() - start;
+        }
+    }
+    
+    private List<String> buildPath(PuzzleState goal) {
+        List<String> path = new ArrayList<>();
+        for (PuzzleState current = goal; current.getParent() != null; current = current.getParent()) {
+            path.add(current.getMove());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    /**
+     * Obtiene información sobre la última ejecución del algoritmo
+     */
+    public String getExecutionInfo() {
+        return String.format("Expansiones: %d, Hijos generados: %d, Hijos omitidos: %d, Reinserciones: %d, Solución encontrada: %s, Movimientos: %d, Tiempo: %d ms",
+                expansions, childrenGenerated, getChildrenSkipped(), reinsertions,
+                solutionFound, solutionMoves.size(), elapsedMillis);
+    }
+    
+    // Getters para información adicional
+    public long getExpansions() {
+        return expansions;
+    }
+    
+    public long getChildrenGenerated() {
+        return childrenGenerated;
+    }
+    
+    /**
+     * Hijos que A* habría creado e insertado y que EPEA* nunca llegó a crear
+     */
+    public long getChildrenSkipped() {
+        return candidates - childrenCreated;
+    }
+    
+    public long getReinsertions() {
+        return reinsertions;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public boolean isSolutionFound() {
+        return solutionFound;
+    }
+    
+    public List<String> getSolutionMoves() {
+        return new ArrayList<>(solutionMoves);
+    }
+    
+    /**
+     * Tabla de operadores: cambio de la distancia Manhattan al mover la pieza
+     * "tile" que está junto al vacío (en la celda emptyCell) hacia el vacío,
+     * según la dirección en que se mueve el vacío
+     */
+    static final class OperatorTable {
+        private static final int MAX_CACHED_SIZE = 16;
+        private static final int[][] CACHE = new int[MAX_CACHED_SIZE + 1][];
+        
+        static int index(int size, int tile, int emptyCell, int direction) {
+            return ((tile * size * size) + emptyCell) * 4 + direction;
+        }
+        
+        static synchronized int[] forSize(int size) {
+            if (size <= MAX_CACHED_SIZE && CACHE[size] != null) {
+                return CACHE[size];
+            }
+            
+            int cells = size * size;
+            int[] table = new int[cells * cells * 4];
+            for (int tile = 1; tile < cells; tile++) {
+                int targetRow = (tile - 1) / size;
+                int targetCol = (tile - 1) % size;
+                for (int emptyCell = 0; emptyCell < cells; emptyCell++) {
+                    int emptyRow = emptyCell / size;
+                    int emptyCol = emptyCell % size;
+                    for (int direction = 0; direction < 4; direction++) {
+                        int fromRow = emptyRow + PuzzleState.ROW_MOVES[direction];
+                        int fromCol = emptyCol + PuzzleState.COL_MOVES[direction];
+                        if (fromRow < 0 || fromRow >= size || fromCol < 0 || fromCol >= size) continue;
+                        
+                        int before = Math.abs(fromRow - targetRow) + Math.abs(fromCol - targetCol);
+                        int after = Math.abs(emptyRow - targetRow) + Math.abs(emptyCol - targetCol);
+                        table[index(size, tile, emptyCell, direction)] = after - before;
+                    }
+                }
+            }
+            
+            if (size <= MAX_CACHED_SIZE) {
+                CACHE[size] = table;
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.rompecabezasexamen;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Tiempos de frame de una partida resumidos en percentiles
+ * 
+ * Funcionamiento:
+ * 1. Cada frame (duración total según FrameMetrics) y cada llamada a
+ *    PuzzleView.onDraw se cuentan en un histograma de cubetas de 0,25 ms;
+ *    lo que pasa de 100 ms cae en la última cubeta
+ * 2. Un frame es "jank" si su duración supera su plazo (el intervalo de
+ *    refresco de la pantalla para ese frame)
+ * 3. Los percentiles se leen del histograma: memoria fija y ninguna
+ *    asignación por frame, dure lo que dure la partida
+ * 4. toSummary() da una línea "clave=valor" que se guarda con el récord
+ * 
+ * No es seguro entre hilos: registrar y leer desde el hilo principal.
+ */
+public class FrameStats {
+    
+    private static final long BUCKET_NANOS = 250_000L;   // Ancho de cada cubeta (0,25 ms)
+    private static final int BUCKET_COUNT = 400;         // Cubetas hasta 100 ms
+    
+    private final int[] frameBuckets = new int[BUCKET_COUNT];
+    private final int[] drawBuckets = new int[BUCKET_COUNT];
+    private int frameCount;
+    private int drawCount;
+    private int jankCount;
+    private long lastFrameNanos;
+    private long lastDrawNanos;
+    private long maxFrameNanos;
+    private long maxDrawNanos;
+    
+    /**
+     * Registra un frame completo
+     * 
+     * @param durationNanos Duración total del frame
+     * @param deadlineNanos Plazo del frame (0 = sin plazo, nunca cuenta como jank)
+     */
+    public void recordFrame(long durationNanos, long deadlineNanos) {
+        frameBuckets[bucketOf(durationNanos)]++;
+        frameCount++;
+        if (deadlineNanos > 0 && durationNanos > deadlineNanos) {
+            jankCount++;
+        }
+        lastFrameNanos = durationNanos;
+        maxFrameNanos = Math.max(maxFrameNanos, durationNanos);
+    }
+    
+    /**
+     * Registra el tiempo de una llamada a PuzzleView.onDraw
+     */
+    public void recordDraw(long durationNanos) {
+        drawBuckets[bucketOf(durationNanos)]++;
+        drawCount++;
+        lastDrawNanos = durationNanos;
+        maxDrawNanos = Math.max(maxDrawNanos, durationNanos);
+    }
+    
+    /**
+     * Vacía las estadísticas (al empezar una partida)
+     */
+    public void reset() {
+        Arrays.fill(frameBuckets, 0);
+        Arrays.fill(drawBuckets, 0);
+        frameCount = 0;
+        drawCount = 0;
+        jankCount = 0;
+        lastFrameNanos = 0;
+        lastDrawNanos = 0;
+        maxFrameNanos = 0;
+        maxDrawNanos = 0;
+    }
+    
+    private static int bucketOf(long durationNanos) {
+        return (int) Math.max(0, Math.min(durationNanos / BUCKET_NANOS, BUCKET_COUNT - 1));
+    }
+    
+    /**
+     * Percentil de la duración de los frames en milisegundos
+     * 
+     * @param percentile Entre 0 y 1 (0.95 = p95)
+     */
+    public double getFramePercentileMillis(double percentile) {
+        return percentileMillis(frameBuckets, frameCount, maxFrameNanos, percentile);
+    }
+    
+    /**
+     * Percentil del tiempo de onDraw en milisegundos
+     */
+    public double getDrawPercentileMillis(double percentile) {
+        return percentileMillis(drawBuckets, drawCount, maxDrawNanos, percentile);
+    }
+    
+    /**
+     * Límite superior de la cubeta donde cae el percentil (acotado por el
+     * máximo observado, así un valor repetido se informa exacto); si cae
+     * en la última cubeta, que no tiene límite, se informa el máximo
+     */
+    private static double percentileMillis(int[] buckets, int count, long maxNanos, double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank && i < buckets.length - 1) {
+                return Math.min((i + 1) * BUCKET_NANOS, maxNanos) / 1e6;
+            }
+        }
+        return maxNanos / 1e6;
+    }
+    
+    /**
+     * Resumen de la partida para guardar con el récord, por ejemplo
+     * "frames=812;jank=3;p50=8.25;p90=9.00;p95=11.50;p99=16.75;max=33.10;draw_p50=0.25;draw_p95=0.50;draw_p99=1.25"
+     */
+    public String toSummary() {
+        return String.format(Locale.ROOT,
+                "frames=%d;jank=%d;p50=%.2f;p90=%.2f;p95=%.2f;p99=%.2f;max=%.2f;draw_p50=%.2f;draw_p95=%.2f;draw_p99=%.2f",
+                frameCount, jankCount,
+                getFramePercentileMillis(0.50), getFramePercentileMillis(0.90),
+                getFramePercentileMillis(0.95), getFramePercentileMillis(0.99),
+                maxFrameNanos / 1e6,
+                getDrawPercentileMillis(0.50), getDrawPercentileMillis(0.95),
+                getDrawPercentileMillis(0.99));
+    }
+    
+    // Getters
+    public int getFrameCount() {
+        return frameCount;
+    }
+    
+    public int getDrawCount() {
+        return drawCount;
+    }
+    
+    public int getJankCount() {
+        return jankCount;
+    }
+    
+    public double getLastFrameMillis() {
+        return lastFrameNanos / 1e6;
+    }
+    
+    public double getLastDrawMillis() {
+        return lastDrawNanos / 1e6;
+    }
+}
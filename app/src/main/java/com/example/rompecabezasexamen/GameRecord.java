@@ -6,11 +6,12 @@ package com.example.rompecabezasexamen;
 public class GameRecord {
     private int id;
     private String playerName;
-    private int difficulty; // 2, 3, 4, 5 (tamaño del grid)
+    private int difficulty; // 2 a 10 (tamaño del grid)
     private long timeInMillis; // Tiempo en milisegundos
     private int moves; // Número de movimientos
     private int score; // Puntuación calculada
     private long completedAt; // Timestamp de cuando se completó
+    private String frameStats; // Resumen de tiempos de frame de la partida (null = sin medir)
 
     // Constructor vacío
     public GameRecord() {
@@ -130,6 +131,14 @@ public class GameRecord {
         this.completedAt = completedAt;
     }
 
+    public String getFrameStats() {
+        return frameStats;
+    }
+
+    public void setFrameStats(String frameStats) {
+        this.frameStats = frameStats;
+    }
+
     @Override
     public String toString() {
         return "GameRecord{" +
@@ -140,6 +149,7 @@ public class GameRecord {
                 ", moves=" + moves +
                 ", score=" + score +
                 ", completedAt=" + completedAt +
+                ", frameStats='" + frameStats + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,33 @@
+package com.example.rompecabezasexamen;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Conjunto cerrado en memoria basado en un HashSet
+ * Es la implementación por defecto de AStar
+ */
+public class HashClosedSet implements ClosedSet {
+    
+    private final Set<PuzzleState> states = new HashSet<>();
+    
+    @Override
+    public boolean add(PuzzleState state) {
+        return states.add(state);
+    }
+    
+    @Override
+    public boolean contains(PuzzleState state) {
+        return states.contains(state);
+    }
+    
+    @Override
+    public long size() {
+        return states.size();
+    }
+    
+    @Override
+    public void clear() {
+        states.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.rompecabezasexamen;
+
+/**
+ * Función heurística h(n) usada por los algoritmos de búsqueda
+ * 
+ * Debe ser admisible (nunca sobreestimar los movimientos restantes)
+ * para que las soluciones encontradas sean óptimas.
+ */
+public interface Heuristic {
+    
+    /**
+     * Estima el número de movimientos necesarios para resolver el tablero
+     */
+    int estimate(int[][] board);
+}
@@ -0,0 +1,268 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Resolución jerárquica por subobjetivos para tableros grandes
+ * 
+ * Funcionamiento:
+ * 1. Coloca la fila superior pendiente pieza por pieza (las dos últimas
+ *    juntas) y la bloquea; repite hasta que quedan 3 filas
+ * 2. Hace lo mismo con la columna izquierda pendiente hasta que queda 3x3
+ * 3. Resuelve el 3x3 final con todas sus piezas a la vez
+ * 
+ * Cada subobjetivo es una búsqueda A* pequeña que solo sigue las piezas
+ * del subobjetivo y el espacio vacío (el resto de piezas libres son
+ * intercambiables), así que el tiempo es casi lineal en el número de piezas.
+ * La solución no es óptima: sirve como respuesta inmediata y como cota
+ * inicial para AnytimeWeightedAStar.
+ * 
+ * En 6x6 a 10x10 tarda de decenas a cientos de milisegundos, así que
+ * acepta un plazo (y respeta la interrupción del hilo): al vencer
+ * devuelve null en lugar de una solución parcial.
+ */
+public class HierarchicalSolver {
+    
+    private static final int BITS_PER_CELL = 7;   // Hasta 128 celdas (tableros de 11x11)
+    private static final int FINAL_REGION = 3;
+    private static final int CLOCK_INTERVAL = 256;   // Expansiones entre consultas al reloj
+    
+    private final int size;
+    private final int[] cells;         // Tablero aplanado
+    private final boolean[] locked;    // Celdas ya resueltas
+    private final long deadline;       // System.currentTimeMillis() límite
+    private long expansions;
+    private int blank;
+    private final List<String> moves = new ArrayList<>();
+    
+    /**
+     * Nodo de la búsqueda de un subobjetivo
+     */
+    private static final class Node implements Comparable<Node> {
+        final long key;
+        final int g;
+        final int f;
+        final Node parent;
+        final int direction;
+        
+        Node(long key, int g, int h, Node parent, int direction) {
+            this.key = key;
+            this.g = g;
+            this.f = g + h;
+            this.parent = parent;
+            this.direction = direction;
+        }
+        
+        @Override
+        public int compareTo(Node other) {
+            if (f != other.f) return Integer.compare(f, other.f);
+            return Integer.compare(other.g, g);
+        }
+    }
+    
+    private HierarchicalSolver(int[][] board, long deadline) {
+        this.size = board.length;
+        this.deadline = deadline;
+        this.cells = new int[size * size];
+        this.locked = new boolean[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                cells[i * size + j] = board[i][j];
+                if (board[i][j] == 0) blank = i * size + j;
+            }
+        }
+    }
+    
+    /**
+     * Resuelve el tablero por subobjetivos
+     * 
+     * @return Lista de movimientos (null si el tablero no tiene solución)
+     */
+    public static List<String> solve(int[][] board) {
+        return solve(board, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Resuelve el tablero por subobjetivos dentro de un plazo
+     * 
+     * @param deadlineMillis Instante límite (System.currentTimeMillis())
+     * @return Lista de movimientos (null si el tablero no tiene solución,
+     *         venció el plazo o el hilo se interrumpió)
+     */
+    public static List<String> solve(int[][] board, long deadlineMillis) {
+        if (!new AStar().isSolvable(board)) return null;
+        if (board.length * board.length > 1 << BITS_PER_CELL) {
+            throw new IllegalArgumentException("Tablero demasiado grande: " + board.length);
+        }
+        HierarchicalSolver solver = new HierarchicalSolver(board, deadlineMillis);
+        return solver.run() ? solver.moves : null;
+    }
+    
+    /**
+     * @return false si venció el plazo antes de terminar
+     */
+    private boolean run() {
+        int top = 0;
+        int left = 0;
+        
+        // Filas superiores hasta que queden FINAL_REGION filas
+        while (size - top > FINAL_REGION) {
+            for (int col = left; col < size - 2; col++) {
+                if (!place(new int[]{top * size + col})) return false;
+            }
+            if (!place(new int[]{top * size + size - 2, top * size + size - 1})) return false;
+            top++;
+        }
+        
+        // Columnas izquierdas hasta que quede la región final
+        while (size - left > FINAL_REGION) {
+            for (int row = top; row < size - 2; row++) {
+                if (!place(new int[]{row * size + left})) return false;
+            }
+            if (!place(new int[]{(size - 2) * size + left, (size - 1) * size + left})) return false;
+            left++;
+        }
+        
+        // Región final: todas sus piezas a la vez
+        List<Integer> targets = new ArrayList<>();
+        for (int row = top; row < size; row++) {
+            for (int col = left; col < size; col++) {
+                if (row != size - 1 || col != size - 1) targets.add(row * size + col);
+            }
+        }
+        int[] finalTargets = new int[targets.size()];
+        for (int i = 0; i < finalTargets.length; i++) finalTargets[i] = targets.get(i);
+        return place(finalTargets);
+    }
+    
+    /**
+     * Lleva a su celda objetivo las piezas que corresponden a targets y
+     * bloquea esas celdas
+     * 
+     * @return false si venció el plazo (el tablero queda a medias)
+     */
+    private boolean place(int[] targets) {
+        int k = targets.length;
+        int[] positions = new int[k];
+        for (int i = 0; i < k; i++) {
+            int tile = targets[i] + 1;
+            for (int c = 0; c < cells.length; c++) {
+                if (cells[c] == tile) positions[i] = c;
+            }
+        }
+        
+        List<Integer> path = search(positions, targets);
+        if (path == null) return false;
+        for (int direction : path) {
+            int next = blank + delta(direction);
+            cells[blank] = cells[next];
+            cells[next] = 0;
+            blank = next;
+            moves.add(PuzzleState.MOVE_NAMES[direction]);
+        }
+        for (int target : targets) {
+            locked[target] = true;
+        }
+        return true;
+    }
+    
+    /**
+     * A* sobre (posiciones de las piezas, posición del vacío)
+     * 
+     * @return Direcciones del vacío, o null si venció el plazo
+     */
+    private List<Integer> search(int[] start, int[] targets) {
+        int k = start.length;
+        int mask = (1 << BITS_PER_CELL) - 1;
+        long startKey = encode(start, blank);
+        
+        PriorityQueue<Node> open = new PriorityQueue<>();
+        Map<Long, Integer> bestG = new HashMap<>();
+        open.add(new Node(startKey, 0, heuristic(start, targets), null, -1));
+        bestG.put(startKey, 0);
+        
+        int[] positions = new int[k];
+        while (!open.isEmpty()) {
+            Node node = open.poll();
+            if (bestG.get(node.key) < node.g) continue;
+            
+            if (++expansions % CLOCK_INTERVAL == 0
+                    && (System.currentTimeMillis() >= deadline || Thread.currentThread().isInterrupted())) {
+                return null;
+            }
+            
+            for (int i = 0; i < k; i++) {
+                positions[i] = (int) (node.key >>> (BITS_PER_CELL * i)) & mask;
+            }
+            int empty = (int) (node.key >>> (BITS_PER_CELL * k)) & mask;
+            
+            boolean done = true;
+            for (int i = 0; i < k && done; i++) {
+                done = positions[i] == targets[i];
+            }
+            if (done) return buildPath(node);
+            
+            int row = empty / size;
+            int col = empty % size;
+            for (int direction = 0; direction < 4; direction++) {
+                int r = row + PuzzleState.ROW_MOVES[direction];
+                int c = col + PuzzleState.COL_MOVES[direction];
+                if (r < 0 || r >= size || c < 0 || c >= size) continue;
+                int next = r * size + c;
+                if (locked[next]) continue;
+                
+                // Si en la celda hay una pieza del subobjetivo, se mueve al vacío
+                int moved = -1;
+                for (int i = 0; i < k; i++) {
+                    if (positions[i] == next) {
+                        moved = i;
+                        positions[i] = empty;
+                    }
+                }
+                long key = encode(positions, next);
+                int g = node.g + 1;
+                Integer known = bestG.get(key);
+                if (known == null || g < known) {
+                    bestG.put(key, g);
+                    open.add(new Node(key, g, heuristic(positions, targets), node, direction));
+                }
+                if (moved >= 0) positions[moved] = next;
+            }
+        }
+        throw new IllegalStateException("Subobjetivo sin solución");
+    }
+    
+    private long encode(int[] positions, int empty) {
+        long key = 0;
+        for (int i = 0; i < positions.length; i++) {
+            key |= (long) positions[i] << (BITS_PER_CELL * i);
+        }
+        return key | (long) empty << (BITS_PER_CELL * positions.length);
+    }
+    
+    private int heuristic(int[] positions, int[] targets) {
+        int h = 0;
+        for (int i = 0; i < positions.length; i++) {
+            h += Math.abs(positions[i] / size - targets[i] / size) + Math.abs(positions[i] % size - targets[i] % size);
+        }
+        return h;
+    }
+    
+    private int delta(int direction) {
+        return PuzzleState.ROW_MOVES[direction] * size + PuzzleState.COL_MOVES[direction];
+    }
+    
+    private List<Integer> buildPath(Node goal) {
+        List<Integer> path = new ArrayList<>();
+        for (Node node = goal; node.parent != null; node = node.parent) {
+            path.add(node.direction);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.rompecabezasexamen;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pistas de "siguiente movimiento" para el tablero actual
+ * 
+ * Funcionamiento:
+ * 1. Busca el tablero en una caché LRU de la sesión
+ * 2. Si no está, pide una solución al SolverService con un plazo corto
+ *    (tabla exacta en 2x2/3x3, IDA* con PDB o A* anytime en el resto)
+ * 3. Guarda una pista para cada estado del camino encontrado: si el
+ *    jugador sigue las pistas, las siguientes salen de la caché
+ * 
+ * La distancia restante solo se informa como exacta cuando la solución es
+ * óptima; con el motor anytime es la longitud del mejor camino conocido.
+ */
+public class HintService {
+    
+    public static final long DEFAULT_BUDGET_MILLIS = 50;
+    private static final int CACHE_CAPACITY = 512;   // Tableros recordados por sesión
+    
+    private final SolverService solverService;
+    private final long budgetMillis;
+    private final Map<PuzzleState, Hint> cache;
+    
+    // Estadísticas de la sesión
+    private long requests;
+    private long cacheHits;
+    
+    /**
+     * Pista inmutable: pieza a deslizar y distancia restante
+     */
+    public static final class Hint {
+        private final int tileRow;        // Pieza que hay que deslizar al espacio vacío
+        private final int tileCol;
+        private final String move;        // Movimiento del espacio vacío (PuzzleState.MOVE_NAMES)
+        private final int distance;       // Movimientos restantes (incluido este)
+        private final boolean exact;      // true si distance es la distancia óptima
+        private final SolverResult.Engine engine;
+        private final long elapsedMillis;
+        private final boolean cached;
+        
+        Hint(int tileRow, int tileCol, String move, int distance, boolean exact,
+             SolverResult.Engine engine, long elapsedMillis, boolean cached) {
+            this.tileRow = tileRow;
+            this.tileCol = tileCol;
+            this.move = move;
+            this.distance = distance;
+            this.exact = exact;
+            this.engine = engine;
+            this.elapsedMillis = elapsedMillis;
+            this.cached = cached;
+        }
+        
+        Hint fromCache(long elapsedMillis) {
+            return new Hint(tileRow, tileCol, move, distance, exact, engine, elapsedMillis, true);
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Pista: pieza (%d,%d) %s, faltan %d%s, %s, %d ms%s",
+                    tileRow, tileCol, move, distance, exact ? "" : " o menos", engine,
+                    elapsedMillis, cached ? " (caché)" : "");
+        }
+        
+        // Getters
+        public int getTileRow() {
+            return tileRow;
+        }
+        
+        public int getTileCol() {
+            return tileCol;
+        }
+        
+        public String getMove() {
+            return move;
+        }
+        
+        public int getDistance() {
+            return distance;
+        }
+        
+        public boolean isExact() {
+            return exact;
+        }
+        
+        public SolverResult.Engine getEngine() {
+            return engine;
+        }
+        
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+        
+        public boolean isCached() {
+            return cached;
+        }
+    }
+    
+    public HintService(SolverService solverService) {
+        this(solverService, DEFAULT_BUDGET_MILLIS);
+    }
+    
+    public HintService(SolverService solverService, long budgetMillis) {
+        this.solverService = solverService;
+        this.budgetMillis = budgetMillis;
+        this.cache = new LinkedHashMap<PuzzleState, Hint>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PuzzleState, Hint> eldest) {
+                return size() > CACHE_CAPACITY;
+            }
+        };
+    }
+    
+    /**
+     * Calcula la pista para un tablero
+     * 
+     * @return La pista, o null si el tablero ya está resuelto o no tiene solución
+     */
+    public synchronized Hint getHint(int[][] board) {
+        long start = System.currentTimeMillis();
+        requests++;
+        
+        PuzzleState key = new PuzzleState(board, 0, null, null);
+        if (key.isGoal()) return null;
+        
+        Hint cachedHint = cache.get(key);
+        if (cachedHint != null) {
+            cacheHits++;
+            return cachedHint.fromCache(System.currentTimeMillis() - start);
+        }
+        
+        SolverResult result = solverService.solve(board, budgetMillis);
+        if (!result.isSolved() || result.getMoves().isEmpty()) return null;
+        
+        long elapsed = System.currentTimeMillis() - start;
+        Hint first = null;
+        List<String> moves = result.getMoves();
+        PuzzleState state = key;
+        for (int i = 0; i < moves.size(); i++) {
+            int direction = directionOf(moves.get(i));
+            Hint hint = new Hint(
+                    state.getEmptyRow() + PuzzleState.ROW_MOVES[direction],
+                    state.getEmptyCol() + PuzzleState.COL_MOVES[direction],
+                    moves.get(i), moves.size() - i, result.isOptimal(),
+                    result.getEngine(), elapsed, false);
+            if (first == null) first = hint;
+            
+            // No reemplazar pistas exactas con otras aproximadas
+            Hint known = cache.get(state);
+            if (known == null || !known.isExact() || hint.isExact()) {
+                cache.put(state, hint);
+            }
+            
+            // Cada paso parte de un estado sin movimiento previo: un camino
+            // no óptimo puede deshacer el último movimiento y la poda lo rechazaría
+            PuzzleState next = state.getNeighbor(direction);
+            if (next == null) break;   // Movimiento fuera del tablero: el resto del camino no sirve
+            state = new PuzzleState(next.getBoard(), 0, null, null);
+        }
+        return first;
+    }
+    
+    private static int directionOf(String move) {
+        for (int direction = 0; direction < PuzzleState.MOVE_NAMES.length; direction++) {
+            if (PuzzleState.MOVE_NAMES[direction].equals(move)) return direction;
+        }
+        throw new IllegalArgumentException("Movimiento desconocido: " + move);
+    }
+    
+    /**
+     * Vacía la caché (por ejemplo al empezar una partida nueva)
+     */
+    public synchronized void clearCache() {
+        cache.clear();
+    }
+    
+    // Getters
+    public synchronized long getRequests() {
+        return requests;
+    }
+    
+    public synchronized long getCacheHits() {
+        return cacheHits;
+    }
+    
+    public synchronized int getCacheSize() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementación de IDA* (A* con profundización iterativa)
+ * 
+ * Funcionamiento:
+ * 1. Empieza con un umbral igual a la heurística del estado inicial
+ * 2. Hace una búsqueda en profundidad podando los estados con f(n) > umbral
+ * 3. Si no encuentra el objetivo, repite con el menor f(n) que superó el umbral
+ * 
+ * Usa memoria proporcional a la profundidad de la solución, pero vuelve a
+ * expandir los mismos estados en cada iteración. Dos mejoras opcionales
+ * (se pueden activar por separado para medir su efecto):
+ * - Tabla de transposición: recuerda la mejor cota inferior de cada estado
+ *   y poda ramas que ya se sabe que superan el umbral
+ * - Ordenamiento de movimientos: explora primero los hijos con menor h(n),
+ *   lo que suele encontrar la solución antes en la última iteración
+ * - Perímetro del objetivo (ver PerimeterDatabase): la búsqueda termina en
+ *   cuanto alcanza un estado del perímetro con g + distancia <= umbral, y el
+ *   resto del camino se reconstruye bajando por las distancias exactas
+ * 
+ * Si el hilo se interrumpe, la búsqueda se abandona y devuelve null.
+ */
+public class IDAStar {
+    
+    private static final int DEFAULT_MAX_NODES = 5_000_000;   // Límite de expansiones
+    private static final int DEFAULT_TABLE_LOG2 = 20;         // 1M entradas (~10 MB)
+    private static final int FOUND = -1;
+    private static final int INTERRUPT_CHECK_MASK = 0xFFF;    // Consultar la interrupción cada 4096 nodos
+    
+    private final int maxNodes;
+    private Heuristic heuristic;                 // Heurística (null = distancia Manhattan)
+    private boolean useTranspositionTable = true;
+    private boolean useMoveOrdering = true;
+    private final TranspositionTable table;
+    private PerimeterDatabase perimeter;         // null = buscar hasta isGoal()
+    
+    // Estado de la última búsqueda
+    private List<String> solutionMoves = new ArrayList<>();
+    private long nodesExpanded;
+    private int iterations;
+    private long elapsedMillis;
+    private boolean solutionFound;
+    private PuzzleState goalState;
+    private List<String> perimeterTail;          // Camino desde goalState hasta el objetivo
+    private long perimeterLookups;
+    private boolean interrupted;                 // El hilo se interrumpió: abandonar la búsqueda
+    
+    private static final Comparator<PuzzleState> BY_HEURISTIC =
+            (a, b) -> Integer.compare(a.getHCost(), b.getHCost());
+    
+    public IDAStar() {
+        this(DEFAULT_MAX_NODES, DEFAULT_TABLE_LOG2);
+    }
+    
+    /**
+     * @param maxNodes Límite de expansiones antes de abandonar la búsqueda
+     * @param tableLog2 La tabla de transposición tendrá 2^tableLog2 entradas
+     */
+    public IDAStar(int maxNodes, int tableLog2) {
+        this.maxNodes = maxNodes;
+        this.table = new TranspositionTable(tableLog2);
+    }
+    
+    /**
+     * Resuelve el puzzle usando IDA*
+     * 
+     * @param initialBoard Configuración inicial del tablero
+     * @return Lista de movimientos para resolver el puzzle (null si no hay solución)
+     */
+    public List<String> solvePuzzle(int[][] initialBoard) {
+        long start = System.currentTimeMillis();
+        solutionMoves = new ArrayList<>();
+        nodesExpanded = 0;
+        iterations = 0;
+        solutionFound = false;
+        goalState = null;
+        perimeterTail = null;
+        perimeterLookups = 0;
+        interrupted = false;
+        table.clear();
+        
+        PuzzleState root = new PuzzleState(initialBoard, 0, null, null, heuristic, MovePruning.full());
+        if (root.isGoal()) {
+            solutionFound = true;
+            elapsedMillis = System.currentTimeMillis() - start;
+            return new ArrayList<>();
+        }
+        
+        if (!new AStar().isSolvable(initialBoard)) {
+            elapsedMillis = System.currentTimeMillis() - start;
+            return null;
+        }
+        
+        int threshold = root.getHCost();
+        while (nodesExpanded < maxNodes) {
+            iterations++;
+            int result = search(root, threshold);
+            if (result == FOUND) {
+                solutionFound = true;
+                solutionMoves = buildPath(goalState);
+                if (perimeterTail != null) {
+                    solutionMoves.addAll(perimeterTail);
+                }
+                break;
+            }
+            if (result == Integer.MAX_VALUE) {
+                break;
+            }
+            threshold = result;
+        }
+        
+        elapsedMillis = System.currentTimeMillis() - start;
+        return solutionFound ? new ArrayList<>(solutionMoves) : null;
+    }
+    
+    /**
+     * Búsqueda en profundidad acotada por el umbral
+     * 
+     * @return FOUND si encontró el objetivo o el menor f que superó el umbral
+     */
+    private int search(PuzzleState state, int threshold) {
+        int g = state.getGCost();
+        int h = state.getHCost();
+        
+        long hash = 0;
+        if (useTranspositionTable) {
+            hash = state.longHashCode();
+            int stored = table.probe(hash);
+            if (stored > h) h = stored;
+        }
+        
+        int f = g + h;
+        if (f > threshold) return f;
+        if (state.isGoal()) {
+            goalState = state;
+            return FOUND;
+        }
+        if (perimeter != null && h <= perimeter.getDepth()) {
+            // Con h admisible > d el estado no puede estar en el perímetro
+            perimeterLookups++;
+            int[][] board = state.getBoard();
+            int distance = perimeter.distance(board);
+            if (distance >= 0) {
+                if (g + distance > threshold) return g + distance;
+                goalState = state;
+                perimeterTail = perimeter.pathToGoal(board);
+                return FOUND;
+            }
+        }
+        if ((nodesExpanded & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+            interrupted = true;
+        }
+        if (nodesExpanded >= maxNodes || interrupted) return Integer.MAX_VALUE;
+        nodesExpanded++;
+        
+        List<PuzzleState> children = state.getNeighbors();
+        if (useMoveOrdering) {
+            Collections.sort(children, BY_HEURISTIC);
+        }
+        
+        int min = Integer.MAX_VALUE;
+        for (PuzzleState child : children) {
+            int result = search(child, threshold);
+            if (result == FOUND) return FOUND;
+            if (result < min) min = result;
+        }
+        
+        if (useTranspositionTable && min != Integer.MAX_VALUE) {
+            // Ningún camino desde este estado cuesta menos de min - g
+            table.store(hash, min - g, threshold - g);
+        }
+        return min;
+    }
+    
+    private List<String> buildPath(PuzzleState goal) {
+        List<String> path = new ArrayList<>();
+        for (PuzzleState current = goal; current.getParent() != null; current = current.getParent()) {
+            path.add(current.getMove());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    /**
+     * Obtiene información sobre la última ejecución del algoritmo
+     */
+    public String getExecutionInfo() {
+        return String.format("Iteraciones: %d, Nodos: %d, Solución encontrada: %s, Movimientos: %d, Tiempo: %d ms, TT: %d/%d aciertos, Perímetro: %d consultas",
+                iterations, nodesExpanded, solutionFound, solutionMoves.size(), elapsedMillis,
+                table.getHits(), table.getProbes(), perimeterLookups);
+    }
+    
+    // Configuración
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+    
+    public void setUseTranspositionTable(boolean useTranspositionTable) {
+        this.useTranspositionTable = useTranspositionTable;
+    }
+    
+    public void setUseMoveOrdering(boolean useMoveOrdering) {
+        this.useMoveOrdering = useMoveOrdering;
+    }
+    
+    public void setPerimeter(PerimeterDatabase perimeter) {
+        this.perimeter = perimeter;
+    }
+    
+    // Getters para información adicional
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+    
+    public int getIterations() {
+        return iterations;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public boolean isSolutionFound() {
+        return solutionFound;
+    }
+    
+    public List<String> getSolutionMoves() {
+        return new ArrayList<>(solutionMoves);
+    }
+    
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+    
+    public long getPerimeterLookups() {
+        return perimeterLookups;
+    }
+}
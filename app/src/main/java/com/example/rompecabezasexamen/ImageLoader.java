@@ -0,0 +1,256 @@
+package com.example.rompecabezasexamen;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.ImageDecoder;
+import android.graphics.Matrix;
+import android.graphics.Rect;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.SystemClock;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * Decodificación de las imágenes del puzzle (cámara y galería)
+ * 
+ * Funcionamiento (archivos y Uris):
+ * 1. Lee solo la cabecera de la imagen (tamaño) y su orientación EXIF
+ * 2. Arma un DecodePlan: cuadrado central y inSampleSize
+ * 3. BitmapRegionDecoder lee solo esa región y ya submuestreada: los
+ *    píxeles de fuera del cuadrado nunca se decodifican
+ * 4. Si hace falta, una única copia escala al lado del tablero y aplica
+ *    la rotación EXIF
+ * 5. Devuelve el bitmap con el tiempo y el pico de bytes
+ * 
+ * Si el formato no admite decodificar regiones (o la orientación EXIF es
+ * un espejo) se usa ImageDecoder con tamaño de salida y recorte.
+ * 
+ * Es una llamada bloqueante: ejecutarla fuera del hilo principal (por
+ * ejemplo en el carril INTERACTIVE de SolverScheduler).
+ */
+public class ImageLoader {
+    
+    private static final int BYTES_PER_PIXEL = DecodePlan.BYTES_PER_PIXEL;
+    
+    /**
+     * Abre la imagen desde el principio (se lee más de una vez)
+     */
+    private interface StreamSource {
+        InputStream open() throws IOException;
+    }
+    
+    /**
+     * Resultado inmutable de una decodificación
+     */
+    public static final class Result {
+        private final Bitmap bitmap;
+        private final int sourceWidth;       // Tamaño original de la imagen
+        private final int sourceHeight;
+        private final long decodeMillis;
+        private final long peakBytes;        // Bytes de bitmaps vivos a la vez al decodificar
+        
+        Result(Bitmap bitmap, int sourceWidth, int sourceHeight, long decodeMillis, long peakBytes) {
+            this.bitmap = bitmap;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.decodeMillis = decodeMillis;
+            this.peakBytes = peakBytes;
+        }
+        
+        /**
+         * Bytes que ocuparía la imagen decodificada completa (lo que hacía
+         * BitmapFactory.decodeFile), para comparar con peakBytes
+         */
+        public long getFullDecodeBytes() {
+            return (long) sourceWidth * sourceHeight * BYTES_PER_PIXEL;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Imagen %dx%d -> %dx%d en %d ms, pico %d KB (completa %d KB)",
+                    sourceWidth, sourceHeight, bitmap.getWidth(), bitmap.getHeight(), decodeMillis,
+                    peakBytes / 1024, getFullDecodeBytes() / 1024);
+        }
+        
+        // Getters
+        public Bitmap getBitmap() {
+            return bitmap;
+        }
+        
+        public int getSourceWidth() {
+            return sourceWidth;
+        }
+        
+        public int getSourceHeight() {
+            return sourceHeight;
+        }
+        
+        public long getDecodeMillis() {
+            return decodeMillis;
+        }
+        
+        public long getPeakBytes() {
+            return peakBytes;
+        }
+    }
+    
+    private ImageLoader() {
+    }
+    
+    /**
+     * Decodifica el cuadrado central de un archivo (foto de la cámara)
+     * 
+     * @param targetSide Lado del cuadrado en píxeles (sin ampliar)
+     */
+    public static Result decodeSquare(File file, int targetSide) throws IOException {
+        return decodeSquare(() -> new FileInputStream(file), ImageDecoder.createSource(file), targetSide);
+    }
+    
+    /**
+     * Decodifica el cuadrado central de un Uri (imagen de la galería)
+     */
+    public static Result decodeSquare(ContentResolver resolver, Uri uri, int targetSide) throws IOException {
+        StreamSource streams = () -> {
+            InputStream in = resolver.openInputStream(uri);
+            if (in == null) throw new FileNotFoundException("Sin contenido: " + uri);
+            return in;
+        };
+        return decodeSquare(streams, ImageDecoder.createSource(resolver, uri), targetSide);
+    }
+    
+    /**
+     * Decodifica solo la región central con BitmapRegionDecoder (ver la
+     * clase); si no se puede, con ImageDecoder
+     */
+    private static Result decodeSquare(StreamSource streams, ImageDecoder.Source fallback,
+                                       int targetSide) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+        
+        // 1. Cabecera: tamaño y orientación, sin decodificar píxeles
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = streams.open()) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        int rotation;
+        try (InputStream in = streams.open()) {
+            rotation = rotationDegrees(new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL));
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0 || rotation < 0) {
+            return decodeSquare(fallback, targetSide);
+        }
+        
+        // 2. Plan y decodificación de la región
+        DecodePlan plan = DecodePlan.centerSquare(bounds.outWidth, bounds.outHeight, targetSide, rotation != 0);
+        BitmapRegionDecoder decoder;
+        try (InputStream in = streams.open()) {
+            decoder = BitmapRegionDecoder.newInstance(in);
+        } catch (IOException e) {
+            decoder = null;
+        }
+        if (decoder == null) {
+            return decodeSquare(fallback, targetSide);
+        }
+        
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = plan.getSampleSize();
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        Bitmap region;
+        try {
+            region = decoder.decodeRegion(new Rect(plan.getRegionLeft(), plan.getRegionTop(),
+                    plan.getRegionLeft() + plan.getRegionSide(),
+                    plan.getRegionTop() + plan.getRegionSide()), options);
+        } finally {
+            decoder.recycle();
+        }
+        if (region == null) {
+            throw new IOException("No se pudo decodificar la región " + plan);
+        }
+        
+        // 3. Una sola copia para escalar y rotar (la región se libera enseguida)
+        long peakBytes = region.getAllocationByteCount();
+        Bitmap output = region;
+        if (plan.isCopyNeeded()) {
+            Matrix matrix = new Matrix();
+            float scale = plan.getOutputSide() / (float) region.getWidth();
+            matrix.setScale(scale, scale);
+            matrix.postRotate(rotation);
+            output = Bitmap.createBitmap(region, 0, 0, region.getWidth(), region.getHeight(), matrix, true);
+            if (output != region) {
+                peakBytes += output.getAllocationByteCount();
+                region.recycle();
+            }
+        }
+        
+        return new Result(output, bounds.outWidth, bounds.outHeight,
+                SystemClock.elapsedRealtime() - start, peakBytes);
+    }
+    
+    /**
+     * Grados a rotar según la orientación EXIF (-1 = espejo, no soportado)
+     */
+    private static int rotationDegrees(int orientation) {
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_NORMAL:
+            case ExifInterface.ORIENTATION_UNDEFINED:
+                return 0;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                return 90;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                return 180;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                return 270;
+            default:
+                return -1;
+        }
+    }
+    
+    /**
+     * Decodifica el cuadrado central con ImageDecoder (tamaño de salida y
+     * recorte); aplica cualquier orientación EXIF
+     * 
+     * El pico informado es solo el bitmap de salida: ImageDecoder no expone
+     * sus búferes intermedios.
+     * 
+     * @param source Imagen (ImageDecoder.createSource de un archivo, Uri o búfer)
+     * @param targetSide Lado del cuadrado en píxeles (si la imagen es más
+     *                   chica se devuelve a su tamaño, sin ampliar)
+     * @return Bitmap cuadrado en software (se dibuja en el atlas de PuzzleView)
+     */
+    public static Result decodeSquare(ImageDecoder.Source source, int targetSide) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+        int[] sourceSize = new int[2];
+        
+        Bitmap bitmap = ImageDecoder.decodeBitmap(source, (decoder, info, src) -> {
+            int width = info.getSize().getWidth();
+            int height = info.getSize().getHeight();
+            sourceSize[0] = width;
+            sourceSize[1] = height;
+            
+            // Escalar para que el lado corto sea targetSide (sin ampliar)
+            double scale = Math.min(1.0, (double) targetSide / Math.min(width, height));
+            int scaledWidth = Math.max(1, (int) Math.round(width * scale));
+            int scaledHeight = Math.max(1, (int) Math.round(height * scale));
+            int side = Math.min(scaledWidth, scaledHeight);
+            int left = (scaledWidth - side) / 2;
+            int top = (scaledHeight - side) / 2;
+            
+            decoder.setTargetSize(scaledWidth, scaledHeight);
+            decoder.setCrop(new Rect(left, top, left + side, top + side));
+            // Los bitmaps de hardware no se pueden dibujar en el canvas del atlas
+            decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+        });
+        
+        return new Result(bitmap, sourceSize[0], sourceSize[1],
+                SystemClock.elapsedRealtime() - start, bitmap.getAllocationByteCount());
+    }
+}
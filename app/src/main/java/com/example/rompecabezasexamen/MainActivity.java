@@ -197,13 +197,18 @@ public class MainActivity extends AppCompatActivity {
             getString(R.string.difficulty_2x2),
             getString(R.string.difficulty_3x3),
             getString(R.string.difficulty_4x4),
-            getString(R.string.difficulty_5x5)
+            getString(R.string.difficulty_5x5),
+            getString(R.string.difficulty_6x6),
+            getString(R.string.difficulty_7x7),
+            getString(R.string.difficulty_8x8),
+            getString(R.string.difficulty_9x9),
+            getString(R.string.difficulty_10x10)
         };
         
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle(R.string.select_difficulty);
         builder.setItems(difficulties, (dialog, which) -> {
-            int size = which + 2; // 2x2, 3x3, 4x4, 5x5
+            int size = which + 2; // 2x2 a 10x10
             showImageSelectionDialog(size);
         });
         builder.setNegativeButton(R.string.cancel, null);
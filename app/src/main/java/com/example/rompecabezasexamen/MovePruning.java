@@ -0,0 +1,306 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Autómata finito para podar secuencias de movimientos redundantes
+ * 
+ * Los movimientos se identifican por la dirección del espacio vacío
+ * (0 = ARRIBA, 1 = ABAJO, 2 = IZQUIERDA, 3 = DERECHA, el mismo orden que
+ * PuzzleState.getNeighbors). Una secuencia es "prohibida" si existe otra
+ * más corta, o igual de larga pero menor en orden lexicográfico, que deja
+ * el tablero exactamente igual. Ejemplos:
+ * - "ARRIBA ABAJO" equivale a no moverse (deshacer el movimiento anterior)
+ * - Dar vueltas alrededor de un bloque de 2x2 forma ciclos de 12
+ *   movimientos, así que sus dos mitades de 6 movimientos son equivalentes
+ * 
+ * Generación (una sola vez, al crear el autómata):
+ * 1. Se enumeran las secuencias hasta una longitud máxima en orden
+ *    longitud-lexicográfico sobre un tablero sin bordes
+ * 2. Si el efecto de una secuencia ya lo produjo una anterior cuyas
+ *    celdas visitadas están contenidas en las de ésta (para que la
+ *    alternativa también sea válida cerca de los bordes), se prohíbe
+ * 3. Con las secuencias prohibidas se construye un autómata Aho-Corasick;
+ *    cada estado de búsqueda guarda su estado del autómata y un hijo se
+ *    descarta si la transición lo lleva a completar una secuencia prohibida
+ */
+public final class MovePruning {
+    
+    public static final int MOVES = 4;
+    public static final int START = 0;      // Estado inicial del autómata
+    public static final int REJECT = -1;    // Transición prohibida
+    
+    private static final int[] DR = {-1, 1, 0, 0};
+    private static final int[] DC = {0, 0, -1, 1};
+    private static final int FULL_DEPTH = 10;
+    
+    private final int[] transitions;   // [estado * MOVES + movimiento] -> estado o REJECT
+    private final int stateCount;
+    private final int forbiddenCount;
+    private final int maxLength;
+    
+    private MovePruning(int[] transitions, int stateCount, int forbiddenCount, int maxLength) {
+        this.transitions = transitions;
+        this.stateCount = stateCount;
+        this.forbiddenCount = forbiddenCount;
+        this.maxLength = maxLength;
+    }
+    
+    /**
+     * Autómata que solo prohíbe deshacer el movimiento anterior.
+     * Es el adecuado para búsquedas con lista cerrada (A*): la lista ya
+     * detecta las transposiciones y combinarla con podas más largas puede
+     * descartar el único camino óptimo que queda abierto.
+     */
+    public static MovePruning inverseOnly() {
+        return InverseOnlyHolder.INSTANCE;
+    }
+    
+    /**
+     * Autómata completo para búsquedas en profundidad sin lista cerrada (IDA*)
+     */
+    public static MovePruning full() {
+        return FullHolder.INSTANCE;
+    }
+    
+    /**
+     * Los autómatas se construyen la primera vez que se piden (la JVM
+     * inicializa cada holder una sola vez); después leerlos no toma ningún
+     * lock, porque se consultan en cada PuzzleState creado
+     */
+    private static final class InverseOnlyHolder {
+        static final MovePruning INSTANCE = build(2);
+    }
+    
+    private static final class FullHolder {
+        static final MovePruning INSTANCE = build(FULL_DEPTH);
+    }
+    
+    /**
+     * Estado siguiente del autómata o REJECT si el movimiento debe podarse
+     */
+    public int next(int state, int move) {
+        return transitions[state * MOVES + move];
+    }
+    
+    /**
+     * Genera las secuencias prohibidas hasta maxLength y compila el autómata
+     */
+    public static MovePruning build(int maxLength) {
+        List<int[]> forbidden = findForbiddenSequences(maxLength);
+        return compile(forbidden, maxLength);
+    }
+    
+    /**
+     * Enumera secuencias en orden longitud-lexicográfico y devuelve las prohibidas
+     */
+    static List<int[]> findForbiddenSequences(int maxLength) {
+        int span = 2 * maxLength + 1;
+        int origin = maxLength * span + maxLength;
+        int[] grid = new int[span * span];
+        for (int i = 0; i < grid.length; i++) grid[i] = i;   // Cada pieza = su celda original
+        
+        Map<String, int[]> footprintByEffect = new HashMap<>();
+        Set<Long> forbiddenCodes = new HashSet<>();
+        List<int[]> forbidden = new ArrayList<>();
+        
+        // La secuencia vacía: ningún cambio, solo visita el origen
+        footprintByEffect.put(effectKey(new int[0], span, origin, grid), new int[]{origin});
+        
+        List<int[]> frontier = new ArrayList<>();
+        frontier.add(new int[0]);
+        
+        for (int length = 1; length <= maxLength; length++) {
+            List<int[]> nextFrontier = new ArrayList<>();
+            for (int[] prefix : frontier) {
+                for (int move = 0; move < MOVES; move++) {
+                    int[] sequence = Arrays.copyOf(prefix, length);
+                    sequence[length - 1] = move;
+                    
+                    // Si algún sufijo ya está prohibido, el autómata lo poda antes
+                    if (hasForbiddenSuffix(sequence, forbiddenCodes)) continue;
+                    
+                    String effect = effectKey(sequence, span, origin, grid);
+                    int[] footprint = footprint(sequence, span, origin);
+                    int[] previous = footprintByEffect.get(effect);
+                    
+                    if (previous != null && isSubset(previous, footprint)) {
+                        forbidden.add(sequence);
+                        forbiddenCodes.add(encode(sequence, 0));
+                    } else {
+                        if (previous == null) footprintByEffect.put(effect, footprint);
+                        nextFrontier.add(sequence);
+                    }
+                }
+            }
+            frontier = nextFrontier;
+        }
+        return forbidden;
+    }
+    
+    /**
+     * Codifica una secuencia (desde start) en base 4 con un bit marcador de longitud
+     */
+    private static long encode(int[] sequence, int start) {
+        long code = 1;
+        for (int i = start; i < sequence.length; i++) {
+            code = (code << 2) | sequence[i];
+        }
+        return code;
+    }
+    
+    private static boolean hasForbiddenSuffix(int[] sequence, Set<Long> forbiddenCodes) {
+        for (int start = 1; start < sequence.length; start++) {
+            if (forbiddenCodes.contains(encode(sequence, start))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Efecto de una secuencia: posición final del vacío y piezas desplazadas.
+     * Solo cambian las celdas visitadas; grid se restaura antes de volver.
+     */
+    private static String effectKey(int[] sequence, int span, int origin, int[] grid) {
+        int[] path = new int[sequence.length + 1];
+        path[0] = origin;
+        for (int i = 0; i < sequence.length; i++) {
+            path[i + 1] = path[i] + DR[sequence[i]] * span + DC[sequence[i]];
+        }
+        
+        for (int i = 0; i < sequence.length; i++) {
+            grid[path[i]] = grid[path[i + 1]];
+            grid[path[i + 1]] = origin;   // El vacío se marca con la celda de origen
+        }
+        
+        int blank = path[sequence.length];
+        int[] cells = footprint(sequence, span, origin);
+        StringBuilder key = new StringBuilder().append(blank).append(':');
+        for (int cell : cells) {
+            if (cell != blank && grid[cell] != cell) {
+                key.append(cell).append('=').append(grid[cell]).append(',');
+            }
+        }
+        
+        for (int cell : cells) grid[cell] = cell;
+        return key.toString();
+    }
+    
+    /**
+     * Celdas visitadas por el vacío (ordenadas, sin repetir)
+     */
+    private static int[] footprint(int[] sequence, int span, int origin) {
+        int[] cells = new int[sequence.length + 1];
+        cells[0] = origin;
+        for (int i = 0; i < sequence.length; i++) {
+            cells[i + 1] = cells[i] + DR[sequence[i]] * span + DC[sequence[i]];
+        }
+        Arrays.sort(cells);
+        
+        int unique = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (i == 0 || cells[i] != cells[i - 1]) cells[unique++] = cells[i];
+        }
+        return Arrays.copyOf(cells, unique);
+    }
+    
+    private static boolean isSubset(int[] small, int[] large) {
+        for (int cell : small) {
+            if (Arrays.binarySearch(large, cell) < 0) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Compila las secuencias prohibidas en un autómata Aho-Corasick
+     */
+    private static MovePruning compile(List<int[]> forbidden, int maxLength) {
+        // Trie de las secuencias
+        List<int[]> children = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        children.add(newNode());
+        terminal.add(false);
+        
+        for (int[] sequence : forbidden) {
+            int node = START;
+            for (int move : sequence) {
+                if (children.get(node)[move] < 0) {
+                    children.get(node)[move] = children.size();
+                    children.add(newNode());
+                    terminal.add(false);
+                }
+                node = children.get(node)[move];
+            }
+            terminal.set(node, true);
+        }
+        
+        // Enlaces de falla en BFS y transiciones completas
+        int stateCount = children.size();
+        int[] fail = new int[stateCount];
+        boolean[] rejecting = new boolean[stateCount];
+        int[] transitions = new int[stateCount * MOVES];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        
+        for (int move = 0; move < MOVES; move++) {
+            int child = children.get(START)[move];
+            if (child < 0) {
+                transitions[move] = START;
+            } else {
+                transitions[move] = child;
+                fail[child] = START;
+                queue.add(child);
+            }
+        }
+        
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            rejecting[node] = terminal.get(node) || rejecting[fail[node]];
+            for (int move = 0; move < MOVES; move++) {
+                int child = children.get(node)[move];
+                if (child < 0) {
+                    transitions[node * MOVES + move] = transitions[fail[node] * MOVES + move];
+                } else {
+                    transitions[node * MOVES + move] = child;
+                    fail[child] = transitions[fail[node] * MOVES + move];
+                    queue.add(child);
+                }
+            }
+        }
+        
+        // Las transiciones que completan una secuencia prohibida se rechazan
+        for (int i = 0; i < transitions.length; i++) {
+            int target = transitions[i];
+            if (target >= 0 && (terminal.get(target) || rejecting[target])) {
+                transitions[i] = REJECT;
+            }
+        }
+        
+        return new MovePruning(transitions, stateCount, forbidden.size(), maxLength);
+    }
+    
+    private static int[] newNode() {
+        int[] node = new int[MOVES];
+        Arrays.fill(node, -1);
+        return node;
+    }
+    
+    public int getStateCount() {
+        return stateCount;
+    }
+    
+    public int getForbiddenCount() {
+        return forbiddenCount;
+    }
+    
+    public int getMaxLength() {
+        return maxLength;
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * IDA* paralelo sobre un ForkJoinPool
+ * 
+ * Funcionamiento (por cada iteración del umbral):
+ * 1. Los nodos por encima de la profundidad de corte se expanden como
+ *    tareas: cada hijo es una subtarea y los hilos libres roban las tareas
+ *    pendientes de los demás (work stealing)
+ * 2. Debajo del corte cada tarea recorre su subárbol en profundidad, igual
+ *    que IDAStar, y devuelve el menor f que superó el umbral
+ * 3. La mejor solución encontrada se publica en una referencia atómica; su
+ *    costo es la cota que todos los hilos consultan para dejar de buscar
+ * 
+ * Dentro de una iteración cualquier solución tiene costo igual al umbral,
+ * así que la primera que se publica ya es óptima.
+ * 
+ * No usa tabla de transposición (TranspositionTable no es segura entre
+ * hilos). La heurística se comparte entre hilos: debe ser segura entre
+ * hilos (PatternDatabaseHeuristic lo es).
+ * 
+ * El estado de cada búsqueda vive en su propio objeto Search: varias
+ * llamadas a solvePuzzle pueden correr a la vez sobre la misma instancia.
+ * Los getters describen la última búsqueda que terminó.
+ * 
+ * Interrumpir el hilo que llamó a solvePuzzle abandona la búsqueda (las
+ * tareas lo consultan al sumar sus nodos) y devuelve null, igual que IDAStar.
+ * 
+ * Solo se usa en SolverBenchmark para medir la aceleración: SolverService
+ * resuelve cada tablero en un único hilo del carril de SolverScheduler, a su
+ * prioridad, y un pool con todos los núcleos competiría con la UI.
+ */
+public class ParallelIDAStar {
+    
+    private static final int DEFAULT_MAX_NODES = 50_000_000;
+    private static final int TASKS_PER_THREAD = 32;         // Tareas en la frontera por hilo
+    private static final double BRANCHING_FACTOR = 2.13;    // Factor de ramificación del 15-puzzle
+    private static final int FLUSH_INTERVAL = 4096;         // Nodos locales antes de sumar al contador global
+    
+    private final ForkJoinPool pool;
+    private final int maxNodes;
+    private final int splitDepth;
+    private volatile Heuristic heuristic;        // Heurística (null = distancia Manhattan)
+    private volatile boolean useMoveOrdering = true;
+    
+    // Resultado de la última búsqueda que terminó
+    private volatile LastRun lastRun = new LastRun(new ArrayList<>(), 0, 0, 0, false);
+    
+    /**
+     * Resultado inmutable de una búsqueda (para los getters)
+     */
+    private static final class LastRun {
+        final List<String> solutionMoves;
+        final long nodesExpanded;
+        final int iterations;
+        final long elapsedMillis;
+        final boolean solutionFound;
+        
+        LastRun(List<String> solutionMoves, long nodesExpanded, int iterations,
+                long elapsedMillis, boolean solutionFound) {
+            this.solutionMoves = solutionMoves;
+            this.nodesExpanded = nodesExpanded;
+            this.iterations = iterations;
+            this.elapsedMillis = elapsedMillis;
+            this.solutionFound = solutionFound;
+        }
+    }
+    
+    /**
+     * Estado compartido por las tareas de una búsqueda
+     */
+    private final class Search {
+        final AtomicReference<PuzzleState> best = new AtomicReference<>();
+        final AtomicLong nodes = new AtomicLong();
+        final boolean useMoveOrdering = ParallelIDAStar.this.useMoveOrdering;
+        final Thread caller = Thread.currentThread();   // Hilo de solvePuzzle (las tareas corren en el pool)
+        volatile boolean aborted;
+        
+        /**
+         * Costo de la mejor solución publicada (MAX_VALUE si todavía no hay)
+         */
+        int bound() {
+            PuzzleState solution = best.get();
+            return solution == null ? Integer.MAX_VALUE : solution.getGCost();
+        }
+        
+        void publish(PuzzleState goal) {
+            PuzzleState current;
+            do {
+                current = best.get();
+                if (current != null && current.getGCost() <= goal.getGCost()) return;
+            } while (!best.compareAndSet(current, goal));
+        }
+    }
+    
+    private static final Comparator<PuzzleState> BY_HEURISTIC =
+            (a, b) -> Integer.compare(a.getHCost(), b.getHCost());
+    
+    public ParallelIDAStar() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_NODES);
+    }
+    
+    /**
+     * @param pool Pool donde se ejecutan las subtareas
+     * @param maxNodes Límite de expansiones (suma de todos los hilos)
+     */
+    public ParallelIDAStar(ForkJoinPool pool, int maxNodes) {
+        this.pool = pool;
+        this.maxNodes = maxNodes;
+        
+        // Profundidad a la que la frontera tiene ~TASKS_PER_THREAD nodos por hilo
+        double frontier = (double) pool.getParallelism() * TASKS_PER_THREAD;
+        this.splitDepth = Math.max(2, (int) Math.ceil(Math.log(frontier) / Math.log(BRANCHING_FACTOR)));
+    }
+    
+    /**
+     * Resuelve el puzzle usando IDA* en paralelo
+     * 
+     * @param initialBoard Configuración inicial del tablero
+     * @return Lista de movimientos para resolver el puzzle (null si no hay solución)
+     */
+    public List<String> solvePuzzle(int[][] initialBoard) {
+        long start = System.currentTimeMillis();
+        
+        PuzzleState root = new PuzzleState(initialBoard, 0, null, null, heuristic, MovePruning.full());
+        if (root.isGoal()) {
+            lastRun = new LastRun(new ArrayList<>(), 0, 0, System.currentTimeMillis() - start, true);
+            return new ArrayList<>();
+        }
+        
+        if (!new AStar().isSolvable(initialBoard)) {
+            lastRun = new LastRun(new ArrayList<>(), 0, 0, System.currentTimeMillis() - start, false);
+            return null;
+        }
+        
+        Search search = new Search();
+        List<String> solution = null;
+        int iterations = 0;
+        int threshold = root.getHCost();
+        while (!search.aborted) {
+            if (Thread.currentThread().isInterrupted()) break;
+            iterations++;
+            int result = pool.invoke(new SubtreeTask(search, root, threshold));
+            if (search.best.get() != null) {
+                solution = buildPath(search.best.get());
+                break;
+            }
+            if (result == Integer.MAX_VALUE) {
+                break;
+            }
+            threshold = result;
+        }
+        
+        lastRun = new LastRun(solution != null ? solution : new ArrayList<>(), search.nodes.get(),
+                iterations, System.currentTimeMillis() - start, solution != null);
+        return solution != null ? new ArrayList<>(solution) : null;
+    }
+    
+    /**
+     * Subárbol de la búsqueda: se divide en subtareas hasta la profundidad
+     * de corte y después se recorre en serie
+     */
+    private final class SubtreeTask extends RecursiveTask<Integer> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final Search search;
+        private final PuzzleState state;
+        private final int threshold;
+        private long localNodes;
+        
+        SubtreeTask(Search search, PuzzleState state, int threshold) {
+            this.search = search;
+            this.state = state;
+            this.threshold = threshold;
+        }
+        
+        @Override
+        protected Integer compute() {
+            if (state.getGCost() >= splitDepth) {
+                int result = searchSerial(state);
+                search.nodes.addAndGet(localNodes);
+                return result;
+            }
+            
+            int f = state.getFCost();
+            if (f > threshold) return f;
+            if (state.isGoal()) {
+                search.publish(state);
+                return threshold;
+            }
+            if (search.bound() <= threshold || search.aborted) return Integer.MAX_VALUE;
+            search.nodes.incrementAndGet();
+            
+            List<PuzzleState> children = state.getNeighbors();
+            if (search.useMoveOrdering) {
+                Collections.sort(children, BY_HEURISTIC);
+            }
+            if (children.isEmpty()) return Integer.MAX_VALUE;   // Todos los movimientos podados
+            
+            List<SubtreeTask> tasks = new ArrayList<>();
+            for (PuzzleState child : children) {
+                tasks.add(new SubtreeTask(search, child, threshold));
+            }
+            
+            // Se encolan al revés para que este hilo las tome en el orden de la
+            // heurística; los demás hilos roban desde el otro extremo de la cola
+            for (int i = tasks.size() - 1; i > 0; i--) {
+                tasks.get(i).fork();
+            }
+            int min = tasks.get(0).compute();
+            for (int i = 1; i < tasks.size(); i++) {
+                min = Math.min(min, tasks.get(i).join());
+            }
+            return min;
+        }
+        
+        /**
+         * Búsqueda en profundidad serial acotada por el umbral
+         */
+        private int searchSerial(PuzzleState current) {
+            int f = current.getFCost();
+            if (f > threshold) return f;
+            if (current.isGoal()) {
+                search.publish(current);
+                return threshold;
+            }
+            if (search.bound() <= threshold || search.aborted) return Integer.MAX_VALUE;
+            
+            if (++localNodes == FLUSH_INTERVAL) {
+                if (search.nodes.addAndGet(localNodes) >= maxNodes || search.caller.isInterrupted()) {
+                    search.aborted = true;
+                }
+                localNodes = 0;
+            }
+            
+            List<PuzzleState> children = current.getNeighbors();
+            if (search.useMoveOrdering) {
+                Collections.sort(children, BY_HEURISTIC);
+            }
+            
+            int min = Integer.MAX_VALUE;
+            for (PuzzleState child : children) {
+                int result = searchSerial(child);
+                if (result < min) min = result;
+                if (search.bound() <= threshold) break;
+            }
+            return min;
+        }
+    }
+    
+    private List<String> buildPath(PuzzleState goal) {
+        List<String> path = new ArrayList<>();
+        for (PuzzleState current = goal; current.getParent() != null; current = current.getParent()) {
+            path.add(current.getMove());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    /**
+     * Obtiene información sobre la última ejecución del algoritmo
+     */
+    public String getExecutionInfo() {
+        LastRun run = lastRun;
+        return String.format("Hilos: %d, Corte: %d, Iteraciones: %d, Nodos: %d, Solución encontrada: %s, Movimientos: %d, Tiempo: %d ms",
+                pool.getParallelism(), splitDepth, run.iterations, run.nodesExpanded, run.solutionFound,
+                run.solutionMoves.size(), run.elapsedMillis);
+    }
+    
+    // Configuración
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+    
+    public void setUseMoveOrdering(boolean useMoveOrdering) {
+        this.useMoveOrdering = useMoveOrdering;
+    }
+    
+    // Getters para información adicional
+    public long getNodesExpanded() {
+        return lastRun.nodesExpanded;
+    }
+    
+    public int getIterations() {
+        return lastRun.iterations;
+    }
+    
+    public long getElapsedMillis() {
+        return lastRun.elapsedMillis;
+    }
+    
+    public boolean isSolutionFound() {
+        return lastRun.solutionFound;
+    }
+    
+    public List<String> getSolutionMoves() {
+        return new ArrayList<>(lastRun.solutionMoves);
+    }
+    
+    public int getSplitDepth() {
+        return splitDepth;
+    }
+    
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+}
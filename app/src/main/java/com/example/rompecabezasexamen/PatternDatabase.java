@@ -0,0 +1,255 @@
+package com.example.rompecabezasexamen;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Base de datos de patrones (PDB) aditiva para un grupo de piezas
+ * 
+ * Para cada colocación posible de las piezas del patrón guarda el número
+ * mínimo de movimientos de esas piezas necesarios para llevarlas a su
+ * posición objetivo. Las PDB de grupos disjuntos se pueden sumar y el
+ * resultado sigue siendo una heurística admisible.
+ * 
+ * Almacenamiento comprimido (4 bits por entrada):
+ * El costo del patrón nunca es menor que la distancia Manhattan de sus
+ * piezas y siempre tiene la misma paridad, así que se guarda
+ * (costo - manhattan) / 2 en un nibble. Si el exceso no cabe se satura en
+ * 15, lo que solo debilita la cota sin romper la admisibilidad.
+ * 
+ * Formato del archivo (big endian):
+ * magic, versión, tamaño del tablero, número de piezas, piezas,
+ * número de entradas, longitud del payload, CRC32 del payload, payload.
+ */
+public class PatternDatabase {
+    
+    public static final int MAGIC = 0x50444231;   // "PDB1"
+    public static final int VERSION = 1;
+    static final int MAX_EXCESS = 15;               // Valor máximo de un nibble
+    
+    private final int size;          // Tamaño del tablero (n x n)
+    private final int cells;         // n * n
+    private final int[] tiles;       // Piezas del patrón
+    private final long entries;      // Colocaciones posibles de las piezas
+    private final ByteBuffer data;   // Nibbles empaquetados (2 entradas por byte)
+    private final long[] rankFactors; // Factores para el ranking de colocaciones
+    
+    PatternDatabase(int size, int[] tiles, ByteBuffer data) {
+        this.size = size;
+        this.cells = size * size;
+        this.tiles = tiles.clone();
+        this.rankFactors = computeRankFactors(cells, tiles.length);
+        this.entries = countPlacements(cells, tiles.length);
+        this.data = data;
+    }
+    
+    /**
+     * Número de colocaciones de k piezas en n celdas: n! / (n - k)!
+     */
+    static long countPlacements(int cells, int k) {
+        long count = 1;
+        for (int i = 0; i < k; i++) {
+            count *= cells - i;
+        }
+        return count;
+    }
+    
+    /**
+     * rankFactors[i] = (cells - i - 1)! / (cells - k)!
+     */
+    static long[] computeRankFactors(int cells, int k) {
+        long[] factors = new long[k];
+        for (int i = 0; i < k; i++) {
+            factors[i] = countPlacements(cells - i - 1, k - i - 1);
+        }
+        return factors;
+    }
+    
+    /**
+     * Convierte una colocación (celda de cada pieza del patrón) en un índice denso
+     */
+    static long rank(int[] positions, int k, long[] rankFactors) {
+        long index = 0;
+        for (int i = 0; i < k; i++) {
+            // Las celdas ya usadas por piezas anteriores no cuentan
+            int p = positions[i];
+            int smallerUsed = 0;
+            for (int j = 0; j < i; j++) {
+                if (positions[j] < p) smallerUsed++;
+            }
+            index += (p - smallerUsed) * rankFactors[i];
+        }
+        return index;
+    }
+    
+    /**
+     * Inversa de rank: reconstruye la celda de cada pieza
+     */
+    static void unrank(long index, int cells, int k, long[] rankFactors, int[] positions, boolean[] used) {
+        for (int c = 0; c < cells; c++) used[c] = false;
+        
+        for (int i = 0; i < k; i++) {
+            int digit = (int) (index / rankFactors[i]);
+            index %= rankFactors[i];
+            
+            // Buscar la celda libre número "digit"
+            int cell = 0;
+            for (int free = -1; ; cell++) {
+                if (!used[cell] && ++free == digit) break;
+            }
+            used[cell] = true;
+            positions[i] = cell;
+        }
+    }
+    
+    /**
+     * Distancia Manhattan de las piezas del patrón en una colocación
+     */
+    static int patternManhattan(int[] positions, int[] tiles, int size) {
+        int distance = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            int target = tiles[i] - 1;
+            distance += Math.abs(positions[i] / size - target / size)
+                      + Math.abs(positions[i] % size - target % size);
+        }
+        return distance;
+    }
+    
+    /**
+     * Costo mínimo de las piezas del patrón para el tablero dado
+     */
+    public int lookup(int[][] board) {
+        int k = tiles.length;
+        int[] positions = new int[k];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int slot = slotOf(board[i][j]);
+                if (slot >= 0) positions[slot] = i * size + j;
+            }
+        }
+        return lookup(positions);
+    }
+    
+    /**
+     * Costo mínimo para una colocación (celda de cada pieza, en el orden de getTiles())
+     */
+    public int lookup(int[] positions) {
+        long index = rank(positions, tiles.length, rankFactors);
+        int b = data.get((int) (index >>> 1)) & 0xFF;
+        int excess = (index & 1) == 0 ? (b & 0x0F) : (b >>> 4);
+        return patternManhattan(positions, tiles, size) + 2 * excess;
+    }
+    
+    /**
+     * Posición de una pieza dentro del patrón o -1 si no pertenece
+     */
+    public int slotOf(int tile) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == tile) return i;
+        }
+        return -1;
+    }
+    
+    /**
+     * Guarda la base de datos en un archivo versionado con checksum
+     */
+    public void save(File file) throws IOException {
+        ByteBuffer payload = data.duplicate();
+        payload.clear();
+        
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        
+        ByteBuffer header = ByteBuffer.allocate(headerLength(tiles.length)).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(size);
+        header.putInt(tiles.length);
+        for (int tile : tiles) header.putInt(tile);
+        header.putLong(entries);
+        header.putLong(payload.remaining());
+        header.putLong(crc.getValue());
+        header.flip();
+        
+        try (FileOutputStream out = new FileOutputStream(file);
+             FileChannel channel = out.getChannel()) {
+            while (header.hasRemaining()) channel.write(header);
+            while (payload.hasRemaining()) channel.write(payload);
+        }
+    }
+    
+    /**
+     * Carga una base de datos mapeando el archivo en memoria (solo lectura)
+     * 
+     * @throws IOException si el archivo no es una PDB válida o el checksum no coincide
+     */
+    public static PatternDatabase load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.BIG_ENDIAN);
+            
+            if (mapped.remaining() < 16 || mapped.getInt() != MAGIC) {
+                throw new IOException("No es un archivo PDB: " + file);
+            }
+            int version = mapped.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de PDB no soportada: " + version);
+            }
+            
+            int size = mapped.getInt();
+            int k = mapped.getInt();
+            if (size < 2 || k <= 0 || k >= size * size) {
+                throw new IOException("Cabecera de PDB inválida");
+            }
+            int[] tiles = new int[k];
+            for (int i = 0; i < k; i++) tiles[i] = mapped.getInt();
+            long entries = mapped.getLong();
+            long payloadLength = mapped.getLong();
+            long expectedCrc = mapped.getLong();
+            
+            if (entries != countPlacements(size * size, k)
+                    || payloadLength != (entries + 1) / 2
+                    || payloadLength != mapped.remaining()) {
+                throw new IOException("Tamaño de PDB inconsistente");
+            }
+            
+            ByteBuffer payload = mapped.slice();
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Checksum de PDB incorrecto: " + file);
+            }
+            
+            return new PatternDatabase(size, tiles, payload.asReadOnlyBuffer());
+        }
+    }
+    
+    static int headerLength(int k) {
+        return 4 * 4 + 4 * k + 8 * 3;
+    }
+    
+    // Getters
+    public int getSize() {
+        return size;
+    }
+    
+    public int[] getTiles() {
+        return tiles.clone();
+    }
+    
+    public long getEntries() {
+        return entries;
+    }
+    
+    public long getStorageBytes() {
+        return data.capacity();
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.rompecabezasexamen;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Construye bases de datos de patrones en paralelo
+ * 
+ * Funcionamiento (BFS retrógrado desde el objetivo, nivel por nivel):
+ * 1. Un estado abstracto es la colocación de las piezas del patrón más la
+ *    región conectada de celdas libres donde está el espacio vacío
+ *    (representada por su celda menor). Mover el vacío dentro de su región
+ *    no cuesta nada, así que cada arista del BFS es un movimiento de pieza
+ * 2. Cada nivel se expande en un ForkJoinPool dividiendo el bitmap de la
+ *    frontera en rangos; los visitados se marcan en un bitmap atómico
+ * 3. La primera vez que se alcanza una colocación se escribe su valor
+ *    (comprimido a 4 bits, ver PatternDatabase)
+ * 
+ * Memoria: cada bitmap ocupa colocaciones * n² bits. Un grupo de 5 piezas
+ * en 4x4 usa ~1 MB por bitmap; uno de 7 piezas ~115 MB; uno de 8 piezas
+ * ~1 GB, por lo que solo es práctico en la máquina de compilación.
+ */
+public class PatternDatabaseBuilder {
+    
+    private static final Logger LOG = Logger.getLogger("PDB_BUILDER");
+    private static final int SPLIT_WORDS = 1024;   // Palabras del bitmap por tarea hoja
+    
+    private final int size;
+    private final int cells;
+    private final int[] tiles;
+    private final int k;
+    private final long[] rankFactors;
+    private final long placements;
+    private final ForkJoinPool pool;
+    
+    // Resultados de la última construcción
+    private long buildMillis;
+    private int maxDepth;
+    private long statesVisited;
+    private long saturatedEntries;
+    
+    /**
+     * @param size Tamaño del tablero
+     * @param tiles Piezas del patrón (valores 1..n²-1)
+     * @param pool Pool donde se ejecuta el BFS
+     */
+    public PatternDatabaseBuilder(int size, int[] tiles, ForkJoinPool pool) {
+        this.size = size;
+        this.cells = size * size;
+        this.tiles = tiles.clone();
+        this.k = tiles.length;
+        this.rankFactors = PatternDatabase.computeRankFactors(cells, k);
+        this.placements = PatternDatabase.countPlacements(cells, k);
+        this.pool = pool;
+        
+        if ((placements * cells + 63) / 64 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Patrón demasiado grande: " + k + " piezas");
+        }
+    }
+    
+    public PatternDatabaseBuilder(int size, int[] tiles) {
+        this(size, tiles, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Ejecuta el BFS y devuelve la base de datos en memoria
+     */
+    public PatternDatabase build() {
+        long start = System.currentTimeMillis();
+        
+        int bitmapWords = (int) ((placements * cells + 63) / 64);
+        AtomicLongArray visited = new AtomicLongArray(bitmapWords);
+        AtomicLongArray current = new AtomicLongArray(bitmapWords);
+        AtomicLongArray next = new AtomicLongArray(bitmapWords);
+        AtomicLongArray written = new AtomicLongArray((int) ((placements + 63) / 64));
+        AtomicLongArray table = new AtomicLongArray((int) ((placements + 15) / 16));
+        AtomicLong saturated = new AtomicLong();
+        AtomicLong visitedCount = new AtomicLong();
+        
+        // Estado inicial: todas las piezas en su lugar y el vacío en la última celda
+        int[] goal = new int[k];
+        for (int i = 0; i < k; i++) goal[i] = tiles[i] - 1;
+        Scratch scratch = new Scratch(cells, k);
+        long goalRank = PatternDatabase.rank(goal, k, rankFactors);
+        long goalState = goalRank * cells + regionOf(goal, cells - 1, scratch);
+        setBit(visited, goalState);
+        setBit(current, goalState);
+        setBit(written, goalRank);
+        visitedCount.incrementAndGet();
+        
+        int depth = 0;
+        boolean frontierEmpty = false;
+        while (!frontierEmpty) {
+            AtomicLong discovered = new AtomicLong();
+            pool.invoke(new ExpandTask(current, next, visited, written, table, saturated,
+                    discovered, depth + 1, 0, bitmapWords));
+            
+            frontierEmpty = discovered.get() == 0;
+            if (!frontierEmpty) {
+                depth++;
+                visitedCount.addAndGet(discovered.get());
+            }
+            
+            // La siguiente frontera pasa a ser la actual
+            AtomicLongArray swap = current;
+            current = next;
+            next = swap;
+            clear(next);
+        }
+        
+        ByteBuffer data = ByteBuffer.allocate((int) ((placements + 1) / 2));
+        for (long i = 0; i < placements; i += 2) {
+            int low = getNibble(table, i);
+            int high = i + 1 < placements ? getNibble(table, i + 1) : 0;
+            data.put((int) (i >>> 1), (byte) (low | (high << 4)));
+        }
+        
+        buildMillis = System.currentTimeMillis() - start;
+        maxDepth = depth;
+        statesVisited = visitedCount.get();
+        saturatedEntries = saturated.get();
+        
+        LOG.info(String.format(java.util.Locale.ROOT,
+                "PDB %dx%d %s: %d entradas, %d estados, profundidad %d, %d saturadas, %d ms, %d hilos",
+                size, size, java.util.Arrays.toString(tiles), placements, statesVisited,
+                maxDepth, saturatedEntries, buildMillis, pool.getParallelism()));
+        
+        return new PatternDatabase(size, tiles, data);
+    }
+    
+    /**
+     * Construye la base de datos y la guarda en un archivo
+     */
+    public PatternDatabase buildToFile(File file) throws IOException {
+        PatternDatabase database = build();
+        database.save(file);
+        LOG.info(String.format(java.util.Locale.ROOT, "PDB %s guardada en %s: %d bytes",
+                java.util.Arrays.toString(tiles), file.getName(), file.length()));
+        return database;
+    }
+    
+    /**
+     * Expande un rango de la frontera actual; se divide hasta SPLIT_WORDS palabras
+     */
+    private final class ExpandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final AtomicLongArray current, next, visited, written, table;
+        private final AtomicLong saturated, discovered;
+        private final int childDepth;
+        private final int fromWord, toWord;
+        
+        ExpandTask(AtomicLongArray current, AtomicLongArray next, AtomicLongArray visited,
+                   AtomicLongArray written, AtomicLongArray table, AtomicLong saturated,
+                   AtomicLong discovered, int childDepth, int fromWord, int toWord) {
+            this.current = current;
+            this.next = next;
+            this.visited = visited;
+            this.written = written;
+            this.table = table;
+            this.saturated = saturated;
+            this.discovered = discovered;
+            this.childDepth = childDepth;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+        
+        @Override
+        protected void compute() {
+            if (toWord - fromWord > SPLIT_WORDS) {
+                int mid = (fromWord + toWord) >>> 1;
+                invokeAll(new ExpandTask(current, next, visited, written, table, saturated,
+                                discovered, childDepth, fromWord, mid),
+                          new ExpandTask(current, next, visited, written, table, saturated,
+                                discovered, childDepth, mid, toWord));
+                return;
+            }
+            
+            Scratch scratch = new Scratch(cells, k);
+            long found = 0;
+            for (int w = fromWord; w < toWord; w++) {
+                long bits = current.get(w);
+                while (bits != 0) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    found += expand((long) w * 64 + bit, scratch);
+                }
+            }
+            if (found > 0) discovered.addAndGet(found);
+        }
+        
+        /**
+         * Genera los sucesores de un estado y marca los nuevos en la siguiente frontera
+         */
+        private long expand(long state, Scratch s) {
+            long rankIndex = state / cells;
+            int regionCell = (int) (state % cells);
+            PatternDatabase.unrank(rankIndex, cells, k, rankFactors, s.positions, s.used);
+            fillRegion(s, regionCell);
+            
+            long found = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                if (!s.inRegion[cell]) continue;
+                int row = cell / size;
+                int col = cell % size;
+                
+                for (int d = 0; d < 4; d++) {
+                    int r = row + DR[d];
+                    int c = col + DC[d];
+                    if (r < 0 || r >= size || c < 0 || c >= size) continue;
+                    int from = r * size + c;
+                    int slot = s.slotAt[from];
+                    if (slot < 0) continue;
+                    
+                    // Mover la pieza del patrón a la celda libre de la región
+                    System.arraycopy(s.positions, 0, s.childPositions, 0, k);
+                    s.childPositions[slot] = cell;
+                    long childRank = PatternDatabase.rank(s.childPositions, k, rankFactors);
+                    int childRegion = regionOfChild(s, from, cell);
+                    long child = childRank * cells + childRegion;
+                    
+                    if (testAndSetBit(visited, child)) {
+                        setBit(next, child);
+                        found++;
+                        if (testAndSetBit(written, childRank)) {
+                            int md = PatternDatabase.patternManhattan(s.childPositions, tiles, size);
+                            int excess = (childDepth - md) / 2;
+                            if (excess > PatternDatabase.MAX_EXCESS) {
+                                excess = PatternDatabase.MAX_EXCESS;
+                                saturated.incrementAndGet();
+                            }
+                            setNibble(table, childRank, excess);
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+    }
+    
+    private static final int[] DR = {-1, 1, 0, 0};
+    private static final int[] DC = {0, 0, -1, 1};
+    
+    /**
+     * Arreglos de trabajo de un hilo (evita asignar memoria por estado)
+     */
+    private static final class Scratch {
+        final int[] positions, childPositions, slotAt, queue;
+        final boolean[] used, inRegion, visitedCell;
+        
+        Scratch(int cells, int k) {
+            positions = new int[k];
+            childPositions = new int[k];
+            slotAt = new int[cells];
+            queue = new int[cells];
+            used = new boolean[cells];
+            inRegion = new boolean[cells];
+            visitedCell = new boolean[cells];
+        }
+    }
+    
+    /**
+     * Marca en inRegion las celdas libres conectadas con start y llena slotAt
+     */
+    private void fillRegion(Scratch s, int start) {
+        for (int c = 0; c < cells; c++) {
+            s.slotAt[c] = -1;
+            s.inRegion[c] = false;
+        }
+        for (int i = 0; i < k; i++) s.slotAt[s.positions[i]] = i;
+        floodFill(s, start, s.inRegion, -1, -1);
+    }
+    
+    /**
+     * Celda menor de la región libre que contiene a blank para una colocación
+     */
+    private int regionOf(int[] positions, int blank, Scratch s) {
+        System.arraycopy(positions, 0, s.positions, 0, k);
+        fillRegion(s, blank);
+        for (int c = 0; c < cells; c++) {
+            if (s.inRegion[c]) return c;
+        }
+        return blank;
+    }
+    
+    /**
+     * Región del hijo: la pieza dejó libre "from" y ocupó "to"
+     */
+    private int regionOfChild(Scratch s, int from, int to) {
+        for (int c = 0; c < cells; c++) s.visitedCell[c] = false;
+        floodFill(s, from, s.visitedCell, from, to);
+        for (int c = 0; c < cells; c++) {
+            if (s.visitedCell[c]) return c;
+        }
+        return from;
+    }
+    
+    /**
+     * BFS sobre celdas sin piezas del patrón; freed/occupied ajustan slotAt sin copiarlo
+     */
+    private void floodFill(Scratch s, int start, boolean[] mark, int freed, int occupied) {
+        int head = 0, tail = 0;
+        s.queue[tail++] = start;
+        mark[start] = true;
+        while (head < tail) {
+            int cell = s.queue[head++];
+            int row = cell / size;
+            int col = cell % size;
+            for (int d = 0; d < 4; d++) {
+                int r = row + DR[d];
+                int c = col + DC[d];
+                if (r < 0 || r >= size || c < 0 || c >= size) continue;
+                int n = r * size + c;
+                if (mark[n] || n == occupied) continue;
+                if (s.slotAt[n] >= 0 && n != freed) continue;
+                mark[n] = true;
+                s.queue[tail++] = n;
+            }
+        }
+    }
+    
+    // ===== Operaciones atómicas sobre bitmaps y nibbles =====
+    
+    private static void setBit(AtomicLongArray bitmap, long index) {
+        testAndSetBit(bitmap, index);
+    }
+    
+    /**
+     * Marca el bit y devuelve true si este hilo fue el que lo cambió
+     */
+    private static boolean testAndSetBit(AtomicLongArray bitmap, long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        while (true) {
+            long old = bitmap.get(word);
+            if ((old & mask) != 0) return false;
+            if (bitmap.compareAndSet(word, old, old | mask)) return true;
+        }
+    }
+    
+    private static void clear(AtomicLongArray bitmap) {
+        for (int i = 0; i < bitmap.length(); i++) {
+            bitmap.lazySet(i, 0L);
+        }
+    }
+    
+    private static void setNibble(AtomicLongArray table, long index, int value) {
+        int word = (int) (index >>> 4);
+        int shift = (int) (index & 15) * 4;
+        while (true) {
+            long old = table.get(word);
+            long updated = (old & ~(0xFL << shift)) | ((long) value << shift);
+            if (table.compareAndSet(word, old, updated)) return;
+        }
+    }
+    
+    private static int getNibble(AtomicLongArray table, long index) {
+        return (int) ((table.get((int) (index >>> 4)) >>> ((index & 15) * 4)) & 0xF);
+    }
+    
+    // Getters de la última construcción
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+    
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    public long getStatesVisited() {
+        return statesVisited;
+    }
+    
+    public long getSaturatedEntries() {
+        return saturatedEntries;
+    }
+}
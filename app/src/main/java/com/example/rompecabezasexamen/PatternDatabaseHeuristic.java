@@ -0,0 +1,156 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Heurística aditiva basada en bases de datos de patrones disjuntos
+ * 
+ * Suma el valor de cada PDB. Opcionalmente consulta también el tablero
+ * reflejado sobre la diagonal principal (ver PuzzleState.reflectBoard):
+ * el objetivo es simétrico respecto a esa diagonal, así que el tablero
+ * reflejado necesita exactamente los mismos movimientos y su estimación
+ * también es admisible. Se usa max(h, h_reflejado) con las mismas tablas.
+ * 
+ * No es consistente: cada PDB guarda el mínimo sobre las regiones del
+ * vacío, y un solo movimiento puede cambiar h en más de 1. IDA* y A*
+ * ponderado anytime (que reabre estados) siguen siendo óptimos; AStar no.
+ * 
+ * Una instancia se comparte entre hilos (los de ParallelIDAStar, las
+ * pistas, la especulación): la configuración es inmutable (ver
+ * withReflection) y las estadísticas usan contadores concurrentes.
+ */
+public class PatternDatabaseHeuristic implements Heuristic {
+    
+    /**
+     * Partición 5-5-5 del 4x4. Los grupos no son simétricos respecto a la
+     * diagonal: al reflejar, cada tabla mide otras piezas del tablero original
+     * y por eso max(h, h_reflejado) puede ser mayor (con grupos simétricos
+     * las dos consultas darían siempre lo mismo)
+     */
+    public static final int[][] STANDARD_4X4_PARTITION = {
+        {1, 2, 5, 6, 9},
+        {3, 4, 7, 8, 12},
+        {10, 11, 13, 14, 15}
+    };
+    
+    private final int size;
+    private final List<PatternDatabase> databases;
+    private final int[] databaseOfTile;   // PDB a la que pertenece cada pieza
+    private final int[] slotOfTile;       // Posición de la pieza dentro de su PDB
+    private final boolean useReflection;
+    
+    // Estadísticas de consultas
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder reflectedWins = new LongAdder();
+    
+    public PatternDatabaseHeuristic(List<PatternDatabase> databases, boolean useReflection) {
+        if (databases.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos una PDB");
+        }
+        this.size = databases.get(0).getSize();
+        this.databases = new ArrayList<>(databases);
+        this.useReflection = useReflection;
+        
+        int cells = size * size;
+        this.databaseOfTile = new int[cells];
+        this.slotOfTile = new int[cells];
+        Arrays.fill(databaseOfTile, -1);
+        
+        for (int d = 0; d < databases.size(); d++) {
+            PatternDatabase pdb = databases.get(d);
+            if (pdb.getSize() != size) {
+                throw new IllegalArgumentException("Todas las PDB deben ser del mismo tamaño");
+            }
+            int[] tiles = pdb.getTiles();
+            for (int s = 0; s < tiles.length; s++) {
+                if (databaseOfTile[tiles[s]] >= 0) {
+                    throw new IllegalArgumentException("Los patrones no son disjuntos: pieza " + tiles[s]);
+                }
+                databaseOfTile[tiles[s]] = d;
+                slotOfTile[tiles[s]] = s;
+            }
+        }
+    }
+    
+    /**
+     * Construye en memoria las PDB de una partición
+     */
+    public static PatternDatabaseHeuristic build(int size, int[][] partition, boolean useReflection) {
+        List<PatternDatabase> databases = new ArrayList<>();
+        for (int[] group : partition) {
+            databases.add(new PatternDatabaseBuilder(size, group).build());
+        }
+        return new PatternDatabaseHeuristic(databases, useReflection);
+    }
+    
+    @Override
+    public int estimate(int[][] board) {
+        lookups.increment();
+        int direct = sumLookups(board);
+        if (!useReflection || board.length != size) {
+            return direct;
+        }
+        
+        int reflected = sumLookups(PuzzleState.reflectBoard(board));
+        if (reflected > direct) {
+            reflectedWins.increment();
+            return reflected;
+        }
+        return direct;
+    }
+    
+    /**
+     * Suma de las PDB para un tablero (las piezas sin PDB no aportan)
+     */
+    private int sumLookups(int[][] board) {
+        int[][] positions = new int[databases.size()][];
+        for (int d = 0; d < databases.size(); d++) {
+            positions[d] = new int[databases.get(d).getTiles().length];
+        }
+        
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int tile = board[i][j];
+                if (tile != 0 && databaseOfTile[tile] >= 0) {
+                    positions[databaseOfTile[tile]][slotOfTile[tile]] = i * size + j;
+                }
+            }
+        }
+        
+        int total = 0;
+        for (int d = 0; d < databases.size(); d++) {
+            total += databases.get(d).lookup(positions[d]);
+        }
+        return total;
+    }
+    
+    /**
+     * Misma heurística (comparte las PDB) con o sin la consulta reflejada
+     */
+    public PatternDatabaseHeuristic withReflection(boolean useReflection) {
+        if (useReflection == this.useReflection) return this;
+        return new PatternDatabaseHeuristic(databases, useReflection);
+    }
+    
+    public boolean isUseReflection() {
+        return useReflection;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public long getLookups() {
+        return lookups.sum();
+    }
+    
+    /**
+     * Consultas en las que el tablero reflejado dio una cota mayor
+     */
+    public long getReflectedWins() {
+        return reflectedWins.sum();
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.rompecabezasexamen;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Perímetro alrededor del objetivo: todos los estados a distancia <= d
+ * 
+ * Se construye una sola vez con un BFS desde el tablero resuelto y guarda
+ * cada estado empaquetado (ver StatePacker) con su distancia exacta. Los
+ * estados se ordenan para buscarlos con búsqueda binaria directamente
+ * sobre el archivo mapeado en memoria.
+ * 
+ * Uso durante la búsqueda:
+ * - Dentro del perímetro la distancia es exacta, así que la búsqueda puede
+ *   terminar en cuanto toca un estado del perímetro (ver pathToGoal)
+ * - Fuera del perímetro cualquier estado está a más de d movimientos,
+ *   así que d + 1 también es una cota inferior válida
+ * 
+ * Formato del archivo (big endian):
+ * magic, versión, tamaño del tablero, profundidad, longs por estado,
+ * número de estados, CRC32, estados ordenados, distancias (un byte cada una).
+ */
+public class PerimeterDatabase {
+    
+    private static final Logger LOG = Logger.getLogger("PERIMETER_DB");
+    public static final int MAGIC = 0x50524D31;   // "PRM1"
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * 6 + 8;
+    
+    private final int size;
+    private final int depth;
+    private final int words;
+    private final int count;
+    private final StatePacker packer;
+    private final LongBuffer states;     // Estados empaquetados y ordenados
+    private final ByteBuffer distances;  // Distancia exacta de cada estado
+    
+    private PerimeterDatabase(int size, int depth, int count, LongBuffer states, ByteBuffer distances) {
+        this.size = size;
+        this.depth = depth;
+        this.packer = new StatePacker(size);
+        this.words = packer.getWords();
+        this.count = count;
+        this.states = states;
+        this.distances = distances;
+    }
+    
+    /**
+     * Construye el perímetro con un BFS desde el objetivo hasta la profundidad dada
+     */
+    public static PerimeterDatabase build(int size, int depth) {
+        long start = System.currentTimeMillis();
+        StatePacker packer = new StatePacker(size);
+        int words = packer.getWords();
+        
+        int[][] goal = new int[size][size];
+        for (int i = 0; i < size * size - 1; i++) {
+            goal[i / size][i % size] = i + 1;
+        }
+        
+        PackedStateTable table = new PackedStateTable(words);
+        long[] buffer = new long[words];
+        packer.pack(goal, buffer, 0);
+        table.insert(buffer, 0);
+        
+        // BFS por niveles: los estados se agregan en orden de distancia
+        int levelStart = 0;
+        for (int distance = 0; distance < depth; distance++) {
+            int levelEnd = table.size();
+            if (levelStart == levelEnd) break;
+            
+            for (int index = levelStart; index < levelEnd; index++) {
+                int[][] board = packer.unpack(table.records(), index * words);
+                int emptyRow = 0, emptyCol = 0;
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        if (board[i][j] == 0) {
+                            emptyRow = i;
+                            emptyCol = j;
+                        }
+                    }
+                }
+                
+                for (int direction = 0; direction < 4; direction++) {
+                    int r = emptyRow + PuzzleState.ROW_MOVES[direction];
+                    int c = emptyCol + PuzzleState.COL_MOVES[direction];
+                    if (r < 0 || r >= size || c < 0 || c >= size) continue;
+                    
+                    board[emptyRow][emptyCol] = board[r][c];
+                    board[r][c] = 0;
+                    packer.pack(board, buffer, 0);
+                    table.insert(buffer, distance + 1);
+                    board[r][c] = board[emptyRow][emptyCol];
+                    board[emptyRow][emptyCol] = 0;
+                }
+            }
+            levelStart = levelEnd;
+        }
+        
+        // Ordenar estados (con sus distancias) para la búsqueda binaria
+        int count = table.size();
+        long[] records = table.records();
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        java.util.Arrays.sort(order, (a, b) -> StatePacker.compare(records, a * words, records, b * words, words));
+        
+        LongBuffer sortedStates = LongBuffer.allocate(count * words);
+        ByteBuffer sortedDistances = ByteBuffer.allocate(count);
+        for (int i = 0; i < count; i++) {
+            int index = order[i];
+            for (int w = 0; w < words; w++) {
+                sortedStates.put(records[index * words + w]);
+            }
+            sortedDistances.put((byte) table.distance(index));
+        }
+        sortedStates.flip();
+        sortedDistances.flip();
+        
+        LOG.info(String.format(Locale.ROOT, "Perímetro %dx%d d=%d: %d estados, %d ms",
+                size, size, depth, count, System.currentTimeMillis() - start));
+        return new PerimeterDatabase(size, depth, count, sortedStates, sortedDistances);
+    }
+    
+    /**
+     * Distancia exacta al objetivo o -1 si el estado está fuera del perímetro
+     */
+    public int distance(int[][] board) {
+        if (board.length != size) return -1;
+        long[] packed = packer.pack(board);
+        
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareAt(mid, packed);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return distances.get(mid);
+            }
+        }
+        return -1;
+    }
+    
+    private int compareAt(int index, long[] packed) {
+        int base = index * words;
+        for (int w = 0; w < words; w++) {
+            int cmp = Long.compare(states.get(base + w), packed[w]);
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+    
+    /**
+     * Movimientos óptimos desde un estado del perímetro hasta el objetivo
+     * (bajando siempre a un vecino con distancia una unidad menor)
+     * 
+     * @return null si el estado no está en el perímetro
+     */
+    public List<String> pathToGoal(int[][] board) {
+        int current = distance(board);
+        if (current < 0) return null;
+        
+        int[][] work = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(board[i], 0, work[i], 0, size);
+        }
+        
+        List<String> moves = new ArrayList<>();
+        while (current > 0) {
+            int emptyRow = 0, emptyCol = 0;
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (work[i][j] == 0) {
+                        emptyRow = i;
+                        emptyCol = j;
+                    }
+                }
+            }
+            
+            boolean stepped = false;
+            for (int direction = 0; direction < 4 && !stepped; direction++) {
+                int r = emptyRow + PuzzleState.ROW_MOVES[direction];
+                int c = emptyCol + PuzzleState.COL_MOVES[direction];
+                if (r < 0 || r >= size || c < 0 || c >= size) continue;
+                
+                work[emptyRow][emptyCol] = work[r][c];
+                work[r][c] = 0;
+                if (distance(work) == current - 1) {
+                    moves.add(PuzzleState.MOVE_NAMES[direction]);
+                    current--;
+                    stepped = true;
+                } else {
+                    work[r][c] = work[emptyRow][emptyCol];
+                    work[emptyRow][emptyCol] = 0;
+                }
+            }
+            
+            if (!stepped) {
+                throw new IllegalStateException("Perímetro inconsistente");
+            }
+        }
+        return moves;
+    }
+    
+    /**
+     * Guarda el perímetro en un archivo versionado con checksum
+     */
+    public void save(File file) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(count * words * 8 + count).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < count * words; i++) body.putLong(states.get(i));
+        for (int i = 0; i < count; i++) body.put(distances.get(i));
+        body.flip();
+        
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(size);
+        header.putInt(depth);
+        header.putInt(words);
+        header.putInt(count);
+        header.putLong(crc.getValue());
+        header.flip();
+        
+        try (FileOutputStream out = new FileOutputStream(file);
+             FileChannel channel = out.getChannel()) {
+            while (header.hasRemaining()) channel.write(header);
+            while (body.hasRemaining()) channel.write(body);
+        }
+        LOG.info(String.format(Locale.ROOT, "Perímetro guardado en %s: %d bytes", file.getName(), file.length()));
+    }
+    
+    /**
+     * Carga un perímetro mapeando el archivo en memoria (solo lectura)
+     * 
+     * @throws IOException si el archivo no es válido o el checksum no coincide
+     */
+    public static PerimeterDatabase load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.BIG_ENDIAN);
+            
+            if (mapped.remaining() < HEADER_BYTES || mapped.getInt() != MAGIC) {
+                throw new IOException("No es un archivo de perímetro: " + file);
+            }
+            int version = mapped.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de perímetro no soportada: " + version);
+            }
+            int size = mapped.getInt();
+            int depth = mapped.getInt();
+            int words = mapped.getInt();
+            int count = mapped.getInt();
+            long expectedCrc = mapped.getLong();
+            
+            if (size < 2 || words != new StatePacker(size).getWords() || count <= 0
+                    || mapped.remaining() != (long) count * words * 8 + count) {
+                throw new IOException("Cabecera de perímetro inválida");
+            }
+            
+            ByteBuffer body = mapped.slice();
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Checksum de perímetro incorrecto: " + file);
+            }
+            
+            body.position(0).limit(count * words * 8);
+            LongBuffer states = body.slice().order(ByteOrder.BIG_ENDIAN).asLongBuffer();
+            body.limit(body.capacity()).position(count * words * 8);
+            ByteBuffer distances = body.slice();
+            return new PerimeterDatabase(size, depth, count, states, distances);
+        }
+    }
+    
+    // Getters
+    public int getSize() {
+        return size;
+    }
+    
+    public int getDepth() {
+        return depth;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    /**
+     * Tabla hash de estados empaquetados usada durante la construcción
+     * (guarda los estados en orden de inserción junto con su distancia)
+     */
+    private static final class PackedStateTable {
+        private final int words;
+        private long[] records;
+        private byte[] distances = new byte[1024];
+        private int[] slots = new int[2048];     // Índice + 1 de cada estado (0 = vacío)
+        private int size;
+        
+        PackedStateTable(int words) {
+            this.words = words;
+            this.records = new long[1024 * words];
+        }
+        
+        /**
+         * Agrega el estado si no estaba; devuelve true si era nuevo
+         */
+        boolean insert(long[] packed, int distance) {
+            if ((size + 1) * 2 > slots.length) rehash();
+            int slot = find(packed);
+            if (slots[slot] != 0) return false;
+            
+            if ((size + 1) * words > records.length) {
+                records = java.util.Arrays.copyOf(records, records.length * 2);
+                distances = java.util.Arrays.copyOf(distances, distances.length * 2);
+            }
+            System.arraycopy(packed, 0, records, size * words, words);
+            distances[size] = (byte) distance;
+            size++;
+            slots[slot] = size;
+            return true;
+        }
+        
+        private int find(long[] packed) {
+            int mask = slots.length - 1;
+            int slot = hash(packed, 0) & mask;
+            while (slots[slot] != 0
+                    && StatePacker.compare(records, (slots[slot] - 1) * words, packed, 0, words) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+        
+        private void rehash() {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            int mask = slots.length - 1;
+            for (int entry : old) {
+                if (entry == 0) continue;
+                int slot = hash(records, (entry - 1) * words) & mask;
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                slots[slot] = entry;
+            }
+        }
+        
+        private int hash(long[] data, int offset) {
+            long h = 0x9E3779B97F4A7C15L;
+            for (int w = 0; w < words; w++) {
+                h = (h ^ data[offset + w]) * 0xBF58476D1CE4E5B9L;
+                h ^= h >>> 31;
+            }
+            return (int) h;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        long[] records() {
+            return records;
+        }
+        
+        int distance(int index) {
+            return distances[index];
+        }
+    }
+}
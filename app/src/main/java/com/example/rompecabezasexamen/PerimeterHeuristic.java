@@ -0,0 +1,67 @@
+package com.example.rompecabezasexamen;
+
+/**
+ * Heurística que combina el perímetro del objetivo con otra heurística
+ * 
+ * Funcionamiento:
+ * 1. Si la heurística base ya supera la profundidad del perímetro, el estado
+ *    no puede estar dentro y se devuelve max(base, d + 1) sin consultar
+ * 2. Si no, se busca el estado en el perímetro: dentro la distancia es exacta
+ * 3. Fuera del perímetro se sabe que faltan al menos d + 1 movimientos
+ */
+public class PerimeterHeuristic implements Heuristic {
+    
+    private final PerimeterDatabase perimeter;
+    private final Heuristic base;   // null = distancia Manhattan
+    
+    // Estadísticas de consultas
+    private long lookups;
+    private long exactHits;
+    
+    public PerimeterHeuristic(PerimeterDatabase perimeter, Heuristic base) {
+        this.perimeter = perimeter;
+        this.base = base;
+    }
+    
+    @Override
+    public int estimate(int[][] board) {
+        int h = base != null ? base.estimate(board) : manhattan(board);
+        int depth = perimeter.getDepth();
+        if (h > depth) return h;
+        
+        lookups++;
+        int exact = perimeter.distance(board);
+        if (exact >= 0) {
+            exactHits++;
+            return exact;
+        }
+        return Math.max(h, depth + 1);
+    }
+    
+    private static int manhattan(int[][] board) {
+        int size = board.length;
+        int distance = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int value = board[i][j];
+                if (value != 0) {
+                    distance += Math.abs(i - (value - 1) / size) + Math.abs(j - (value - 1) % size);
+                }
+            }
+        }
+        return distance;
+    }
+    
+    // Getters
+    public PerimeterDatabase getPerimeter() {
+        return perimeter;
+    }
+    
+    public long getLookups() {
+        return lookups;
+    }
+    
+    public long getExactHits() {
+        return exactHits;
+    }
+}
@@ -2,14 +2,20 @@ package com.example.rompecabezasexamen;
 
 import android.app.AlertDialog;
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.provider.MediaStore;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
 import android.view.View;
+import android.view.Window;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.ProgressBar;
@@ -26,8 +32,7 @@ import com.google.android.material.button.MaterialButton;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Callable;
 
 /**
  * Actividad principal del juego de puzzle
@@ -39,9 +44,10 @@ import java.util.concurrent.Executors;
  * - Resolución automática usando algoritmo A*
  * - Mezclado aleatorio del puzzle
  * - Vista previa (miniatura) del puzzle resuelto
- * - Manejo de imágenes (cámara, galería, predeterminada)
+ * - Manejo de imágenes (cámara, galería, predeterminada) decodificadas en segundo plano
  * - Modal de victoria con estadísticas finales
  * - Integración con base de datos para guardar récords
+ * - Tiempos de frame por partida (FrameMetrics) guardados con el récord
  */
 public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPieceMoveListener {
     
@@ -68,6 +74,7 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
     private MaterialButton btnPreview;
     private MaterialButton btnShuffle;
     private MaterialButton btnSolve;
+    private MaterialButton btnHint;
     private MaterialButton btnBackToMenu;
     private LinearLayout llPauseOverlay;
     private LinearLayout llSolvingIndicator;
@@ -94,10 +101,26 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
     // Threading y cronómetro
     private Handler mainHandler;
     private Runnable timerRunnable;
-    private ExecutorService executorService;
+    private SolverScheduler scheduler;   // Planificador compartido de trabajo en segundo plano
     
-    // Algoritmo A*
+    // Algoritmo A* (generación de tableros) y cascada de motores de resolución
     private AStar aStar;
+    private SolverService solverService;
+    private HintService hintService;
+    private SpeculativeSolver speculativeSolver;   // Resuelve cada tablero recién mezclado en segundo plano
+    
+    // Reproducción de la solución (null = no se está reproduciendo)
+    private static final double PLAYBACK_TARGET_SECONDS = 4;   // Duración buscada de la reproducción
+    private SolutionPlayer solutionPlayer;
+    private final Choreographer.FrameCallback playbackCallback = this::onPlaybackFrame;
+    
+    // Tiempos de frame de la partida (se guardan con el récord) y su superposición
+    private static final long FRAME_OVERLAY_INTERVAL_MS = 500;   // Refresco del texto de la superposición
+    private final FrameStats frameStats = new FrameStats();
+    private Window.OnFrameMetricsAvailableListener frameMetricsListener;
+    private TextView tvFrameStats;
+    private boolean showFrameOverlay;
+    private long lastFrameOverlayUpdate;
     
     // Base de datos
     private DatabaseHelper dbHelper;
@@ -137,8 +160,13 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
     private void initializeComponents() {
         dbHelper = DatabaseHelper.getInstance(this);
         mainHandler = new Handler(Looper.getMainLooper());
-        executorService = Executors.newSingleThreadExecutor();
+        scheduler = SolverScheduler.getInstance();
         aStar = new AStar();
+        solverService = SolverService.getInstance();
+        solverService.setTableDirectory(getFilesDir());
+        hintService = new HintService(solverService);
+        speculativeSolver = new SpeculativeSolver(solverService, scheduler,
+                () -> SystemClock.currentThreadTimeMillis() * 1_000_000L);
     }
     
     /**
@@ -153,11 +181,13 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         btnPreview = findViewById(R.id.btn_preview);
         btnShuffle = findViewById(R.id.btn_shuffle);
         btnSolve = findViewById(R.id.btn_solve);
+        btnHint = findViewById(R.id.btn_hint);
         btnBackToMenu = findViewById(R.id.btn_back_to_menu);
         llPauseOverlay = findViewById(R.id.ll_pause_overlay);
         llSolvingIndicator = findViewById(R.id.ll_solving_indicator);
         ivPreview = findViewById(R.id.iv_preview);
         cardPreview = findViewById(R.id.card_preview);
+        tvFrameStats = findViewById(R.id.tv_frame_stats);
         
         // Configurar estado inicial
         updateUI();
@@ -170,6 +200,23 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         // Configurar listener del puzzle view
         puzzleView.setOnPieceMoveListener(this);
         
+        // En compilaciones de depuración mostrar cuántas piezas se redibujan
+        // por frame y los tiempos de frame; los tiempos se miden siempre
+        showFrameOverlay = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        puzzleView.setDebugOverlayEnabled(showFrameOverlay);
+        
+        // Con aceleración por hardware invalidate(Rect) no recorta el redibujo
+        // y el canvas vuelve a dibujar todas las piezas en cada frame; los
+        // RenderNodes solo cambian translaciones. Se decide ya adjunta la vista.
+        puzzleView.post(() -> {
+            if (puzzleView.isHardwareAccelerated()) {
+                puzzleView.setRenderBackend(PuzzleView.RenderBackend.RENDER_NODE);
+            }
+        });
+        tvFrameStats.setVisibility(showFrameOverlay ? View.VISIBLE : View.GONE);
+        frameMetricsListener = (window, metrics, dropCount) -> onFrameMetrics(metrics);
+        getWindow().addOnFrameMetricsAvailableListener(frameMetricsListener, mainHandler);
+        
         // Botón pausar/reanudar
         btnPause.setOnClickListener(v -> toggleGamePause());
         
@@ -182,6 +229,9 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         // Botón resolver
         btnSolve.setOnClickListener(v -> solvePuzzle());
         
+        // Botón pista
+        btnHint.setOnClickListener(v -> requestHint());
+        
         // Botón volver al menú
         btnBackToMenu.setOnClickListener(v -> confirmExitGame());
         
@@ -215,14 +265,7 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
                 if (result.getResultCode() == RESULT_OK) {
                     if (photoFile != null && photoFile.exists()) {
                         android.util.Log.d("CAMERA_DEBUG", "Archivo de foto existe: " + photoFile.getAbsolutePath());
-                        puzzleImage = BitmapFactory.decodeFile(photoFile.getAbsolutePath());
-                        if (puzzleImage != null) {
-                            android.util.Log.d("CAMERA_DEBUG", "Imagen decodificada correctamente");
-                            initializePuzzle();
-                        } else {
-                            android.util.Log.e("CAMERA_DEBUG", "Error decodificando la imagen");
-                            showImageLoadError();
-                        }
+                        loadPuzzleImage(() -> ImageLoader.decodeSquare(photoFile, getPuzzleImageSide()));
                     } else {
                         android.util.Log.e("CAMERA_DEBUG", "Archivo de foto no existe");
                         showImageLoadError();
@@ -241,12 +284,7 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
                 if (result.getResultCode() == RESULT_OK && result.getData() != null) {
                     Uri imageUri = result.getData().getData();
                     if (imageUri != null) {
-                        try {
-                            puzzleImage = MediaStore.Images.Media.getBitmap(getContentResolver(), imageUri);
-                            initializePuzzle();
-                        } catch (IOException e) {
-                            showImageLoadError();
-                        }
+                        loadPuzzleImage(() -> ImageLoader.decodeSquare(getContentResolver(), imageUri, getPuzzleImageSide()));
                     }
                 } else {
                     showImageLoadError();
@@ -255,6 +293,50 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         );
     }
     
+    /**
+     * Lado de la imagen del puzzle: el de la pantalla, porque el tablero
+     * nunca es más grande
+     */
+    private int getPuzzleImageSide() {
+        return Math.min(getResources().getDisplayMetrics().widthPixels,
+                getResources().getDisplayMetrics().heightPixels);
+    }
+    
+    /**
+     * Decodifica la foto o imagen elegida en segundo plano e inicia el puzzle
+     * 
+     * Solo se decodifica el cuadrado central, al lado del tablero: ver
+     * ImageLoader. Se registra el pico de memoria de la preparación
+     * (decodificación, y después imagen más atlas de piezas).
+     */
+    private void loadPuzzleImage(Callable<ImageLoader.Result> decode) {
+        scheduler.submit(SolverScheduler.Lane.INTERACTIVE, () -> {
+            ImageLoader.Result result = null;
+            try {
+                result = decode.call();
+                Log.d("PUZZLE_IMAGE", result.toString());
+            } catch (Exception e) {
+                Log.e("PUZZLE_IMAGE", "Error decodificando la imagen", e);
+            }
+            
+            ImageLoader.Result loaded = result;
+            mainHandler.post(() -> {
+                if (isDestroyed()) return;
+                if (loaded == null) {
+                    showImageLoadError();
+                    return;
+                }
+                puzzleImage = loaded.getBitmap();
+                initializePuzzle();
+                
+                // El atlas se hornea al medir la vista: medir después del layout
+                puzzleView.post(() -> Log.d("PUZZLE_IMAGE", "Pico de la preparación: "
+                        + Math.max(loaded.getPeakBytes(), loaded.getBitmap().getAllocationByteCount()
+                        + puzzleView.getBitmapMemoryBytes()) / 1024 + " KB"));
+            });
+        });
+    }
+    
     /**
      * Carga la imagen según la fuente especificada
      */
@@ -438,6 +520,17 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         pausedTime = 0;
         moveCount = 0;
         currentScore = 0;
+        frameStats.reset();
+        lastFrameOverlayUpdate = 0;
+        updateDrawRecording();
+        
+        // Pistas nuevas para esta partida; las tablas del tamaño (exactas
+        // hasta 3x3, PDB en 4x4) se cargan o construyen como mantenimiento
+        hintService.clearCache();
+        if (!solverService.isPrepared(puzzleSize)) {
+            int size = puzzleSize;
+            scheduler.submit(SolverScheduler.Lane.MAINTENANCE, () -> solverService.prepare(size));
+        }
         
         // Iniciar cronómetro
         startTimer();
@@ -510,13 +603,22 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
             pausedTime += System.currentTimeMillis() - gameStartTime;
             gameStartTime = System.currentTimeMillis();
             isGamePaused = false;
+            updateDrawRecording();
             llPauseOverlay.setVisibility(View.GONE);
             btnPause.setText(R.string.pause_game);
             btnPause.setIcon(getDrawable(R.drawable.ic_pause));
             startTimer();
+            if (solutionPlayer != null) {
+                solutionPlayer.resume();
+                schedulePlaybackFrame();
+            }
         } else {
             // Pausar juego
             isGamePaused = true;
+            updateDrawRecording();
+            if (solutionPlayer != null) {
+                solutionPlayer.pause();
+            }
             llPauseOverlay.setVisibility(View.VISIBLE);
             btnPause.setText(R.string.resume_game);
             btnPause.setIcon(getDrawable(R.drawable.ic_play));
@@ -551,6 +653,9 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         int[][] shuffledBoard = aStar.generateSolvablePuzzle(puzzleSize, puzzleSize * puzzleSize * 10);
         puzzleView.setBoardState(shuffledBoard);
         
+        // Resolverlo ya en segundo plano por si el jugador pide la solución sin mover
+        speculativeSolver.speculate(shuffledBoard);
+        
         Toast.makeText(this, getString(R.string.toast_puzzle_shuffled), Toast.LENGTH_SHORT).show();
     }
     
@@ -558,18 +663,35 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
      * Resuelve el puzzle automáticamente
      */
     private void solvePuzzle() {
+        // Durante la reproducción el botón sirve para saltar al final
+        if (solutionPlayer != null) {
+            solutionPlayer.skip();
+            schedulePlaybackFrame();
+            return;
+        }
         if (!isGameStarted || isGamePaused || isSolving || isGameCompleted) return;
         
+        // Sin toques mientras se resuelve: se descartan los encolados y el
+        // deslizamiento en curso termina, así el tablero leído ya no cambia
+        puzzleView.setTouchEnabled(false);
+        if (isGameCompleted || puzzleView.isAnimating()) {
+            // El último deslizamiento completó el puzzle (o la vista no se detuvo)
+            puzzleView.setTouchEnabled(true);
+            return;
+        }
+        int[][] currentBoard = puzzleView.getCurrentBoard();
+        
         isSolving = true;
         llSolvingIndicator.setVisibility(View.VISIBLE);
         btnSolve.setEnabled(false);
         
         Toast.makeText(this, getString(R.string.toast_solving_started), Toast.LENGTH_SHORT).show();
         
-        // Ejecutar algoritmo A* en background thread
-        executorService.execute(() -> {
-            int[][] currentBoard = puzzleView.getCurrentBoard();
-            List<String> solution = aStar.solvePuzzle(currentBoard);
+        // Resolver en background thread (el servicio elige el motor)
+        scheduler.submit(SolverScheduler.Lane.INTERACTIVE, () -> {
+            SolverResult result = speculativeSolver.solve(currentBoard);
+            Log.d("PUZZLE_SOLVER", result.toString());
+            List<String> solution = result.getMoves();
             
             mainHandler.post(() -> {
                 llSolvingIndicator.setVisibility(View.GONE);
@@ -580,6 +702,7 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
                     // Aplicar la solución paso a paso con animación
                     applySolutionSteps(solution);
                 } else {
+                    puzzleView.setTouchEnabled(true);
                     Toast.makeText(this, getString(R.string.error_puzzle_unsolvable), 
                         Toast.LENGTH_LONG).show();
                 }
@@ -588,26 +711,92 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
     }
     
     /**
-     * Aplica los pasos de la solución con animación
+     * Calcula la pista para el tablero actual y resalta la pieza a mover
      */
-    private void applySolutionSteps(List<String> solution) {
-        // Para una demo rápida, completar inmediatamente
-        // En una implementación real, se aplicarían paso a paso con delays
+    private void requestHint() {
+        if (!isGameStarted || isGamePaused || isSolving || isGameCompleted) return;
         
-        // Crear puzzle resuelto
-        int[][] solvedBoard = new int[puzzleSize][puzzleSize];
-        int value = 1;
-        for (int i = 0; i < puzzleSize; i++) {
-            for (int j = 0; j < puzzleSize; j++) {
-                if (i == puzzleSize - 1 && j == puzzleSize - 1) {
-                    solvedBoard[i][j] = 0;
-                } else {
-                    solvedBoard[i][j] = value++;
+        int[][] board = puzzleView.getCurrentBoard();
+        scheduler.submit(SolverScheduler.Lane.INTERACTIVE, () -> {
+            HintService.Hint hint = hintService.getHint(board);
+            Log.d("PUZZLE_HINT", hint != null ? hint.toString() : "Sin pista");
+            
+            mainHandler.post(() -> {
+                // Descartar la pista si el jugador movió mientras se calculaba
+                if (!java.util.Arrays.deepEquals(board, puzzleView.getCurrentBoard())) return;
+                
+                if (hint == null) {
+                    Toast.makeText(this, getString(R.string.toast_no_hint), Toast.LENGTH_SHORT).show();
+                    return;
                 }
+                puzzleView.showHint(hint.getTileRow(), hint.getTileCol());
+                Toast.makeText(this, getString(hint.isExact() ? R.string.toast_hint_exact : R.string.toast_hint_approx,
+                        hint.getDistance()), Toast.LENGTH_SHORT).show();
+            });
+        });
+    }
+    
+    /**
+     * Reproduce los pasos de la solución al ritmo de los frames
+     * 
+     * Cada frame aplica los movimientos que tocan según la velocidad y
+     * redibuja una sola vez. La velocidad se ajusta para que la reproducción
+     * dure unos segundos (hasta SolutionPlayer.MAX_MOVES_PER_SECOND).
+     */
+    private void applySolutionSteps(List<String> solution) {
+        isSolving = true;
+        puzzleView.setTouchEnabled(false);
+        btnSolve.setText(R.string.skip_solution);
+        
+        solutionPlayer = new SolutionPlayer(solution, new SolutionPlayer.Listener() {
+            @Override
+            public void onMove(String move) {
+                puzzleView.applySolutionMove(move);
             }
-        }
+            
+            @Override
+            public void onFrameApplied(int appliedThisFrame, int appliedTotal, int total) {
+                puzzleView.invalidate();
+            }
+            
+            @Override
+            public void onFinished() {
+                finishSolutionPlayback();
+            }
+        });
+        solutionPlayer.setMovesPerSecond(Math.max(SolutionPlayer.DEFAULT_MOVES_PER_SECOND,
+                solution.size() / PLAYBACK_TARGET_SECONDS));
         
-        puzzleView.setBoardState(solvedBoard);
+        updateUI();
+        if (isGamePaused) {
+            // Se pausó mientras se buscaba la solución: arranca al reanudar
+            solutionPlayer.pause();
+        } else {
+            schedulePlaybackFrame();
+        }
+    }
+    
+    private void onPlaybackFrame(long frameTimeNanos) {
+        if (solutionPlayer != null && solutionPlayer.doFrame(frameTimeNanos)) {
+            Choreographer.getInstance().postFrameCallback(playbackCallback);
+        }
+    }
+    
+    /**
+     * Pide un frame para la reproducción (sin duplicar uno ya pedido)
+     */
+    private void schedulePlaybackFrame() {
+        Choreographer choreographer = Choreographer.getInstance();
+        choreographer.removeFrameCallback(playbackCallback);
+        choreographer.postFrameCallback(playbackCallback);
+    }
+    
+    private void finishSolutionPlayback() {
+        solutionPlayer = null;
+        isSolving = false;
+        puzzleView.setTouchEnabled(true);
+        btnSolve.setText(R.string.solve_puzzle);
+        updateUI();
         
         // Marcar como completado automáticamente
         mainHandler.postDelayed(() -> {
@@ -616,6 +805,41 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         }, 1000);
     }
     
+    /**
+     * Registra un frame de la ventana (en el hilo principal, después del frame)
+     * 
+     * Solo cuentan los frames de la partida en curso: sin el primer frame
+     * de la ventana, que incluye inflar y medir el layout, ni los de pausa.
+     */
+    private void onFrameMetrics(FrameMetrics metrics) {
+        if (!isGameActive()) return;
+        if (metrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) return;
+        
+        frameStats.recordFrame(metrics.getMetric(FrameMetrics.TOTAL_DURATION),
+                metrics.getMetric(FrameMetrics.DEADLINE));
+        
+        long now = SystemClock.uptimeMillis();
+        if (showFrameOverlay && now - lastFrameOverlayUpdate >= FRAME_OVERLAY_INTERVAL_MS) {
+            lastFrameOverlayUpdate = now;
+            tvFrameStats.setText(getString(R.string.frame_stats_overlay,
+                    frameStats.getLastFrameMillis(), frameStats.getFramePercentileMillis(0.95),
+                    frameStats.getJankCount(),
+                    frameStats.getLastDrawMillis(), frameStats.getDrawPercentileMillis(0.95)));
+        }
+    }
+    
+    private boolean isGameActive() {
+        return isGameStarted && !isGamePaused && !isGameCompleted;
+    }
+    
+    /**
+     * La vista mide sus onDraw solo durante la partida en curso, igual que
+     * onFrameMetrics (sin los dibujos previos al juego, en pausa ni al final)
+     */
+    private void updateDrawRecording() {
+        puzzleView.setFrameStats(isGameActive() ? frameStats : null);
+    }
+    
     /**
      * Confirma la salida del juego
      */
@@ -643,7 +867,8 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         // Habilitar/deshabilitar botones según el estado
         boolean canInteract = isGameStarted && !isGamePaused && !isGameCompleted && !isSolving;
         btnShuffle.setEnabled(canInteract);
-        btnSolve.setEnabled(canInteract);
+        btnSolve.setEnabled(canInteract || (solutionPlayer != null && !isGamePaused));
+        btnHint.setEnabled(canInteract);
         btnPreview.setEnabled(isGameStarted);
         btnPause.setEnabled(isGameStarted && !isGameCompleted);
     }
@@ -661,6 +886,8 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
     @Override
     public void onPieceMove(int fromRow, int fromCol, int toRow, int toCol) {
         if (isGameStarted && !isGamePaused && !isGameCompleted && !isSolving) {
+            // El tablero ya no es el mezclado: la especulación no sirve
+            speculativeSolver.cancel();
             moveCount++;
             updateUI();
         }
@@ -670,6 +897,7 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
     public void onPuzzleCompleted() {
         if (!isGameCompleted) {
             isGameCompleted = true;
+            updateDrawRecording();
             mainHandler.removeCallbacks(timerRunnable);
             
             // Calcular estadísticas finales
@@ -691,6 +919,9 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
      */
     private void saveGameRecord(long timeMs, int score) {
         GameRecord record = new GameRecord(playerName, puzzleSize, timeMs, moveCount, score);
+        record.setFrameStats("device=" + Build.MANUFACTURER + " " + Build.MODEL
+                + ";sdk=" + Build.VERSION.SDK_INT + ";" + frameStats.toSummary());
+        Log.d("PUZZLE_VIEW", record.getFrameStats());
         dbHelper.insertGameRecord(record);
         Toast.makeText(this, getString(R.string.toast_record_saved), Toast.LENGTH_SHORT).show();
     }
@@ -772,9 +1003,18 @@ public class PuzzleActivity extends AppCompatActivity implements PuzzleView.OnPi
         if (mainHandler != null && timerRunnable != null) {
             mainHandler.removeCallbacks(timerRunnable);
         }
+        Choreographer.getInstance().removeFrameCallback(playbackCallback);
+        solutionPlayer = null;
+        if (frameMetricsListener != null) {
+            getWindow().removeOnFrameMetricsAvailableListener(frameMetricsListener);
+        }
         
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdown();
+        if (speculativeSolver != null) {
+            speculativeSolver.cancel();
+            Log.d("PUZZLE_SOLVER", speculativeSolver.getStats());
+        }
+        if (scheduler != null) {
+            Log.d("PUZZLE_SOLVER", scheduler.getStats());
         }
         
         // Limpiar archivo temporal
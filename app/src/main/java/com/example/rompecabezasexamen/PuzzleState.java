@@ -8,6 +8,11 @@ import java.util.Arrays;
  * para calcular la heurística de Manhattan
  */
 public class PuzzleState implements Comparable<PuzzleState> {
+    // Direcciones del espacio vacío: arriba, abajo, izquierda, derecha
+    public static final String[] MOVE_NAMES = {"ARRIBA", "ABAJO", "IZQUIERDA", "DERECHA"};
+    public static final int[] ROW_MOVES = {-1, 1, 0, 0};
+    public static final int[] COL_MOVES = {0, 0, -1, 1};
+    
     private int[][] board;           // Configuración actual del tablero
     private int size;                // Tamaño del tablero (n x n)
     private int emptyRow, emptyCol;  // Posición del espacio vacío
@@ -16,16 +21,38 @@ public class PuzzleState implements Comparable<PuzzleState> {
     private int fCost;               // Costo total (g + h)
     private PuzzleState parent;      // Estado padre para reconstruir la solución
     private String move;             // Movimiento que llevó a este estado
+    private Heuristic heuristic;     // Heurística (null = distancia Manhattan)
+    private long zobristHash;        // Hash Zobrist de 64 bits del tablero
+    private MovePruning pruning;     // Autómata de poda de movimientos (null = sin poda)
+    private int pruningState;        // Estado del autómata tras la secuencia de movimientos
     
     /**
      * Constructor para crear un estado del puzzle
      */
     public PuzzleState(int[][] board, int gCost, PuzzleState parent, String move) {
+        this(board, gCost, parent, move, null);
+    }
+    
+    /**
+     * Constructor con una heurística propia (los vecinos la heredan)
+     */
+    public PuzzleState(int[][] board, int gCost, PuzzleState parent, String move, Heuristic heuristic) {
+        this(board, gCost, parent, move, heuristic, MovePruning.inverseOnly());
+    }
+    
+    /**
+     * Constructor con heurística y autómata de poda propios (los vecinos los heredan)
+     */
+    public PuzzleState(int[][] board, int gCost, PuzzleState parent, String move,
+                       Heuristic heuristic, MovePruning pruning) {
         this.size = board.length;
         this.board = new int[size][size];
         this.gCost = gCost;
         this.parent = parent;
         this.move = move;
+        this.heuristic = heuristic;
+        this.pruning = pruning;
+        this.pruningState = MovePruning.START;
         
         // Copiar el tablero y encontrar la posición vacía
         for (int i = 0; i < size; i++) {
@@ -39,7 +66,30 @@ public class PuzzleState implements Comparable<PuzzleState> {
         }
         
         // Calcular la heurística y el costo total
-        this.hCost = calculateManhattanDistance();
+        this.hCost = heuristic != null ? heuristic.estimate(this.board) : calculateManhattanDistance();
+        this.fCost = this.gCost + this.hCost;
+        this.zobristHash = Zobrist.hash(this.board);
+    }
+    
+    /**
+     * Constructor para vecinos: recibe un tablero ya copiado (no lo vuelve a
+     * copiar) junto con la posición del vacío y el hash actualizado
+     */
+    private PuzzleState(int[][] ownedBoard, int emptyRow, int emptyCol, long zobristHash,
+                        int gCost, PuzzleState parent, String move, Heuristic heuristic,
+                        MovePruning pruning, int pruningState) {
+        this.size = ownedBoard.length;
+        this.board = ownedBoard;
+        this.emptyRow = emptyRow;
+        this.emptyCol = emptyCol;
+        this.zobristHash = zobristHash;
+        this.gCost = gCost;
+        this.parent = parent;
+        this.move = move;
+        this.heuristic = heuristic;
+        this.pruning = pruning;
+        this.pruningState = pruningState;
+        this.hCost = heuristic != null ? heuristic.estimate(this.board) : calculateManhattanDistance();
         this.fCost = this.gCost + this.hCost;
     }
     
@@ -91,31 +141,18 @@ public class PuzzleState implements Comparable<PuzzleState> {
     }
     
     /**
-     * Genera todos los estados vecinos posibles moviendo el espacio vacío
+     * Genera los estados vecinos moviendo el espacio vacío
+     * 
+     * Se omiten los movimientos que el autómata de poda rechaza; como
+     * mínimo, el que deshace el movimiento que llevó a este estado.
      */
     public java.util.List<PuzzleState> getNeighbors() {
         java.util.List<PuzzleState> neighbors = new java.util.ArrayList<>();
         
         // Direcciones posibles: arriba, abajo, izquierda, derecha
-        int[] rowMoves = {-1, 1, 0, 0};
-        int[] colMoves = {0, 0, -1, 1};
-        String[] moveNames = {"ARRIBA", "ABAJO", "IZQUIERDA", "DERECHA"};
-        
         for (int i = 0; i < 4; i++) {
-            int newRow = emptyRow + rowMoves[i];
-            int newCol = emptyCol + colMoves[i];
-            
-            // Verificar si el movimiento es válido
-            if (isValidPosition(newRow, newCol)) {
-                // Crear nuevo tablero con el movimiento
-                int[][] newBoard = copyBoard();
-                
-                // Intercambiar el espacio vacío con la pieza
-                newBoard[emptyRow][emptyCol] = newBoard[newRow][newCol];
-                newBoard[newRow][newCol] = 0;
-                
-                // Crear nuevo estado
-                PuzzleState neighbor = new PuzzleState(newBoard, gCost + 1, this, moveNames[i]);
+            PuzzleState neighbor = getNeighbor(i);
+            if (neighbor != null) {
                 neighbors.add(neighbor);
             }
         }
@@ -123,6 +160,89 @@ public class PuzzleState implements Comparable<PuzzleState> {
         return neighbors;
     }
     
+    /**
+     * Verifica si el espacio vacío puede moverse en una dirección
+     * (dentro del tablero y sin que el autómata de poda lo rechace)
+     */
+    public boolean canMove(int direction) {
+        int newRow = emptyRow + ROW_MOVES[direction];
+        int newCol = emptyCol + COL_MOVES[direction];
+        return isValidPosition(newRow, newCol) && nextPruningState(direction) != MovePruning.REJECT;
+    }
+    
+    /**
+     * Genera el vecino que resulta de mover el espacio vacío en una dirección
+     * (índice en MOVE_NAMES) o null si el movimiento no es válido o está podado
+     */
+    public PuzzleState getNeighbor(int direction) {
+        int newRow = emptyRow + ROW_MOVES[direction];
+        int newCol = emptyCol + COL_MOVES[direction];
+        
+        // Verificar si el movimiento es válido y no está podado
+        int nextPruningState = nextPruningState(direction);
+        if (!isValidPosition(newRow, newCol) || nextPruningState == MovePruning.REJECT) {
+            return null;
+        }
+        
+        // Crear nuevo tablero con el movimiento
+        int[][] newBoard = copyBoard();
+        
+        // Intercambiar el espacio vacío con la pieza
+        int tile = newBoard[newRow][newCol];
+        newBoard[emptyRow][emptyCol] = tile;
+        newBoard[newRow][newCol] = 0;
+        
+        // Actualizar el hash: la pieza sale de su celda y entra en la del vacío
+        long[][] zobrist = Zobrist.forSize(size);
+        long newHash = zobristHash
+                ^ zobrist[tile][newRow * size + newCol]
+                ^ zobrist[tile][emptyRow * size + emptyCol];
+        
+        // Crear nuevo estado
+        return new PuzzleState(newBoard, newRow, newCol, newHash,
+                gCost + 1, this, MOVE_NAMES[direction], heuristic, pruning, nextPruningState);
+    }
+    
+    private int nextPruningState(int direction) {
+        return pruning != null ? pruning.next(pruningState, direction) : MovePruning.START;
+    }
+    
+    /**
+     * Refleja un tablero sobre la diagonal principal y renombra las piezas
+     * 
+     * La pieza en (fila, col) pasa a (col, fila) y su valor se cambia por el
+     * de la pieza que el objetivo tiene en la celda transpuesta de su destino.
+     * Como el objetivo es simétrico respecto a la diagonal, el tablero
+     * reflejado se resuelve exactamente con el mismo número de movimientos.
+     */
+    public static int[][] reflectBoard(int[][] board) {
+        int n = board.length;
+        int[][] reflected = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                reflected[j][i] = relabelTile(board[i][j], n);
+            }
+        }
+        return reflected;
+    }
+    
+    /**
+     * Valor que toma una pieza al reflejar el tablero (el vacío se mantiene)
+     */
+    public static int relabelTile(int value, int size) {
+        if (value == 0) return 0;
+        int targetRow = (value - 1) / size;
+        int targetCol = (value - 1) % size;
+        return targetCol * size + targetRow + 1;
+    }
+    
+    /**
+     * Tablero de este estado reflejado sobre la diagonal principal
+     */
+    public int[][] reflectDiagonal() {
+        return reflectBoard(board);
+    }
+    
     /**
      * Verifica si una posición es válida en el tablero
      */
@@ -162,15 +282,23 @@ public class PuzzleState implements Comparable<PuzzleState> {
         if (obj == null || getClass() != obj.getClass()) return false;
         
         PuzzleState that = (PuzzleState) obj;
+        if (this.zobristHash != that.zobristHash) return false;
         return Arrays.deepEquals(this.board, that.board);
     }
     
     /**
-     * Genera un hash code basado en el tablero
+     * Hash code derivado del hash Zobrist (O(1), ya calculado)
      */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return (int) (zobristHash ^ (zobristHash >>> 32));
+    }
+    
+    /**
+     * Hash Zobrist de 64 bits del tablero para tablas de transposición y cachés
+     */
+    public long longHashCode() {
+        return zobristHash;
     }
     
     /**
@@ -225,4 +353,15 @@ public class PuzzleState implements Comparable<PuzzleState> {
     public String getMove() {
         return move;
     }
+    
+    public Heuristic getHeuristic() {
+        return heuristic;
+    }
+    
+    /**
+     * Valor de una celda sin copiar el tablero
+     */
+    public int getTile(int row, int col) {
+        return board[row][col];
+    }
 }
@@ -16,8 +16,22 @@ import androidx.annotation.Nullable;
  * - Renderizado dinámico de piezas con imagen de fondo
  * - Animaciones suaves para movimientos de piezas
  * - Detección de toques y gestos para mover piezas
+ * - Tocar una pieza en la fila o columna del vacío desliza de una vez todas
+ *   las piezas intermedias; los toques durante una animación se encolan
  * - Escalado automático según el tamaño del dispositivo
  * - Efectos visuales modernos con sombras y bordes redondeados
+ * - onDraw no reserva memoria: la geometría, los textos y los colores de
+ *   las piezas se preparan fuera del frame y se reutilizan
+ * - Cada pieza se hornea una vez (sombra, máscara redondeada y borde) al
+ *   tamaño en pantalla en un único atlas: cada frame copia un rectángulo
+ *   del atlas por pieza y hay una sola textura que subir a la GPU
+ * - Los movimientos y las animaciones invalidan solo las celdas afectadas
+ *   (con su sombra) y onDraw omite las piezas fuera del recorte. Con
+ *   aceleración por hardware el sistema ignora la región invalidada y
+ *   onDraw vuelve a dibujar todas las piezas: ahí el ahorro lo da RENDER_NODE
+ * - Opcionalmente (RenderBackend.RENDER_NODE) cada pieza se graba una vez
+ *   en su propio RenderNode y se mueve cambiando su translationX/Y: un
+ *   frame de animación no vuelve a grabar ninguna pieza
  */
 public class PuzzleView extends View {
     
@@ -26,6 +40,9 @@ public class PuzzleView extends View {
     private static final int PIECE_RADIUS = 12;          // Radio de esquinas redondeadas
     private static final int SHADOW_OFFSET = 6;          // Desplazamiento de sombra
     private static final int ANIMATION_DURATION = 200;   // Duración de animaciones en ms
+    private static final int TILE_PADDING = 2;           // Margen del bitmap horneado para el borde
+    private static final int DAMAGE_PADDING = 4;         // Margen de una celda invalidada (borde de la pista)
+    private static final int MAX_QUEUED_TAPS = 4;        // Toques pendientes durante una animación
     
     // Estado del puzzle
     private int[][] puzzleBoard;      // Configuración actual del tablero
@@ -34,7 +51,8 @@ public class PuzzleView extends View {
     
     // Imagen del puzzle
     private Bitmap originalImage;     // Imagen original completa
-    private Bitmap[] pieceBitmaps;    // Array de imágenes de cada pieza
+    private final Rect imageSquare = new Rect();   // Recorte cuadrado centrado de la imagen
+    private final Rect imagePiece = new Rect();    // Parte de la imagen de la pieza que se dibuja
     
     // Dimensiones y posicionamiento
     private float pieceSize;          // Tamaño de cada pieza en pixels
@@ -48,20 +66,74 @@ public class PuzzleView extends View {
     private Paint borderPaint;        // Paint para los bordes
     private Paint emptyPaint;         // Paint para el espacio vacío
     private Paint numberPaint;        // Paint para números (modo debug)
+    private Paint hintPaint;          // Paint para resaltar la pieza de la pista
+    private Paint backgroundPaint;    // Paint para el fondo del tablero
+    private Paint tileCachePaint;     // Paint para copiar las piezas horneadas (sin filtrado)
     
-    // Animación
+    // Geometría y textos reutilizados en cada frame
+    private final RectF pieceRect = new RectF();    // Rectángulo de la pieza que se dibuja
+    private final RectF shadowRect = new RectF();   // Sombra de la pieza que se dibuja
+    private final RectF boardRect = new RectF();    // Fondo del tablero
+    private final Path clipPath = new Path();       // Máscara redondeada de la pieza
+    private String[] tileLabels = new String[0];    // Número de cada pieza (índice = valor)
+    private int[] tileColors = new int[0];          // Color de cada pieza en modo números
+    private float[] labelBaselines = new float[0];  // Línea base que centra cada número en su pieza
+    private final Rect labelBounds = new Rect();    // Medida de un número al preparar las líneas base
+    
+    // Atlas de piezas horneadas al tamaño actual (null = sin hornear)
+    private Bitmap tileAtlas;
+    private Rect[] atlasCells = new Rect[0];        // Celda de cada pieza en el atlas (índice = valor)
+    private final RectF atlasTarget = new RectF();  // Destino de la celda que se dibuja
+    private int atlasBuilds;                        // Veces que se creó (y subió a la GPU) el atlas
+    
+    // Regiones dañadas y superposición de depuración
+    private final Rect damageRect = new Rect();     // Región a invalidar (unión de celdas)
+    private final Rect cellDamage = new Rect();     // Región de una celda
+    private final Rect overlayRect = new Rect();    // Región de la superposición de depuración
+    private boolean debugOverlay = false;           // Mostrar cuántas piezas se redibujaron
+    private Paint overlayPaint;
+    private final char[] overlayText = new char[32];
+    private int overlayPrefixLength;
+    private int lastFrameTiles;                     // Celdas dibujadas en el último frame
+    private FrameStats frameStats;                  // Recibe la duración de cada onDraw (null = no medir)
+    
+    // Animación de un deslizamiento: las piezas entre la tocada y el vacío
     private ValueAnimator currentAnimator;
     private float animationProgress = 0f;
-    private int animatingPiece = -1;
-    private float animStartX, animStartY, animEndX, animEndY;
+    private int slideRow, slideCol;     // Pieza tocada (la más lejana al vacío)
+    private int slideLength;            // Piezas que se deslizan (0 = ninguna)
+    private int slideDRow, slideDCol;   // Paso de cada pieza hacia el vacío
+    
+    // Toques recibidos durante una animación (cola circular acotada)
+    private final int[] queuedRows = new int[MAX_QUEUED_TAPS];
+    private final int[] queuedCols = new int[MAX_QUEUED_TAPS];
+    private int queueHead, queueCount;
+    private int droppedTaps;            // Toques descartados con la cola llena
+    
+    // Pista (-1 = sin pista)
+    private int hintRow = -1, hintCol = -1;
     
     // Configuración
     private boolean showNumbers = false;    // Mostrar números en lugar de imagen
     private boolean animationsEnabled = true;
+    private boolean touchEnabled = true;    // false durante la reproducción de una solución
     
     // Listener para movimientos
     private OnPieceMoveListener moveListener;
     
+    /**
+     * Forma de dibujar las piezas
+     */
+    public enum RenderBackend {
+        CANVAS,       // onDraw copia cada pieza del atlas en cada frame
+        RENDER_NODE   // Un RenderNode grabado una vez por pieza, movido con translationX/Y
+    }
+    
+    // Backend de RenderNodes (solo se usa con aceleración por hardware)
+    private RenderBackend renderBackend = RenderBackend.CANVAS;
+    private RenderNode boardNode;                          // Fondo más los nodos de las piezas (null = sin grabar)
+    private RenderNode[] tileNodes = new RenderNode[0];    // Nodo de cada pieza (índice = valor, 0 = vacío)
+    
     /**
      * Interface para notificar movimientos de piezas
      */
@@ -111,6 +183,25 @@ public class PuzzleView extends View {
         numberPaint.setTextAlign(Paint.Align.CENTER);
         numberPaint.setTypeface(Typeface.DEFAULT_BOLD);
         numberPaint.setShadowLayer(4, 2, 2, Color.BLACK);
+        
+        hintPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        hintPaint.setColor(Color.rgb(253, 203, 110));
+        hintPaint.setStyle(Paint.Style.STROKE);
+        hintPaint.setStrokeWidth(8);
+        
+        backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        backgroundPaint.setColor(Color.argb(30, 255, 255, 255));
+        
+        tileCachePaint = new Paint();
+        
+        overlayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        overlayPaint.setColor(Color.YELLOW);
+        overlayPaint.setTextSize(36);
+        overlayPaint.setShadowLayer(3, 1, 1, Color.BLACK);
+        String prefix = "Redibujadas: ";
+        prefix.getChars(0, prefix.length(), overlayText, 0);
+        overlayPrefixLength = prefix.length();
+        overlayRect.set(0, 0, 480, 60);
     }
     
     /**
@@ -120,18 +211,26 @@ public class PuzzleView extends View {
         android.util.Log.d("PUZZLE_VIEW", "setPuzzle llamado - Imagen: " + 
             (image != null ? "SÍ" : "NO") + ", Tamaño: " + size);
         
+        cancelSlide();
         this.originalImage = image;
         this.puzzleSize = size;
         this.puzzleBoard = new int[size][size];
         
         // Inicializar tablero resuelto
         initializeSolvedBoard();
+        prepareTileLabels();
+        clearTapQueue();
         
-        // Crear piezas de la imagen
-        createPieceBitmaps();
+        // Recorte cuadrado de la imagen: cada pieza toma una parte al hornear
+        if (image != null) {
+            int side = Math.min(image.getWidth(), image.getHeight());
+            int left = (image.getWidth() - side) / 2;
+            int top = (image.getHeight() - side) / 2;
+            imageSquare.set(left, top, left + side, top + side);
+        }
         
         // Configurar modo según si tenemos imágenes
-        this.showNumbers = (pieceBitmaps == null || pieceBitmaps.length == 0);
+        this.showNumbers = image == null;
         android.util.Log.d("PUZZLE_VIEW", "Modo configurado - showNumbers: " + showNumbers);
         
         // Recalcular dimensiones ahora que tenemos puzzleSize
@@ -151,12 +250,17 @@ public class PuzzleView extends View {
     public void setBoardState(int[][] board) {
         if (board.length != puzzleSize) return;
         
+        // El deslizamiento en curso pertenece al tablero anterior
+        cancelSlide();
         for (int i = 0; i < puzzleSize; i++) {
             System.arraycopy(board[i], 0, puzzleBoard[i], 0, puzzleSize);
         }
         
         // Encontrar posición del espacio vacío
         findEmptyPosition();
+        placeAllTileNodes();
+        clearTapQueue();
+        clearHint();
         invalidate();
     }
     
@@ -179,62 +283,43 @@ public class PuzzleView extends View {
     }
     
     /**
-     * Crea las imágenes de cada pieza a partir de la imagen original
+     * Precalcula el texto y el color de cada pieza para no crearlos al dibujar
      */
-    private void createPieceBitmaps() {
-        if (originalImage == null) {
-            android.util.Log.e("PUZZLE_VIEW", "Error: originalImage es null en createPieceBitmaps");
-            return;
+    private void prepareTileLabels() {
+        int cells = puzzleSize * puzzleSize;
+        tileLabels = new String[cells];
+        tileColors = new int[cells];
+        for (int value = 1; value < cells; value++) {
+            tileLabels[value] = String.valueOf(value);
+            tileColors[value] = getColorForPiece(value);
         }
-        
-        android.util.Log.d("PUZZLE_VIEW", "Creando piezas - Imagen original: " + 
-            originalImage.getWidth() + "x" + originalImage.getHeight() + 
-            ", Tamaño puzzle: " + puzzleSize);
-        
-        pieceBitmaps = new Bitmap[puzzleSize * puzzleSize];
-        
-        // Crear bitmap cuadrado de la imagen original
-        Bitmap squareImage = createSquareBitmap(originalImage);
-        int imageSize = squareImage.getWidth();
-        int pieceImageSize = imageSize / puzzleSize;
-        
-        android.util.Log.d("PUZZLE_VIEW", "Imagen cuadrada: " + imageSize + 
-            "x" + imageSize + ", Tamaño pieza: " + pieceImageSize);
-        
-        // Cortar cada pieza
-        for (int i = 0; i < puzzleSize; i++) {
-            for (int j = 0; j < puzzleSize; j++) {
-                int value = i * puzzleSize + j + 1;
-                if (value <= puzzleSize * puzzleSize - 1) { // Excluir el espacio vacío
-                    int x = j * pieceImageSize;
-                    int y = i * pieceImageSize;
-                    
-                    try {
-                        Bitmap piece = Bitmap.createBitmap(squareImage, x, y, 
-                                                         pieceImageSize, pieceImageSize);
-                        pieceBitmaps[value - 1] = piece;
-                        android.util.Log.d("PUZZLE_VIEW", "Pieza " + value + " creada: " + 
-                            piece.getWidth() + "x" + piece.getHeight());
-                    } catch (Exception e) {
-                        android.util.Log.e("PUZZLE_VIEW", "Error creando pieza " + value + ": " + e.getMessage());
-                    }
-                }
-            }
+    }
+    
+    /**
+     * Mide cada número una vez por tamaño de pieza y guarda la línea base que
+     * lo centra verticalmente (el centrado horizontal lo hace Align.CENTER)
+     */
+    private void prepareLabelLayouts() {
+        int cells = puzzleSize * puzzleSize;
+        labelBaselines = new float[cells];
+        for (int value = 1; value < cells && value < tileLabels.length; value++) {
+            String label = tileLabels[value];
+            numberPaint.getTextBounds(label, 0, label.length(), labelBounds);
+            labelBaselines[value] = pieceSize / 2 + labelBounds.height() / 2f - labelBounds.bottom;
         }
-        
-        android.util.Log.d("PUZZLE_VIEW", "Piezas creadas: " + pieceBitmaps.length);
     }
     
     /**
-     * Convierte cualquier imagen en un bitmap cuadrado
+     * Parte de la imagen original que corresponde a una pieza
      */
-    private Bitmap createSquareBitmap(Bitmap source) {
-        int size = Math.min(source.getWidth(), source.getHeight());
-        int x = (source.getWidth() - size) / 2;
-        int y = (source.getHeight() - size) / 2;
-        
-        Bitmap squared = Bitmap.createBitmap(source, x, y, size, size);
-        return Bitmap.createScaledBitmap(squared, 800, 800, true);
+    private void setImagePiece(int value) {
+        int row = (value - 1) / puzzleSize;
+        int col = (value - 1) % puzzleSize;
+        int side = imageSquare.width();
+        imagePiece.set(imageSquare.left + col * side / puzzleSize,
+                imageSquare.top + row * side / puzzleSize,
+                imageSquare.left + (col + 1) * side / puzzleSize,
+                imageSquare.top + (row + 1) * side / puzzleSize);
     }
     
     /**
@@ -280,40 +365,218 @@ public class PuzzleView extends View {
         
         boardStartX = (w - boardSize) / 2f;
         boardStartY = (h - boardSize) / 2f;
+        boardRect.set(boardStartX, boardStartY, boardStartX + boardSize, boardStartY + boardSize);
         
         android.util.Log.d("PUZZLE_VIEW", "Dimensiones calculadas - boardSize: " + boardSize + 
             ", pieceSize: " + pieceSize + ", boardStartX: " + boardStartX + ", boardStartY: " + boardStartY);
         
-        // Actualizar tamaño de texto
+        // Actualizar tamaño de texto y la posición de cada número
         numberPaint.setTextSize(pieceSize * 0.4f);
+        prepareLabelLayouts();
+        
+        // Las piezas horneadas dependen del tamaño
+        buildTileCache();
+    }
+    
+    /**
+     * Hornea todas las piezas en un atlas al tamaño actual
+     * 
+     * Cada celda lleva la sombra, la imagen (o el color y el número) recortada
+     * con esquinas redondeadas y el borde; la celda de cada pieza está en la
+     * posición que la pieza ocupa en el tablero resuelto, así el atlas mide
+     * lo mismo que el tablero en pantalla. Se llama solo al cambiar el
+     * tamaño, el puzzle o el modo; ningún frame recorta con un Path ni escala.
+     */
+    private void buildTileCache() {
+        if (tileAtlas != null) {
+            tileAtlas.recycle();
+            tileAtlas = null;
+        }
+        
+        int cells = puzzleSize * puzzleSize;
+        if (pieceSize <= 0 || cells == 0) {
+            atlasCells = new Rect[0];
+            releaseTileNodes();
+            return;
+        }
+        
+        int cellSize = (int) Math.ceil(pieceSize) + SHADOW_OFFSET + TILE_PADDING * 2;
+        tileAtlas = Bitmap.createBitmap(cellSize * puzzleSize, cellSize * puzzleSize, Bitmap.Config.ARGB_8888);
+        atlasBuilds++;
+        Canvas atlasCanvas = new Canvas(tileAtlas);
+        atlasCells = new Rect[cells];
+        
+        for (int value = 1; value < cells; value++) {
+            int left = ((value - 1) % puzzleSize) * cellSize;
+            int top = ((value - 1) / puzzleSize) * cellSize;
+            atlasCells[value] = new Rect(left, top, left + cellSize, top + cellSize);
+            
+            float x = left + TILE_PADDING;
+            float y = top + TILE_PADDING;
+            shadowRect.set(x + SHADOW_OFFSET, y + SHADOW_OFFSET,
+                    x + SHADOW_OFFSET + pieceSize, y + SHADOW_OFFSET + pieceSize);
+            atlasCanvas.drawRoundRect(shadowRect, PIECE_RADIUS, PIECE_RADIUS, shadowPaint);
+            drawTile(atlasCanvas, value, x, y);
+        }
+        
+        android.util.Log.d("PUZZLE_VIEW", "Atlas de piezas: " + tileAtlas.getWidth() + "x" +
+            tileAtlas.getHeight() + ", " + getBitmapMemoryBytes() / 1024 + " KB");
+        
+        // Los nodos grabados apuntan al atlas anterior
+        recordTileNodes();
+    }
+    
+    /**
+     * Graba cada pieza (y el espacio vacío) en su propio RenderNode y el
+     * fondo más todos esos nodos en boardNode
+     * 
+     * Solo se llama al hornear el atlas o al cambiar de backend. Después, un
+     * movimiento cambia la translación de los nodos sin grabar nada.
+     */
+    private void recordTileNodes() {
+        releaseTileNodes();
+        if (renderBackend != RenderBackend.RENDER_NODE || tileAtlas == null) return;
+        
+        int cells = puzzleSize * puzzleSize;
+        tileNodes = new RenderNode[cells];
+        for (int value = 0; value < cells; value++) {
+            RenderNode node = new RenderNode("pieza");
+            if (value == 0) {
+                int side = (int) Math.ceil(pieceSize) + TILE_PADDING * 2;
+                node.setPosition(0, 0, side, side);
+                RecordingCanvas recording = node.beginRecording();
+                pieceRect.set(TILE_PADDING, TILE_PADDING, TILE_PADDING + pieceSize, TILE_PADDING + pieceSize);
+                recording.drawRoundRect(pieceRect, PIECE_RADIUS, PIECE_RADIUS, emptyPaint);
+                node.endRecording();
+            } else {
+                Rect cell = atlasCells[value];
+                node.setPosition(0, 0, cell.width(), cell.height());
+                RecordingCanvas recording = node.beginRecording();
+                atlasTarget.set(0, 0, cell.width(), cell.height());
+                recording.drawBitmap(tileAtlas, cell, atlasTarget, tileCachePaint);
+                node.endRecording();
+            }
+            tileNodes[value] = node;
+        }
+        
+        boardNode = new RenderNode("tablero");
+        boardNode.setPosition(0, 0, getWidth(), getHeight());
+        RecordingCanvas recording = boardNode.beginRecording();
+        recording.drawRoundRect(boardRect, PIECE_RADIUS * 2, PIECE_RADIUS * 2, backgroundPaint);
+        for (RenderNode node : tileNodes) {
+            recording.drawRenderNode(node);   // El vacío va primero: las piezas pasan por encima
+        }
+        boardNode.endRecording();
+        
+        placeAllTileNodes();
+    }
+    
+    private void releaseTileNodes() {
+        for (RenderNode node : tileNodes) {
+            if (node != null) node.discardDisplayList();
+        }
+        tileNodes = new RenderNode[0];
+        if (boardNode != null) {
+            boardNode.discardDisplayList();
+            boardNode = null;
+        }
+    }
+    
+    /**
+     * Mueve el nodo de la pieza que está en una celda a la posición de esa celda
+     */
+    private void placeTileNode(int row, int col) {
+        if (boardNode == null) return;
+        float x = boardStartX + PIECE_MARGIN + col * (pieceSize + PIECE_MARGIN);
+        float y = boardStartY + PIECE_MARGIN + row * (pieceSize + PIECE_MARGIN);
+        moveTileNode(puzzleBoard[row][col], x, y);
+    }
+    
+    private void placeAllTileNodes() {
+        if (boardNode == null) return;
+        for (int i = 0; i < puzzleSize; i++) {
+            for (int j = 0; j < puzzleSize; j++) {
+                placeTileNode(i, j);
+            }
+        }
+    }
+    
+    /**
+     * Pone la esquina superior izquierda de una pieza en (x, y) (solo propiedades del nodo)
+     */
+    private void moveTileNode(int value, float x, float y) {
+        RenderNode node = tileNodes[value];
+        node.setTranslationX(x - TILE_PADDING);
+        node.setTranslationY(y - TILE_PADDING);
+    }
+    
+    /**
+     * Dibuja la pieza horneada con la esquina superior izquierda en (x, y)
+     * 
+     * @return false si la pieza todavía no está horneada
+     */
+    private boolean drawCachedTile(Canvas canvas, int value, float x, float y) {
+        if (tileAtlas == null || value >= atlasCells.length) return false;
+        Rect cell = atlasCells[value];
+        atlasTarget.set(x - TILE_PADDING, y - TILE_PADDING,
+                x - TILE_PADDING + cell.width(), y - TILE_PADDING + cell.height());
+        canvas.drawBitmap(tileAtlas, cell, atlasTarget, tileCachePaint);
+        return true;
     }
     
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
         
-        android.util.Log.d("PUZZLE_VIEW", "onDraw llamado - puzzleBoard: " + (puzzleBoard != null ? "SÍ" : "NO") + 
-            ", puzzleSize: " + puzzleSize + ", showNumbers: " + showNumbers);
-        
+        if (frameStats == null) {
+            drawBoard(canvas);
+            return;
+        }
+        long start = System.nanoTime();
+        drawBoard(canvas);
+        frameStats.recordDraw(System.nanoTime() - start);
+    }
+    
+    /**
+     * Dibuja el tablero, las piezas, la pista y la superposición de depuración
+     */
+    private void drawBoard(Canvas canvas) {
+        // Sin logs ni objetos nuevos aquí: se ejecuta en cada frame de una animación
         if (puzzleBoard == null) {
-            android.util.Log.w("PUZZLE_VIEW", "puzzleBoard es null, no dibujando nada");
+            return;
+        }
+        
+        // Con RenderNodes las piezas ya están grabadas: solo se referencia el tablero
+        if (boardNode != null && canvas.isHardwareAccelerated()) {
+            canvas.drawRenderNode(boardNode);
+            if (hintRow >= 0 && currentAnimator == null) {
+                drawHint(canvas);
+            }
+            lastFrameTiles = 0;
+            if (debugOverlay) {
+                drawDebugOverlay(canvas);
+            }
             return;
         }
         
         // Dibujar fondo del tablero
         drawBackground(canvas);
         
-        // Dibujar cada pieza
+        // Dibujar cada pieza (las que quedan fuera del recorte se omiten)
+        int tilesDrawn = 0;
         for (int i = 0; i < puzzleSize; i++) {
             for (int j = 0; j < puzzleSize; j++) {
                 int value = puzzleBoard[i][j];
+                boolean animating = currentAnimator != null && isSliding(i, j);
+                if (!animating && isCellOutsideClip(canvas, i, j)) continue;
+                tilesDrawn++;
                 
                 if (value == 0) {
                     // Dibujar espacio vacío
                     drawEmptySpace(canvas, i, j);
-                } else if (value == animatingPiece && currentAnimator != null) {
+                } else if (animating) {
                     // Dibujar pieza animándose
-                    drawAnimatingPiece(canvas, value);
+                    drawAnimatingPiece(canvas, value, i, j);
                 } else {
                     // Dibujar pieza normal
                     drawPiece(canvas, value, i, j);
@@ -321,79 +584,112 @@ public class PuzzleView extends View {
             }
         }
         
-        android.util.Log.d("PUZZLE_VIEW", "onDraw completado");
+        // Resaltar la pieza de la pista
+        if (hintRow >= 0 && currentAnimator == null) {
+            drawHint(canvas);
+        }
+        
+        lastFrameTiles = tilesDrawn;
+        if (debugOverlay) {
+            drawDebugOverlay(canvas);
+        }
+    }
+    
+    /**
+     * Verifica si una celda (con sombra y borde) queda fuera del recorte del canvas
+     */
+    private boolean isCellOutsideClip(Canvas canvas, int row, int col) {
+        float x = boardStartX + PIECE_MARGIN + col * (pieceSize + PIECE_MARGIN);
+        float y = boardStartY + PIECE_MARGIN + row * (pieceSize + PIECE_MARGIN);
+        return canvas.quickReject(x - DAMAGE_PADDING, y - DAMAGE_PADDING,
+                x + pieceSize + SHADOW_OFFSET + DAMAGE_PADDING,
+                y + pieceSize + SHADOW_OFFSET + DAMAGE_PADDING);
+    }
+    
+    /**
+     * Muestra cuántas celdas se redibujaron en este frame (sin crear strings)
+     */
+    private void drawDebugOverlay(Canvas canvas) {
+        int length = appendNumber(overlayPrefixLength, lastFrameTiles);
+        overlayText[length++] = '/';
+        length = appendNumber(length, puzzleSize * puzzleSize);
+        canvas.drawText(overlayText, 0, length, overlayRect.left + 16, overlayRect.bottom - 16, overlayPaint);
+    }
+    
+    /**
+     * Escribe un número no negativo en overlayText desde una posición
+     * 
+     * @return Posición siguiente al último dígito
+     */
+    private int appendNumber(int position, int number) {
+        int digits = 1;
+        for (int rest = number / 10; rest > 0; rest /= 10) digits++;
+        for (int i = position + digits - 1; i >= position; i--) {
+            overlayText[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return position + digits;
     }
     
     /**
      * Dibuja el fondo del tablero
      */
     private void drawBackground(Canvas canvas) {
-        Paint bgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        bgPaint.setColor(Color.argb(30, 255, 255, 255));
-        
-        RectF bgRect = new RectF(boardStartX, boardStartY, 
-                               boardStartX + boardSize, boardStartY + boardSize);
-        canvas.drawRoundRect(bgRect, PIECE_RADIUS * 2, PIECE_RADIUS * 2, bgPaint);
+        canvas.drawRoundRect(boardRect, PIECE_RADIUS * 2, PIECE_RADIUS * 2, backgroundPaint);
     }
     
     /**
      * Dibuja una pieza del puzzle
      */
     private void drawPiece(Canvas canvas, int value, int row, int col) {
-        android.util.Log.d("PUZZLE_VIEW", "drawPiece llamado - value: " + value + ", row: " + row + ", col: " + col);
-        
         float x = boardStartX + PIECE_MARGIN + col * (pieceSize + PIECE_MARGIN);
         float y = boardStartY + PIECE_MARGIN + row * (pieceSize + PIECE_MARGIN);
-        
-        android.util.Log.d("PUZZLE_VIEW", "Posición pieza - x: " + x + ", y: " + y + ", pieceSize: " + pieceSize);
+        if (drawCachedTile(canvas, value, x, y)) return;
         
         // Dibujar sombra
-        RectF shadowRect = new RectF(x + SHADOW_OFFSET, y + SHADOW_OFFSET, 
-                                   x + pieceSize + SHADOW_OFFSET, y + pieceSize + SHADOW_OFFSET);
+        shadowRect.set(x + SHADOW_OFFSET, y + SHADOW_OFFSET,
+                x + pieceSize + SHADOW_OFFSET, y + pieceSize + SHADOW_OFFSET);
         canvas.drawRoundRect(shadowRect, PIECE_RADIUS, PIECE_RADIUS, shadowPaint);
         
-        // Dibujar pieza
-        RectF pieceRect = new RectF(x, y, x + pieceSize, y + pieceSize);
-        
-        // Verificar si tenemos imagen de la pieza
-        boolean hasPieceImage = pieceBitmaps != null && 
-                               value > 0 && 
-                               value <= pieceBitmaps.length && 
-                               pieceBitmaps[value - 1] != null;
+        drawTile(canvas, value, x, y);
+    }
+    
+    /**
+     * Dibuja una pieza que se está deslizando desde la celda (row, col)
+     */
+    private void drawAnimatingPiece(Canvas canvas, int value, int row, int col) {
+        float currentX = slideX(col);
+        float currentY = slideY(row);
+        if (drawCachedTile(canvas, value, currentX, currentY)) return;
         
-        android.util.Log.d("PUZZLE_VIEW", "Pieza " + value + " - hasPieceImage: " + hasPieceImage + ", showNumbers: " + showNumbers);
+        drawTile(canvas, value, currentX, currentY);
+    }
+    
+    /**
+     * Dibuja el cuerpo y el borde de una pieza con la esquina superior izquierda en (x, y)
+     * (al hornear las piezas o si todavía no hay piezas horneadas)
+     */
+    private void drawTile(Canvas canvas, int value, float x, float y) {
+        pieceRect.set(x, y, x + pieceSize, y + pieceSize);
         
-        if (showNumbers || !hasPieceImage) {
+        if (showNumbers || originalImage == null) {
             // Modo números o sin imagen
-            piecePaint.setColor(getColorForPiece(value));
+            piecePaint.setColor(tileColors[value]);
             canvas.drawRoundRect(pieceRect, PIECE_RADIUS, PIECE_RADIUS, piecePaint);
             
             // Dibujar número
             float textX = x + pieceSize / 2;
-            float textY = y + pieceSize / 2 + numberPaint.getTextSize() / 3;
-            canvas.drawText(String.valueOf(value), textX, textY, numberPaint);
-            
-            android.util.Log.d("PUZZLE_VIEW", "Pieza " + value + " dibujada en modo números");
-            
-            // Debug: mostrar información de la pieza
-            if (!hasPieceImage) {
-                android.util.Log.w("PUZZLE_VIEW", "Pieza " + value + " sin imagen - usando modo números");
-            }
+            float textY = y + labelBaselines[value];
+            canvas.drawText(tileLabels[value], textX, textY, numberPaint);
         } else {
-            // Modo imagen
+            // Modo imagen con máscara redondeada
             canvas.save();
-            
-            // Crear máscara redondeada
-            Path clipPath = new Path();
+            clipPath.reset();
             clipPath.addRoundRect(pieceRect, PIECE_RADIUS, PIECE_RADIUS, Path.Direction.CW);
             canvas.clipPath(clipPath);
-            
-            // Dibujar imagen de la pieza
-            canvas.drawBitmap(pieceBitmaps[value - 1], null, pieceRect, piecePaint);
-            
+            setImagePiece(value);
+            canvas.drawBitmap(originalImage, imagePiece, pieceRect, piecePaint);
             canvas.restore();
-            
-            android.util.Log.d("PUZZLE_VIEW", "Pieza " + value + " dibujada en modo imagen");
         }
         
         // Dibujar borde
@@ -401,31 +697,14 @@ public class PuzzleView extends View {
     }
     
     /**
-     * Dibuja una pieza que se está animando
+     * Dibuja el borde de la pieza sugerida por la pista
      */
-    private void drawAnimatingPiece(Canvas canvas, int value) {
-        float currentX = animStartX + (animEndX - animStartX) * animationProgress;
-        float currentY = animStartY + (animEndY - animStartY) * animationProgress;
-        
-        RectF pieceRect = new RectF(currentX, currentY, currentX + pieceSize, currentY + pieceSize);
-        
-        if (showNumbers || pieceBitmaps == null || pieceBitmaps[value - 1] == null) {
-            piecePaint.setColor(getColorForPiece(value));
-            canvas.drawRoundRect(pieceRect, PIECE_RADIUS, PIECE_RADIUS, piecePaint);
-            
-            float textX = currentX + pieceSize / 2;
-            float textY = currentY + pieceSize / 2 + numberPaint.getTextSize() / 3;
-            canvas.drawText(String.valueOf(value), textX, textY, numberPaint);
-        } else {
-            canvas.save();
-            Path clipPath = new Path();
-            clipPath.addRoundRect(pieceRect, PIECE_RADIUS, PIECE_RADIUS, Path.Direction.CW);
-            canvas.clipPath(clipPath);
-            canvas.drawBitmap(pieceBitmaps[value - 1], null, pieceRect, piecePaint);
-            canvas.restore();
-        }
+    private void drawHint(Canvas canvas) {
+        float x = boardStartX + PIECE_MARGIN + hintCol * (pieceSize + PIECE_MARGIN);
+        float y = boardStartY + PIECE_MARGIN + hintRow * (pieceSize + PIECE_MARGIN);
         
-        canvas.drawRoundRect(pieceRect, PIECE_RADIUS, PIECE_RADIUS, borderPaint);
+        pieceRect.set(x, y, x + pieceSize, y + pieceSize);
+        canvas.drawRoundRect(pieceRect, PIECE_RADIUS, PIECE_RADIUS, hintPaint);
     }
     
     /**
@@ -435,12 +714,12 @@ public class PuzzleView extends View {
         float x = boardStartX + PIECE_MARGIN + col * (pieceSize + PIECE_MARGIN);
         float y = boardStartY + PIECE_MARGIN + row * (pieceSize + PIECE_MARGIN);
         
-        RectF emptyRect = new RectF(x, y, x + pieceSize, y + pieceSize);
-        canvas.drawRoundRect(emptyRect, PIECE_RADIUS, PIECE_RADIUS, emptyPaint);
+        pieceRect.set(x, y, x + pieceSize, y + pieceSize);
+        canvas.drawRoundRect(pieceRect, PIECE_RADIUS, PIECE_RADIUS, emptyPaint);
     }
     
     /**
-     * Genera un color único para cada pieza
+     * Genera un color único para cada pieza (se llama al preparar el puzzle, no al dibujar)
      */
     private int getColorForPiece(int value) {
         float hue = (value * 360f) / (puzzleSize * puzzleSize);
@@ -450,27 +729,65 @@ public class PuzzleView extends View {
     @Override
     public boolean onTouchEvent(MotionEvent event) {
         if (event.getAction() == MotionEvent.ACTION_DOWN) {
-            if (currentAnimator != null && currentAnimator.isRunning()) {
-                return true; // Ignorar toques durante animación
+            if (!touchEnabled) {
+                return true; // El tablero lo controla la reproducción de la solución
             }
             
             // Convertir coordenadas del toque a posición del tablero
             int[] boardPos = getTouchedPosition(event.getX(), event.getY());
-            if (boardPos != null) {
-                int row = boardPos[0];
-                int col = boardPos[1];
-                
-                // Intentar mover la pieza
-                if (canMovePiece(row, col)) {
-                    movePiece(row, col);
-                    return true;
-                }
+            if (boardPos != null && handleTap(boardPos[0], boardPos[1])) {
+                return true;
             }
         }
         
         return super.onTouchEvent(event);
     }
     
+    /**
+     * Procesa un toque en una celda: durante una animación se encola y se
+     * reproduce al terminar; si no, desliza las piezas hacia el vacío
+     * 
+     * @return true si el toque se aplicó o quedó en cola
+     */
+    private boolean handleTap(int row, int col) {
+        if (isAnimating()) {
+            if (queueCount == MAX_QUEUED_TAPS) {
+                droppedTaps++;
+                return false;
+            }
+            int tail = (queueHead + queueCount) % MAX_QUEUED_TAPS;
+            queuedRows[tail] = row;
+            queuedCols[tail] = col;
+            queueCount++;
+            return true;
+        }
+        
+        if (!canSlide(row, col)) return false;
+        slideTiles(row, col);
+        return true;
+    }
+    
+    /**
+     * Reproduce el siguiente toque encolado que siga siendo válido
+     * (los que ya no están en la fila o columna del vacío se descartan)
+     */
+    private void playNextQueuedTap() {
+        while (queueCount > 0 && !isAnimating()) {
+            int row = queuedRows[queueHead];
+            int col = queuedCols[queueHead];
+            queueHead = (queueHead + 1) % MAX_QUEUED_TAPS;
+            queueCount--;
+            if (canSlide(row, col)) {
+                slideTiles(row, col);
+            }
+        }
+    }
+    
+    private void clearTapQueue() {
+        queueHead = 0;
+        queueCount = 0;
+    }
+    
     /**
      * Convierte coordenadas de pantalla a posición del tablero
      */
@@ -500,27 +817,64 @@ public class PuzzleView extends View {
     }
     
     /**
-     * Mueve una pieza al espacio vacío
+     * Verifica si tocar una pieza la desliza: debe estar en la fila o la
+     * columna del vacío (junto a él o más lejos)
      */
-    private void movePiece(int fromRow, int fromCol) {
+    private boolean canSlide(int row, int col) {
+        if (row < 0 || row >= puzzleSize || col < 0 || col >= puzzleSize) return false;
+        return (row == emptyRow) != (col == emptyCol);
+    }
+    
+    /**
+     * Desliza hacia el vacío la pieza tocada y todas las que hay entre ella y el vacío
+     */
+    private void slideTiles(int row, int col) {
+        slideRow = row;
+        slideCol = col;
+        slideDRow = Integer.signum(emptyRow - row);
+        slideDCol = Integer.signum(emptyCol - col);
+        slideLength = Math.abs(emptyRow - row) + Math.abs(emptyCol - col);
+        
         if (animationsEnabled) {
-            animatePieceMove(fromRow, fromCol, emptyRow, emptyCol);
+            animateSlide();
         } else {
-            executeMove(fromRow, fromCol, emptyRow, emptyCol);
+            executeSlide();
         }
     }
     
     /**
-     * Anima el movimiento de una pieza
+     * Verifica si la celda (row, col) tiene una de las piezas que se deslizan
      */
-    private void animatePieceMove(int fromRow, int fromCol, int toRow, int toCol) {
-        animatingPiece = puzzleBoard[fromRow][fromCol];
-        
-        // Calcular posiciones de inicio y fin
-        animStartX = boardStartX + PIECE_MARGIN + fromCol * (pieceSize + PIECE_MARGIN);
-        animStartY = boardStartY + PIECE_MARGIN + fromRow * (pieceSize + PIECE_MARGIN);
-        animEndX = boardStartX + PIECE_MARGIN + toCol * (pieceSize + PIECE_MARGIN);
-        animEndY = boardStartY + PIECE_MARGIN + toRow * (pieceSize + PIECE_MARGIN);
+    private boolean isSliding(int row, int col) {
+        if (slideLength == 0) return false;
+        int offset;
+        if (slideDRow != 0) {
+            if (col != slideCol) return false;
+            offset = (row - slideRow) * slideDRow;
+        } else {
+            if (row != slideRow) return false;
+            offset = (col - slideCol) * slideDCol;
+        }
+        return offset >= 0 && offset < slideLength;
+    }
+    
+    /**
+     * Posición actual de una pieza que se desliza desde la columna col
+     */
+    private float slideX(int col) {
+        return boardStartX + PIECE_MARGIN + (col + slideDCol * animationProgress) * (pieceSize + PIECE_MARGIN);
+    }
+    
+    private float slideY(int row) {
+        return boardStartY + PIECE_MARGIN + (row + slideDRow * animationProgress) * (pieceSize + PIECE_MARGIN);
+    }
+    
+    /**
+     * Anima el deslizamiento: todas las piezas avanzan una celda a la vez
+     */
+    private void animateSlide() {
+        int fromRow = slideRow, fromCol = slideCol;
+        int toRow = emptyRow, toCol = emptyCol;
         
         // Crear animador
         currentAnimator = ValueAnimator.ofFloat(0f, 1f);
@@ -529,15 +883,21 @@ public class PuzzleView extends View {
         
         currentAnimator.addUpdateListener(animation -> {
             animationProgress = (float) animation.getAnimatedValue();
-            invalidate();
+            if (boardNode != null) {
+                for (int k = 0, row = fromRow, col = fromCol; k < slideLength; k++, row += slideDRow, col += slideDCol) {
+                    moveTileNode(puzzleBoard[row][col], slideX(col), slideY(row));
+                }
+            }
+            invalidateCells(fromRow, fromCol, toRow, toCol);
         });
         
         currentAnimator.addListener(new android.animation.AnimatorListenerAdapter() {
             @Override
             public void onAnimationEnd(android.animation.Animator animation) {
-                executeMove(fromRow, fromCol, toRow, toCol);
-                animatingPiece = -1;
                 currentAnimator = null;
+                animationProgress = 0f;
+                executeSlide();
+                playNextQueuedTap();
             }
         });
         
@@ -545,7 +905,54 @@ public class PuzzleView extends View {
     }
     
     /**
-     * Ejecuta el movimiento de la pieza
+     * Descarta el deslizamiento en curso sin aplicarlo (el tablero va a
+     * reemplazarse): se quitan los listeners antes de cancelar para que
+     * onAnimationEnd no llegue a executeSlide
+     */
+    private void cancelSlide() {
+        if (currentAnimator != null) {
+            ValueAnimator animator = currentAnimator;
+            currentAnimator = null;
+            animator.removeAllListeners();
+            animator.removeAllUpdateListeners();
+            animator.cancel();
+        }
+        slideLength = 0;
+        animationProgress = 0f;
+    }
+    
+    /**
+     * Aplica el deslizamiento al tablero
+     * 
+     * Cada pieza cuenta como un movimiento: el listener recibe un
+     * onPieceMove por pieza, empezando por la que está junto al vacío. El
+     * puzzle solo se da por completado al final del deslizamiento.
+     */
+    private void executeSlide() {
+        int startEmptyRow = emptyRow, startEmptyCol = emptyCol;
+        int length = slideLength;
+        slideLength = 0;
+        
+        // La pista corresponde al tablero anterior
+        clearHint();
+        
+        for (int k = 0; k < length; k++) {
+            int fromRow = emptyRow - slideDRow;
+            int fromCol = emptyCol - slideDCol;
+            int toRow = emptyRow;
+            int toCol = emptyCol;
+            executeMove(fromRow, fromCol, toRow, toCol);
+        }
+        invalidateCells(slideRow, slideCol, startEmptyRow, startEmptyCol);
+        
+        // Verificar si el puzzle está completo
+        if (moveListener != null && length > 0 && isPuzzleCompleted()) {
+            moveListener.onPuzzleCompleted();
+        }
+    }
+    
+    /**
+     * Mueve una pieza adyacente al espacio vacío y notifica el movimiento
      */
     private void executeMove(int fromRow, int fromCol, int toRow, int toCol) {
         // Intercambiar piezas
@@ -556,17 +963,12 @@ public class PuzzleView extends View {
         // Actualizar posición del espacio vacío
         emptyRow = fromRow;
         emptyCol = fromCol;
-        
-        invalidate();
+        placeTileNode(fromRow, fromCol);
+        placeTileNode(toRow, toCol);
         
         // Notificar el movimiento
         if (moveListener != null) {
             moveListener.onPieceMove(fromRow, fromCol, toRow, toCol);
-            
-            // Verificar si el puzzle está completo
-            if (isPuzzleCompleted()) {
-                moveListener.onPuzzleCompleted();
-            }
         }
     }
     
@@ -596,6 +998,7 @@ public class PuzzleView extends View {
     
     public void setShowNumbers(boolean showNumbers) {
         this.showNumbers = showNumbers;
+        buildTileCache();
         invalidate();
     }
     
@@ -603,6 +1006,155 @@ public class PuzzleView extends View {
         this.animationsEnabled = enabled;
     }
     
+    /**
+     * Activa o desactiva los toques; al desactivarlos se descartan los
+     * toques encolados y el deslizamiento en curso termina de inmediato,
+     * así el tablero queda quieto para quien lo controle después
+     */
+    public void setTouchEnabled(boolean enabled) {
+        this.touchEnabled = enabled;
+        if (!enabled) {
+            clearTapQueue();
+            if (currentAnimator != null) {
+                currentAnimator.end();   // onAnimationEnd aplica el deslizamiento
+            }
+        }
+    }
+    
+    /**
+     * Elige cómo se dibujan las piezas; RENDER_NODE solo tiene efecto con
+     * aceleración por hardware (sin ella se sigue usando el canvas)
+     */
+    public void setRenderBackend(RenderBackend backend) {
+        if (renderBackend == backend) return;
+        renderBackend = backend;
+        recordTileNodes();
+        invalidate();
+    }
+    
+    public RenderBackend getRenderBackend() {
+        return renderBackend;
+    }
+    
+    /**
+     * Muestra en una esquina cuántas celdas se redibujaron en cada frame
+     * 
+     * Con CANVAS el contador solo baja de n² sin aceleración por hardware;
+     * con ella el recorte es toda la vista y siempre se dibujan todas.
+     */
+    public void setDebugOverlayEnabled(boolean enabled) {
+        this.debugOverlay = enabled;
+        invalidate();
+    }
+    
+    /**
+     * Estadísticas donde registrar el tiempo de cada onDraw (null = no medir)
+     */
+    public void setFrameStats(FrameStats frameStats) {
+        this.frameStats = frameStats;
+    }
+    
+    /**
+     * Celdas dibujadas en el último frame (las demás quedaron fuera del
+     * recorte; con RenderNodes siempre 0 porque ninguna se vuelve a grabar)
+     * 
+     * Con CANVAS y aceleración por hardware siempre son todas: el recorte
+     * solo se reduce a las celdas invalidadas en el renderizado por software.
+     */
+    public int getLastFrameTileCount() {
+        return lastFrameTiles;
+    }
+    
+    /**
+     * Mueve el espacio vacío en una dirección sin animar, sin redibujar y sin
+     * notificar al listener (la reproducción de soluciones redibuja una vez
+     * por frame con invalidate())
+     * 
+     * @param move Nombre del movimiento (PuzzleState.MOVE_NAMES)
+     * @return false si el movimiento no es válido en el tablero actual
+     */
+    public boolean applySolutionMove(String move) {
+        for (int direction = 0; direction < PuzzleState.MOVE_NAMES.length; direction++) {
+            if (!PuzzleState.MOVE_NAMES[direction].equals(move)) continue;
+            
+            int row = emptyRow + PuzzleState.ROW_MOVES[direction];
+            int col = emptyCol + PuzzleState.COL_MOVES[direction];
+            if (row < 0 || row >= puzzleSize || col < 0 || col >= puzzleSize) return false;
+            
+            puzzleBoard[emptyRow][emptyCol] = puzzleBoard[row][col];
+            puzzleBoard[row][col] = 0;
+            placeTileNode(emptyRow, emptyCol);
+            placeTileNode(row, col);
+            emptyRow = row;
+            emptyCol = col;
+            hintRow = -1;
+            hintCol = -1;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Toca una celda por código: igual que un toque en pantalla (se encola
+     * durante una animación y desliza toda la fila o columna hasta el vacío)
+     * 
+     * @return false si no mueve nada o la cola de toques está llena
+     */
+    public boolean slidePiece(int row, int col) {
+        return handleTap(row, col);
+    }
+    
+    /**
+     * Resalta la pieza que conviene mover (debe estar junto al espacio vacío)
+     */
+    public void showHint(int row, int col) {
+        if (!canMovePiece(row, col)) return;
+        if (hintRow >= 0) {
+            invalidateCells(hintRow, hintCol, hintRow, hintCol);
+        }
+        hintRow = row;
+        hintCol = col;
+        invalidateCells(row, col, row, col);
+    }
+    
+    public void clearHint() {
+        if (hintRow < 0) return;
+        invalidateCells(hintRow, hintCol, hintRow, hintCol);
+        hintRow = -1;
+        hintCol = -1;
+    }
+    
+    /**
+     * Invalida solo la unión de dos celdas con su sombra y borde
+     * 
+     * La pieza que se desliza entre dos celdas adyacentes nunca sale de esa
+     * unión. Con la superposición de depuración activa también se invalida
+     * su región para que el contador se actualice.
+     * 
+     * Solo recorta el redibujo en el renderizado por software: con
+     * aceleración por hardware la región se ignora (por eso está obsoleta)
+     * y la actividad usa RENDER_NODE en su lugar.
+     */
+    @SuppressWarnings("deprecation")   // Sin aceleración por hardware la región sigue recortando el redibujo
+    private void invalidateCells(int row1, int col1, int row2, int col2) {
+        setCellDamage(row1, col1);
+        damageRect.set(cellDamage);
+        setCellDamage(row2, col2);
+        damageRect.union(cellDamage);
+        if (debugOverlay) {
+            damageRect.union(overlayRect);
+        }
+        invalidate(damageRect);
+    }
+    
+    private void setCellDamage(int row, int col) {
+        float x = boardStartX + PIECE_MARGIN + col * (pieceSize + PIECE_MARGIN);
+        float y = boardStartY + PIECE_MARGIN + row * (pieceSize + PIECE_MARGIN);
+        cellDamage.set((int) Math.floor(x - DAMAGE_PADDING), (int) Math.floor(y - DAMAGE_PADDING),
+                (int) Math.ceil(x + pieceSize + SHADOW_OFFSET + DAMAGE_PADDING),
+                (int) Math.ceil(y + pieceSize + SHADOW_OFFSET + DAMAGE_PADDING));
+    }
+    
     public int[][] getCurrentBoard() {
         int[][] copy = new int[puzzleSize][puzzleSize];
         for (int i = 0; i < puzzleSize; i++) {
@@ -611,6 +1163,34 @@ public class PuzzleView extends View {
         return copy;
     }
     
+    /**
+     * Bitmaps propios que la vista dibuja (cada uno es una textura en la GPU)
+     */
+    public int getTextureCount() {
+        return tileAtlas != null ? 1 : 0;
+    }
+    
+    /**
+     * Memoria de los bitmaps propios de la vista (la imagen original es del llamador)
+     */
+    public long getBitmapMemoryBytes() {
+        return tileAtlas != null ? tileAtlas.getAllocationByteCount() : 0;
+    }
+    
+    /**
+     * Veces que se construyó el atlas (cada una es una subida de textura)
+     */
+    public int getAtlasBuilds() {
+        return atlasBuilds;
+    }
+    
+    /**
+     * Toques descartados porque la cola de toques estaba llena
+     */
+    public int getDroppedTaps() {
+        return droppedTaps;
+    }
+    
     public boolean isAnimating() {
         return currentAnimator != null && currentAnimator.isRunning();
     }
@@ -625,12 +1205,8 @@ public class PuzzleView extends View {
         if (originalImage != null) {
             android.util.Log.d("PUZZLE_DEBUG", "Dimensiones imagen: " + originalImage.getWidth() + "x" + originalImage.getHeight());
         }
-        android.util.Log.d("PUZZLE_DEBUG", "Piezas creadas: " + (pieceBitmaps != null ? pieceBitmaps.length : "NULL"));
-        if (pieceBitmaps != null) {
-            for (int i = 0; i < pieceBitmaps.length; i++) {
-                android.util.Log.d("PUZZLE_DEBUG", "Pieza " + (i + 1) + ": " + (pieceBitmaps[i] != null ? "SÍ" : "NO"));
-            }
-        }
+        android.util.Log.d("PUZZLE_DEBUG", "Atlas: " + (tileAtlas != null ? tileAtlas.getWidth() + "x" + tileAtlas.getHeight() : "NULL") +
+            ", texturas: " + getTextureCount() + ", memoria: " + getBitmapMemoryBytes() + " bytes, construcciones: " + atlasBuilds);
         android.util.Log.d("PUZZLE_DEBUG", "Tablero actual:");
         if (puzzleBoard != null) {
             for (int i = 0; i < puzzleSize; i++) {
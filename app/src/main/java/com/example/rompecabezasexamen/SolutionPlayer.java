@@ -0,0 +1,156 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reproduce una solución movimiento a movimiento al ritmo de los frames
+ * 
+ * No depende de Android: quien lo usa llama a doFrame() con el tiempo de
+ * cada frame (por ejemplo desde un Choreographer.FrameCallback) y vuelve a
+ * pedir frame mientras devuelva true.
+ * 
+ * Funcionamiento:
+ * 1. Cada frame suma crédito según el tiempo transcurrido y la velocidad
+ * 2. Aplica todos los movimientos enteros acumulados en un solo lote y
+ *    avisa una vez por frame (un solo invalidate aunque sean varios)
+ * 3. El crédito sobrante pasa al frame siguiente: si un frame llega tarde
+ *    se aplican más movimientos en el siguiente, nunca se pierde ninguno
+ */
+public class SolutionPlayer {
+    
+    public static final double DEFAULT_MOVES_PER_SECOND = 8;
+    public static final double MAX_MOVES_PER_SECOND = 60;
+    private static final long MAX_FRAME_GAP_NANOS = 250_000_000L;   // Un salto mayor cuenta como 250 ms
+    
+    /**
+     * Recibe los movimientos y los avisos de frame
+     */
+    public interface Listener {
+        /** Aplica un movimiento al tablero (sin redibujar) */
+        void onMove(String move);
+        
+        /** Se llama una vez por frame que aplicó movimientos: momento de redibujar */
+        void onFrameApplied(int appliedThisFrame, int appliedTotal, int total);
+        
+        /** Se aplicó el último movimiento */
+        void onFinished();
+    }
+    
+    private final List<String> moves;
+    private final Listener listener;
+    private double movesPerSecond = DEFAULT_MOVES_PER_SECOND;
+    
+    private int applied;
+    private double credit;              // Movimientos acumulados todavía sin aplicar
+    private long lastFrameNanos = -1;   // -1 = el próximo frame solo marca el inicio
+    private boolean paused;
+    private boolean skipRequested;
+    private boolean finished;
+    private int frames;                 // Frames que aplicaron al menos un movimiento
+    
+    public SolutionPlayer(List<String> moves, Listener listener) {
+        this.moves = Collections.unmodifiableList(new ArrayList<>(moves));
+        this.listener = listener;
+    }
+    
+    /**
+     * Procesa un frame
+     * 
+     * @param frameTimeNanos Tiempo del frame (monótono)
+     * @return true si hay que pedir otro frame
+     */
+    public boolean doFrame(long frameTimeNanos) {
+        if (finished) return false;
+        if (paused) {
+            lastFrameNanos = -1;
+            return false;
+        }
+        
+        int due;
+        if (skipRequested) {
+            due = moves.size() - applied;
+        } else {
+            if (lastFrameNanos >= 0) {
+                long gap = Math.min(frameTimeNanos - lastFrameNanos, MAX_FRAME_GAP_NANOS);
+                credit += Math.max(0, gap) / 1e9 * movesPerSecond;
+            } else if (applied == 0) {
+                credit = 1;   // El primer movimiento se ve de inmediato
+            }
+            due = Math.min((int) credit, moves.size() - applied);
+            credit -= due;
+        }
+        lastFrameNanos = frameTimeNanos;
+        
+        if (due > 0) {
+            for (int i = 0; i < due; i++) {
+                listener.onMove(moves.get(applied++));
+            }
+            frames++;
+            listener.onFrameApplied(due, applied, moves.size());
+        }
+        
+        if (applied == moves.size()) {
+            finished = true;
+            listener.onFinished();
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Detiene la reproducción; doFrame() dejará de pedir frames
+     */
+    public void pause() {
+        paused = true;
+    }
+    
+    /**
+     * Reanuda la reproducción (hay que volver a pedir un frame)
+     */
+    public void resume() {
+        paused = false;
+        lastFrameNanos = -1;
+    }
+    
+    /**
+     * Aplica todos los movimientos pendientes en el próximo frame
+     */
+    public void skip() {
+        skipRequested = true;
+        paused = false;
+    }
+    
+    /**
+     * Cambia la velocidad (movimientos por segundo, hasta MAX_MOVES_PER_SECOND)
+     */
+    public void setMovesPerSecond(double movesPerSecond) {
+        this.movesPerSecond = Math.max(0.5, Math.min(MAX_MOVES_PER_SECOND, movesPerSecond));
+    }
+    
+    // Getters
+    public double getMovesPerSecond() {
+        return movesPerSecond;
+    }
+    
+    public boolean isPaused() {
+        return paused;
+    }
+    
+    public boolean isFinished() {
+        return finished;
+    }
+    
+    public int getApplied() {
+        return applied;
+    }
+    
+    public int getTotal() {
+        return moves.size();
+    }
+    
+    public int getFrames() {
+        return frames;
+    }
+}
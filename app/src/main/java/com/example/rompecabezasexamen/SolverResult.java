@@ -0,0 +1,85 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resultado inmutable de una resolución
+ * 
+ * Guarda los movimientos junto con el motor que respondió y lo que costó,
+ * para poder registrar y comparar las decisiones del SolverService.
+ */
+public final class SolverResult {
+    
+    /**
+     * Motor que produjo la solución
+     */
+    public enum Engine {
+        EXACT_TABLE,        // Tabla exacta (perímetro completo del tablero)
+        HEURISTIC_SEARCH,   // IDA* (con bases de datos de patrones en 4x4)
+        ANYTIME,            // A* ponderado con mejora hasta el plazo
+        HIERARCHICAL,       // Subobjetivos fila por fila (no óptima, inmediata)
+        A_STAR              // A* clásico con distancia Manhattan
+    }
+    
+    private final List<String> moves;   // null si no se encontró solución
+    private final Engine engine;
+    private final boolean optimal;
+    private final long elapsedMillis;
+    private final long nodesExpanded;
+    private final int initialHeuristic;
+    private final long predictedMillis;  // Estimación del modelo de costo (-1 si no se usó)
+    
+    public SolverResult(List<String> moves, Engine engine, boolean optimal, long elapsedMillis,
+                        long nodesExpanded, int initialHeuristic, long predictedMillis) {
+        this.moves = moves == null ? null : Collections.unmodifiableList(new ArrayList<>(moves));
+        this.engine = engine;
+        this.optimal = optimal;
+        this.elapsedMillis = elapsedMillis;
+        this.nodesExpanded = nodesExpanded;
+        this.initialHeuristic = initialHeuristic;
+        this.predictedMillis = predictedMillis;
+    }
+    
+    public boolean isSolved() {
+        return moves != null;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: %s movimientos, óptima=%s, %d ms (estimado %d ms), nodos=%d, h0=%d",
+                engine, moves == null ? "sin" : String.valueOf(moves.size()), optimal,
+                elapsedMillis, predictedMillis, nodesExpanded, initialHeuristic);
+    }
+    
+    // Getters
+    public List<String> getMoves() {
+        return moves;
+    }
+    
+    public Engine getEngine() {
+        return engine;
+    }
+    
+    public boolean isOptimal() {
+        return optimal;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+    
+    public int getInitialHeuristic() {
+        return initialHeuristic;
+    }
+    
+    public long getPredictedMillis() {
+        return predictedMillis;
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Planificador de trabajo en segundo plano compartido por toda la app
+ * 
+ * Funcionamiento:
+ * 1. Cada tarea entra en un carril según su importancia: INTERACTIVE (lo
+ *    que el jugador pidió: resolver, pistas), SPECULATIVE (trabajo que
+ *    quizás se use) y MAINTENANCE (construir tablas, rellenar cachés)
+ * 2. Un número fijo de hilos, acotado por los núcleos, toma siempre la
+ *    tarea del carril más importante (FIFO dentro del carril)
+ * 3. Los carriles de fondo nunca ocupan todos los hilos: queda al menos uno
+ *    libre para el trabajo interactivo
+ * 4. Si llega una tarea interactiva y no hay hilo libre, se interrumpe una
+ *    tarea especulativa en curso (su Future queda cancelado)
+ * 
+ * Los hilos bajan su prioridad mientras ejecutan tareas de fondo. Por
+ * carril se miden la profundidad de la cola y el tiempo de espera.
+ */
+public class SolverScheduler {
+    
+    /**
+     * Carriles en orden de prioridad
+     */
+    public enum Lane {
+        INTERACTIVE(Thread.NORM_PRIORITY, false),
+        SPECULATIVE(Thread.MIN_PRIORITY + 1, true),
+        MAINTENANCE(Thread.MIN_PRIORITY, false);
+        
+        final int threadPriority;   // Prioridad del hilo mientras ejecuta la tarea
+        final boolean preemptible;  // El trabajo interactivo puede interrumpirla
+        
+        Lane(int threadPriority, boolean preemptible) {
+            this.threadPriority = threadPriority;
+            this.preemptible = preemptible;
+        }
+        
+        boolean isBackground() {
+            return this != INTERACTIVE;
+        }
+    }
+    
+    private static final int MAX_WORKERS = 4;
+    
+    private static SolverScheduler instance;
+    
+    private final int workerCount;
+    private final Thread[] workers;
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>();   // Protegida por this
+    private final List<Task<?>> running = new ArrayList<>();              // Protegida por this
+    private int runningBackground;
+    private boolean shutdown;
+    private final AtomicLong sequence = new AtomicLong();
+    
+    // Métricas por carril (protegidas por this)
+    private final int lanes = Lane.values().length;
+    private final long[] submitted = new long[lanes];
+    private final long[] started = new long[lanes];
+    private final long[] preempted = new long[lanes];
+    private final long[] totalWaitNanos = new long[lanes];
+    private final long[] maxWaitNanos = new long[lanes];
+    private final int[] queueDepth = new int[lanes];
+    private final int[] maxQueueDepth = new int[lanes];
+    
+    /**
+     * Tarea en cola: se ordena por carril y luego por orden de llegada
+     */
+    private final class Task<T> extends FutureTask<T> implements Comparable<Task<?>> {
+        final Lane lane;
+        final long order;
+        final long enqueuedNanos;
+        
+        Task(Lane lane, Callable<T> callable) {
+            super(callable);
+            this.lane = lane;
+            this.order = sequence.getAndIncrement();
+            this.enqueuedNanos = System.nanoTime();
+        }
+        
+        @Override
+        public int compareTo(Task<?> other) {
+            if (lane != other.lane) {
+                return Integer.compare(lane.ordinal(), other.lane.ordinal());
+            }
+            return Long.compare(order, other.order);
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                synchronized (SolverScheduler.this) {
+                    // Si todavía estaba en cola, sacarla para no contarla en la profundidad
+                    if (queue.remove(this)) {
+                        queueDepth[lane.ordinal()]--;
+                    }
+                }
+            }
+            return cancelled;
+        }
+    }
+    
+    /**
+     * Instancia compartida: tantos hilos como núcleos menos uno (el de la
+     * interfaz), entre 2 y MAX_WORKERS
+     */
+    public static synchronized SolverScheduler getInstance() {
+        if (instance == null) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            instance = new SolverScheduler(Math.max(2, Math.min(MAX_WORKERS, cores - 1)));
+        }
+        return instance;
+    }
+    
+    /**
+     * @param workerCount Hilos del planificador (al menos 2: uno queda reservado al carril interactivo)
+     */
+    public SolverScheduler(int workerCount) {
+        if (workerCount < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 hilos: " + workerCount);
+        }
+        this.workerCount = workerCount;
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Thread(this::workerLoop, "solver-scheduler-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+    
+    /**
+     * Encola una tarea en un carril
+     * 
+     * @return Future de la tarea; cancel(true) interrumpe la búsqueda si ya empezó
+     */
+    public <T> Future<T> submit(Lane lane, Callable<T> callable) {
+        Task<T> task = new Task<>(lane, callable);
+        synchronized (this) {
+            if (shutdown) {
+                throw new IllegalStateException("Planificador detenido");
+            }
+            queue.add(task);
+            int index = lane.ordinal();
+            submitted[index]++;
+            queueDepth[index]++;
+            maxQueueDepth[index] = Math.max(maxQueueDepth[index], queueDepth[index]);
+            
+            if (lane == Lane.INTERACTIVE && running.size() >= workerCount) {
+                preemptOne();
+            }
+            notifyAll();
+        }
+        return task;
+    }
+    
+    public Future<?> submit(Lane lane, Runnable runnable) {
+        return submit(lane, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Interrumpe la tarea interrumpible de menor prioridad en curso (la más
+     * reciente si hay varias) para liberar un hilo
+     */
+    private void preemptOne() {
+        Task<?> victim = null;
+        for (Task<?> task : running) {
+            if (!task.lane.preemptible) continue;
+            if (victim == null || task.lane.ordinal() > victim.lane.ordinal()
+                    || (task.lane == victim.lane && task.order > victim.order)) {
+                victim = task;
+            }
+        }
+        if (victim != null && victim.cancel(true)) {
+            preempted[victim.lane.ordinal()]++;
+        }
+    }
+    
+    private void workerLoop() {
+        Thread thread = Thread.currentThread();
+        while (true) {
+            Task<?> task;
+            synchronized (this) {
+                while ((task = nextRunnable()) == null) {
+                    if (shutdown) return;
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Interrupción sobrante de una tarea cancelada: seguir esperando
+                    }
+                }
+                queue.remove(task);
+                int index = task.lane.ordinal();
+                long waited = System.nanoTime() - task.enqueuedNanos;
+                queueDepth[index]--;
+                started[index]++;
+                totalWaitNanos[index] += waited;
+                maxWaitNanos[index] = Math.max(maxWaitNanos[index], waited);
+                running.add(task);
+                if (task.lane.isBackground()) runningBackground++;
+            }
+            
+            thread.setPriority(task.lane.threadPriority);
+            try {
+                task.run();
+            } finally {
+                Thread.interrupted();   // No arrastrar una cancelación a la siguiente tarea
+                thread.setPriority(Thread.NORM_PRIORITY);
+                synchronized (this) {
+                    running.remove(task);
+                    if (task.lane.isBackground()) runningBackground--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Siguiente tarea que este hilo puede tomar: la primera de la cola, salvo
+     * que sea de fondo y los carriles de fondo ya ocupen todos los hilos menos uno
+     */
+    private Task<?> nextRunnable() {
+        Task<?> head = queue.peek();
+        if (head == null) return null;
+        if (head.lane.isBackground() && runningBackground >= workerCount - 1) return null;
+        return head;
+    }
+    
+    /**
+     * Detiene los hilos; las tareas en cola se cancelan
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        for (Task<?> task : new ArrayList<>(queue)) {
+            task.cancel(false);
+        }
+        notifyAll();
+    }
+    
+    /**
+     * Resumen de las métricas de cada carril
+     */
+    public synchronized String getStats() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Hilos: %d, en curso: %d", workerCount, running.size()));
+        for (Lane lane : Lane.values()) {
+            int i = lane.ordinal();
+            sb.append(String.format(Locale.ROOT,
+                    "%n%s: enviadas %d, iniciadas %d, en cola %d (máx %d), espera media %.1f ms (máx %.1f ms), interrumpidas %d",
+                    lane, submitted[i], started[i], queueDepth[i], maxQueueDepth[i],
+                    started[i] == 0 ? 0.0 : totalWaitNanos[i] / 1e6 / started[i],
+                    maxWaitNanos[i] / 1e6, preempted[i]));
+        }
+        return sb.toString();
+    }
+    
+    // Getters
+    public int getWorkerCount() {
+        return workerCount;
+    }
+    
+    public synchronized int getQueueDepth(Lane lane) {
+        return queueDepth[lane.ordinal()];
+    }
+    
+    public synchronized int getMaxQueueDepth(Lane lane) {
+        return maxQueueDepth[lane.ordinal()];
+    }
+    
+    public synchronized long getSubmitted(Lane lane) {
+        return submitted[lane.ordinal()];
+    }
+    
+    public synchronized long getPreempted(Lane lane) {
+        return preempted[lane.ordinal()];
+    }
+    
+    /**
+     * Espera media en cola de las tareas ya iniciadas de un carril
+     */
+    public synchronized double getAverageWaitMillis(Lane lane) {
+        int i = lane.ordinal();
+        return started[i] == 0 ? 0.0 : totalWaitNanos[i] / 1e6 / started[i];
+    }
+    
+    public synchronized double getMaxWaitMillis(Lane lane) {
+        return maxWaitNanos[lane.ordinal()] / 1e6;
+    }
+}
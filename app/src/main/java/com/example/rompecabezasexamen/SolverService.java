@@ -0,0 +1,343 @@
+package com.example.rompecabezasexamen;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fachada que elige el motor de resolución según el tamaño y el tiempo
+ * 
+ * Cascada:
+ * 1. Tablas exactas (2x2 y 3x3): el perímetro completo del objetivo cabe
+ *    en memoria, así que la solución óptima se lee sin buscar
+ * 2. IDA* con bases de datos de patrones (4x4), si el modelo de costo
+ *    estima que termina dentro del plazo
+ * 3. Para tableros grandes, plazos cortos o cuando la búsqueda anterior se
+ *    queda sin nodos: primero la solución jerárquica (HierarchicalSolver,
+ *    milisegundos) y con el tiempo restante A* ponderado anytime la mejora
+ * 
+ * Modelo de costo: los nodos de IDA* crecen de forma exponencial con h(n)
+ * inicial. Las constantes se ajustaron a la mediana de corpus de SolverBenchmark
+ * (4x4, PDB 5-5-5, un hilo): ~100 nodos con h = 20, ×e^0.35 por cada unidad
+ * de h, ~150 nodos/ms. La dispersión entre tableros es grande (10x o más),
+ * por eso IDA* se abandona si supera 4 veces los nodos del plazo.
+ * 
+ * Si el hilo se interrumpe, la búsqueda en curso se abandona y el resultado
+ * queda sin movimientos (ver SpeculativeSolver).
+ * 
+ * Las tablas tardan de uno a varios segundos en construirse, mucho más que
+ * el plazo de una pista, por eso solve() nunca las construye: hay que
+ * llamar a prepare() en segundo plano antes. Mientras la tabla exacta no
+ * está lista, 2x2 y 3x3 usan IDA* con distancia Manhattan dentro del plazo
+ * (y la cascada sigue si no alcanza). La solución jerárquica también
+ * respeta el plazo.
+ */
+public class SolverService {
+    
+    private static final Logger LOG = Logger.getLogger("SOLVER_SERVICE");
+    
+    public static final long DEFAULT_BUDGET_MILLIS = 2000;
+    private static final int[] EXACT_TABLE_DEPTH = {0, 0, 6, 31};   // Distancia máxima por tamaño
+    private static final int PDB_SIZE = 4;
+    private static final int PDB_BUILD_THREADS = 1;   // Hilos del BFS de las PDB (ver buildPatternHeuristic)
+    
+    // Modelo de costo de IDA* con PDB
+    private static final double NODES_AT_H20 = 100;
+    private static final double GROWTH_PER_MOVE = 0.35;
+    private static final double NODES_PER_MILLI = 150;
+    
+    private static SolverService instance;
+    
+    // Las tablas se leen sin locks (isPrepared se llama desde el hilo
+    // principal); las construcciones se serializan con sus propios locks,
+    // nunca con el monitor del servicio
+    private volatile File tableDirectory;                          // null = solo en memoria
+    private final Map<Integer, PerimeterDatabase> exactTables = new ConcurrentHashMap<>();
+    private volatile PatternDatabaseHeuristic patternHeuristic;    // Para 4x4 (null hasta prepare)
+    private final Object exactBuildLock = new Object();
+    private final Object patternBuildLock = new Object();
+    
+    // Estadísticas por motor
+    private final long[] requests = new long[SolverResult.Engine.values().length];
+    private final long[] totalMillis = new long[SolverResult.Engine.values().length];
+    
+    public static synchronized SolverService getInstance() {
+        if (instance == null) {
+            instance = new SolverService();
+        }
+        return instance;
+    }
+    
+    /**
+     * Directorio donde se guardan y se cargan las tablas precalculadas
+     */
+    public void setTableDirectory(File tableDirectory) {
+        this.tableDirectory = tableDirectory;
+    }
+    
+    /**
+     * Resuelve el tablero eligiendo el motor con la cascada
+     * 
+     * @param board Configuración del tablero
+     * @param budgetMillis Tiempo disponible en milisegundos
+     */
+    public SolverResult solve(int[][] board, long budgetMillis) {
+        long start = System.currentTimeMillis();
+        int size = board.length;
+        
+        Heuristic heuristic = size == PDB_SIZE ? getPatternHeuristic() : null;
+        int initialHeuristic = new PuzzleState(board, 0, null, null, heuristic).getHCost();
+        SolverResult.Engine engine = route(size, initialHeuristic, budgetMillis);
+        long predicted = engine == SolverResult.Engine.HEURISTIC_SEARCH && size == PDB_SIZE
+                ? predictMillis(initialHeuristic) : -1;
+        
+        SolverResult result = null;
+        if (engine == SolverResult.Engine.EXACT_TABLE) {
+            PerimeterDatabase table = getExactTable(size);
+            List<String> moves = table.pathToGoal(board);   // null = tablero sin solución
+            result = new SolverResult(moves, engine, moves != null, System.currentTimeMillis() - start,
+                    0, initialHeuristic, predicted);
+        } else if (engine == SolverResult.Engine.HEURISTIC_SEARCH) {
+            // Margen de 4x sobre la estimación antes de abandonar IDA*
+            long nodeLimit = (long) (budgetMillis * NODES_PER_MILLI * 4);
+            IDAStar ida = new IDAStar((int) Math.min(Integer.MAX_VALUE, nodeLimit), 18);
+            ida.setHeuristic(heuristic);
+            List<String> moves = ida.solvePuzzle(board);
+            if (moves != null || !new AStar().isSolvable(board)) {
+                result = new SolverResult(moves, engine, moves != null, System.currentTimeMillis() - start,
+                        ida.getNodesExpanded(), initialHeuristic, predicted);
+            } else {
+                LOG.info("IDA* superó el límite de nodos, se pasa al motor anytime");
+                engine = SolverResult.Engine.ANYTIME;
+            }
+        }
+        
+        if (result == null && Thread.currentThread().isInterrupted()) {
+            // Búsqueda cancelada: no tiene sentido seguir con la cascada
+            result = new SolverResult(null, engine, false, System.currentTimeMillis() - start,
+                    0, initialHeuristic, predicted);
+        } else if (result == null) {
+            List<String> incumbent = HierarchicalSolver.solve(board, start + budgetMillis);
+            long remaining = budgetMillis - (System.currentTimeMillis() - start);
+            List<String> moves = incumbent;
+            boolean optimal = false;
+            long expansions = 0;
+            
+            if (incumbent != null && remaining > 0) {
+                AnytimeWeightedAStar anytime = new AnytimeWeightedAStar();
+                anytime.setHeuristic(heuristic);
+                moves = anytime.solvePuzzle(board, remaining, incumbent);
+                optimal = anytime.isOptimal();
+                expansions = anytime.getExpansions();
+            }
+            
+            // Motor que dio la respuesta: el anytime solo si mejoró la solución jerárquica
+            engine = moves != null && incumbent != null && moves.size() < incumbent.size()
+                    ? SolverResult.Engine.ANYTIME : SolverResult.Engine.HIERARCHICAL;
+            result = new SolverResult(moves, engine, optimal, System.currentTimeMillis() - start,
+                    expansions, initialHeuristic, predicted);
+        }
+        
+        record(result);
+        LOG.info(String.format(Locale.ROOT, "%dx%d -> %s", size, size, result));
+        return result;
+    }
+    
+    public SolverResult solve(int[][] board) {
+        return solve(board, DEFAULT_BUDGET_MILLIS);
+    }
+    
+    /**
+     * Elige el motor para un tablero con el modelo de costo
+     */
+    public SolverResult.Engine route(int size, int initialHeuristic, long budgetMillis) {
+        if (size < EXACT_TABLE_DEPTH.length) {
+            // Sin tabla todavía: IDA* acotado por el plazo en lugar de construirla aquí
+            return isPrepared(size) ? SolverResult.Engine.EXACT_TABLE : SolverResult.Engine.HEURISTIC_SEARCH;
+        }
+        if (size == PDB_SIZE && isPrepared(size) && predictMillis(initialHeuristic) <= budgetMillis) {
+            return SolverResult.Engine.HEURISTIC_SEARCH;
+        }
+        return SolverResult.Engine.ANYTIME;
+    }
+    
+    /**
+     * Tiempo estimado de IDA* con PDB para un h(n) inicial
+     */
+    public static long predictMillis(int initialHeuristic) {
+        double nodes = NODES_AT_H20 * Math.exp(GROWTH_PER_MOVE * (initialHeuristic - 20));
+        return (long) Math.ceil(nodes / NODES_PER_MILLI);
+    }
+    
+    /**
+     * Carga o construye las tablas de un tamaño (bloqueante, usar en segundo plano)
+     * 
+     * También construye el autómata de poda de IDA* (cientos de ms la
+     * primera vez), para que no lo pague la primera pista.
+     */
+    public void prepare(int size) {
+        MovePruning.full();
+        if (size < EXACT_TABLE_DEPTH.length) {
+            getExactTable(size);
+        } else if (size == PDB_SIZE) {
+            preparePatternHeuristic();
+        }
+    }
+    
+    /**
+     * Indica si las tablas de un tamaño ya están listas (sin bloquear)
+     */
+    public boolean isPrepared(int size) {
+        if (size < EXACT_TABLE_DEPTH.length) return exactTables.containsKey(size);
+        if (size == PDB_SIZE) return patternHeuristic != null;
+        return true;   // Los tamaños grandes no usan tablas
+    }
+    
+    /**
+     * Tabla exacta de un tamaño pequeño: se carga del archivo o se construye y se guarda
+     * 
+     * La construcción del 3x3 tarda segundos en un teléfono: solo la
+     * serializa exactBuildLock, así que isPrepared y las demás llamadas
+     * del servicio no esperan.
+     */
+    private PerimeterDatabase getExactTable(int size) {
+        PerimeterDatabase table = exactTables.get(size);
+        if (table != null) return table;
+        
+        synchronized (exactBuildLock) {
+            table = exactTables.get(size);
+            if (table != null) return table;
+            table = loadOrBuildExactTable(size);
+            exactTables.put(size, table);
+            return table;
+        }
+    }
+    
+    private PerimeterDatabase loadOrBuildExactTable(int size) {
+        PerimeterDatabase table = null;
+        File directory = tableDirectory;
+        File file = directory == null ? null
+                : new File(directory, String.format(Locale.ROOT, "exact_%dx%d.prm", size, size));
+        try {
+            if (file != null && file.exists()) {
+                table = PerimeterDatabase.load(file);
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Tabla exacta inválida, se reconstruye", e);
+        }
+        
+        if (table == null) {
+            table = PerimeterDatabase.build(size, EXACT_TABLE_DEPTH[size]);
+            if (file != null) {
+                try {
+                    table.save(file);
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "No se pudo guardar la tabla exacta", e);
+                }
+            }
+        }
+        return table;
+    }
+    
+    private PatternDatabaseHeuristic getPatternHeuristic() {
+        return patternHeuristic;
+    }
+    
+    private void preparePatternHeuristic() {
+        synchronized (patternBuildLock) {
+            if (patternHeuristic == null) {
+                patternHeuristic = buildPatternHeuristic(tableDirectory);
+            }
+        }
+    }
+    
+    /**
+     * Carga o construye las PDB del 4x4 (tarda segundos: fuera del monitor del servicio)
+     * 
+     * prepare() corre en el carril de mantenimiento, que el planificador
+     * limita a pocos hilos de baja prioridad. El BFS no usa el pool común
+     * (que ocuparía todos los núcleos con prioridad normal) sino uno propio
+     * de PDB_BUILD_THREADS hilos con la prioridad del hilo que lo llama.
+     */
+    private PatternDatabaseHeuristic buildPatternHeuristic(File directory) {
+        int priority = Thread.currentThread().getPriority();
+        ForkJoinPool pool = new ForkJoinPool(PDB_BUILD_THREADS, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("pdb-builder-" + thread.getPoolIndex());
+            thread.setPriority(priority);
+            return thread;
+        }, null, false);
+        try {
+            return buildPatternHeuristic(directory, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private PatternDatabaseHeuristic buildPatternHeuristic(File directory, ForkJoinPool pool) {
+        List<PatternDatabase> databases = new ArrayList<>();
+        int[][] partition = PatternDatabaseHeuristic.STANDARD_4X4_PARTITION;
+        for (int i = 0; i < partition.length; i++) {
+            File file = directory == null ? null
+                    : new File(directory, String.format(Locale.ROOT, "pdb_%dx%d_%d.pdb", PDB_SIZE, PDB_SIZE, i));
+            PatternDatabase database = null;
+            try {
+                if (file != null && file.exists()) {
+                    database = PatternDatabase.load(file);
+                }
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "PDB inválida, se reconstruye", e);
+            }
+            
+            if (database == null) {
+                PatternDatabaseBuilder builder = new PatternDatabaseBuilder(PDB_SIZE, partition[i], pool);
+                try {
+                    database = file != null ? builder.buildToFile(file) : builder.build();
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "No se pudo guardar la PDB", e);
+                    database = builder.build();
+                }
+            }
+            databases.add(database);
+        }
+        return new PatternDatabaseHeuristic(databases, true);
+    }
+    
+    private synchronized void record(SolverResult result) {
+        int engine = result.getEngine().ordinal();
+        requests[engine]++;
+        totalMillis[engine] += result.getElapsedMillis();
+    }
+    
+    /**
+     * Resumen de las solicitudes atendidas por cada motor
+     */
+    public synchronized String getStats() {
+        StringBuilder stats = new StringBuilder();
+        for (SolverResult.Engine engine : SolverResult.Engine.values()) {
+            int i = engine.ordinal();
+            if (requests[i] == 0) continue;
+            if (stats.length() > 0) stats.append(", ");
+            stats.append(String.format(Locale.ROOT, "%s: %d (%d ms en promedio)",
+                    engine, requests[i], totalMillis[i] / requests[i]));
+        }
+        return stats.toString();
+    }
+    
+    // Getters
+    public synchronized long getRequestCount(SolverResult.Engine engine) {
+        return requests[engine.ordinal()];
+    }
+    
+    public synchronized long getTotalMillis(SolverResult.Engine engine) {
+        return totalMillis[engine.ordinal()];
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.rompecabezasexamen;
+
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Resolución especulativa del tablero recién mezclado
+ * 
+ * Funcionamiento:
+ * 1. Después de mezclar, speculate() resuelve el tablero en el carril
+ *    especulativo de SolverScheduler y guarda el resultado asociado a ese tablero
+ * 2. Si el jugador pide resolver sin haber movido, solve() devuelve el
+ *    resultado ya calculado (o espera al que está en curso)
+ * 3. En cuanto el tablero cambia, cancel() interrumpe la búsqueda: su
+ *    resultado ya no sirve para nada
+ * 
+ * Métricas: aciertos (resultado listo), aciertos en curso (hubo que
+ * esperar), fallos, cancelaciones y tiempo de CPU desperdiciado en
+ * especulaciones que no se usaron. El reloj de CPU se inyecta porque
+ * depende de la plataforma (en Android SystemClock.currentThreadTimeMillis).
+ * 
+ * Si el planificador interrumpe la especulación para atender trabajo
+ * interactivo, solve() resuelve de nuevo. Si la especulación todavía no
+ * empezó (por ejemplo esperando detrás de la construcción de una tabla en
+ * los carriles de fondo), solve() la descarta y resuelve en su propio hilo
+ * en lugar de esperarla; cuenta como fallo.
+ */
+public class SpeculativeSolver {
+    
+    private final SolverService solverService;
+    private final SolverScheduler scheduler;
+    private final LongSupplier cpuClockNanos;   // Tiempo de CPU del hilo actual
+    
+    // Especulación vigente (null = ninguna)
+    private PuzzleState speculativeBoard;
+    private Future<SolverResult> speculation;
+    private Speculation current;
+    
+    // Métricas
+    private long started;
+    private long hits;
+    private long inFlightHits;
+    private long misses;
+    private long notStarted;      // Fallos porque la especulación seguía en cola
+    private long cancelled;
+    private long usedCpuNanos;
+    private long wastedCpuNanos;
+    
+    /**
+     * Trabajo de una especulación; anota su tiempo de CPU al terminar
+     */
+    private final class Speculation implements java.util.concurrent.Callable<SolverResult> {
+        private final int[][] board;
+        private final AtomicBoolean claimed = new AtomicBoolean();   // La tomó el worker o solve(), el primero
+        private volatile long cpuNanos = -1;   // -1 = todavía corriendo
+        private boolean discarded;             // Cancelada antes de usarse (protegido por el monitor)
+        
+        Speculation(int[][] board) {
+            this.board = board;
+        }
+        
+        @Override
+        public SolverResult call() {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;   // solve() ya resolvió este tablero por su cuenta
+            }
+            long cpuStart = cpuClockNanos.getAsLong();
+            try {
+                return solverService.solve(board);
+            } finally {
+                cpuNanos = cpuClockNanos.getAsLong() - cpuStart;
+                synchronized (SpeculativeSolver.this) {
+                    if (discarded) wastedCpuNanos += cpuNanos;
+                }
+            }
+        }
+    }
+    
+    public SpeculativeSolver(SolverService solverService, SolverScheduler scheduler, LongSupplier cpuClockNanos) {
+        this.solverService = solverService;
+        this.scheduler = scheduler;
+        this.cpuClockNanos = cpuClockNanos;
+    }
+    
+    public SpeculativeSolver(SolverService solverService, SolverScheduler scheduler) {
+        this(solverService, scheduler, System::nanoTime);
+    }
+    
+    /**
+     * Empieza a resolver un tablero recién mezclado (cancela la especulación anterior)
+     */
+    public synchronized void speculate(int[][] board) {
+        cancel();
+        speculativeBoard = new PuzzleState(board, 0, null, null);
+        current = new Speculation(speculativeBoard.getBoard());
+        speculation = scheduler.submit(SolverScheduler.Lane.SPECULATIVE, current);
+        started++;
+    }
+    
+    /**
+     * El tablero cambió: la especulación vigente ya no sirve
+     */
+    public synchronized void cancel() {
+        if (speculation == null) return;
+        
+        speculation.cancel(true);
+        cancelled++;
+        discard(current);
+        speculation = null;
+        speculativeBoard = null;
+        current = null;
+    }
+    
+    /**
+     * Marca una especulación como perdida; su tiempo de CPU se suma a lo
+     * desperdiciado ahora (si ya terminó) o al terminar
+     */
+    private synchronized void discard(Speculation speculation) {
+        speculation.discarded = true;
+        if (speculation.cpuNanos >= 0) {
+            wastedCpuNanos += speculation.cpuNanos;
+        }
+    }
+    
+    /**
+     * Resuelve un tablero usando la especulación si es del mismo tablero
+     * (bloqueante: llamar fuera del hilo principal)
+     */
+    public SolverResult solve(int[][] board) {
+        Future<SolverResult> pending;
+        Speculation speculationUsed;
+        synchronized (this) {
+            if (speculation != null && speculativeBoard.equals(new PuzzleState(board, 0, null, null))) {
+                pending = speculation;
+                speculationUsed = current;
+                speculation = null;
+                speculativeBoard = null;
+                current = null;
+                if (pending.isDone()) {
+                    hits++;
+                } else if (speculationUsed.claimed.compareAndSet(false, true)) {
+                    // Sigue en cola: esperarla podría tardar segundos
+                    pending.cancel(false);
+                    misses++;
+                    notStarted++;
+                    pending = null;
+                    speculationUsed = null;
+                } else {
+                    inFlightHits++;
+                }
+            } else {
+                misses++;
+                pending = null;
+                speculationUsed = null;
+                cancel();
+            }
+        }
+        
+        if (pending != null) {
+            try {
+                SolverResult result = pending.get();
+                synchronized (this) {
+                    usedCpuNanos += Math.max(0, speculationUsed.cpuNanos);
+                }
+                if (result.isSolved() || !new AStar().isSolvable(board)) return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return solverService.solve(board);
+            } catch (ExecutionException | CancellationException e) {
+                // Falló o el planificador la interrumpió: se resuelve de nuevo abajo
+                discard(speculationUsed);
+            }
+        }
+        return solverService.solve(board);
+    }
+    
+    /**
+     * Resumen de las métricas de especulación
+     */
+    public synchronized String getStats() {
+        long requests = hits + inFlightHits + misses;
+        return String.format(Locale.ROOT,
+                "Especulaciones: %d, aciertos: %d (+%d en curso) de %d (%.0f%%), sin empezar: %d, canceladas: %d, CPU usada: %d ms, CPU desperdiciada: %d ms",
+                started, hits, inFlightHits, requests,
+                requests == 0 ? 0.0 : 100.0 * (hits + inFlightHits) / requests,
+                notStarted, cancelled, usedCpuNanos / 1_000_000, wastedCpuNanos / 1_000_000);
+    }
+    
+    // Getters
+    public synchronized long getStarted() {
+        return started;
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getInFlightHits() {
+        return inFlightHits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    public synchronized long getNotStarted() {
+        return notStarted;
+    }
+    
+    public synchronized long getCancelled() {
+        return cancelled;
+    }
+    
+    public synchronized long getWastedCpuNanos() {
+        return wastedCpuNanos;
+    }
+    
+    public synchronized long getUsedCpuNanos() {
+        return usedCpuNanos;
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.rompecabezasexamen;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conjunto cerrado que vuelca estados a disco para búsquedas muy grandes
+ * 
+ * Funcionamiento:
+ * 1. Los estados se guardan empaquetados (ver StatePacker) en una tabla
+ *    hash "caliente" en memoria con direccionamiento abierto
+ * 2. Cuando la tabla se llena, sus estados se ordenan y se escriben como un
+ *    "run" en un archivo temporal que luego se mapea en memoria (solo lectura)
+ * 3. Cada run tiene su propio filtro de Bloom; una búsqueda solo hace la
+ *    búsqueda binaria en los runs cuyo filtro dice "tal vez"
+ * 
+ * Así el tamaño del conjunto cerrado deja de estar limitado por el heap:
+ * los runs viven en archivos mapeados que el sistema pagina según necesite.
+ */
+public class SpillingClosedSet implements ClosedSet, Closeable {
+    
+    private static final int DEFAULT_HOT_CAPACITY = 1 << 20;  // Estados en la tabla caliente
+    private static final int BLOOM_BITS_PER_STATE = 10;        // ~1% de falsos positivos
+    private static final int BLOOM_HASHES = 7;
+    
+    private final File spillDir;       // Directorio de los archivos temporales
+    private final int hotCapacity;     // Estados antes de volcar a disco
+    
+    // Tabla caliente (se crea al conocer el tamaño del tablero)
+    private StatePacker packer;
+    private int words;
+    private long[] hotTable;           // Estados empaquetados, "words" longs por slot
+    private int hotSlots;              // Número de slots (potencia de 2)
+    private int hotCount;              // Slots ocupados
+    private long[] probeBuffer;        // Buffer reutilizable para empaquetar
+    
+    // Runs volcados a disco
+    private final List<SpillRun> runs = new ArrayList<>();
+    private long spilledStates;
+    private long spilledBytes;
+    
+    // Estadísticas de búsqueda
+    private long lookups;
+    private long hotHits;
+    private long bloomRejects;
+    private long runProbes;
+    private long falsePositives;
+    private long lookupNanos;
+    
+    /**
+     * Crea el conjunto en el directorio temporal del sistema
+     */
+    public SpillingClosedSet() {
+        this(new File(System.getProperty("java.io.tmpdir")), DEFAULT_HOT_CAPACITY);
+    }
+    
+    /**
+     * @param spillDir Directorio donde se crean los runs
+     * @param hotCapacity Estados que se mantienen en memoria antes de volcar
+     */
+    public SpillingClosedSet(File spillDir, int hotCapacity) {
+        if (hotCapacity <= 0) {
+            throw new IllegalArgumentException("hotCapacity debe ser positivo: " + hotCapacity);
+        }
+        this.spillDir = spillDir;
+        this.hotCapacity = hotCapacity;
+    }
+    
+    @Override
+    public boolean add(PuzzleState state) {
+        ensureInitialized(state.getSize());
+        packer.pack(state.getBoard(), probeBuffer, 0);
+        
+        if (containsPacked(probeBuffer, false)) {
+            return false;
+        }
+        
+        insertHot(probeBuffer);
+        if (hotCount >= hotCapacity) {
+            spillHotTable();
+        }
+        return true;
+    }
+    
+    @Override
+    public boolean contains(PuzzleState state) {
+        if (packer == null) return false;
+        if (state.getSize() != packer.getSize()) return false;
+        
+        long start = System.nanoTime();
+        packer.pack(state.getBoard(), probeBuffer, 0);
+        boolean found = containsPacked(probeBuffer, true);
+        lookupNanos += System.nanoTime() - start;
+        lookups++;
+        return found;
+    }
+    
+    @Override
+    public long size() {
+        return hotCount + spilledStates;
+    }
+    
+    @Override
+    public void clear() {
+        deleteRuns();
+        if (hotTable != null) {
+            Arrays.fill(hotTable, 0L);
+        }
+        hotCount = 0;
+        spilledStates = 0;
+        spilledBytes = 0;
+        lookups = hotHits = bloomRejects = runProbes = falsePositives = lookupNanos = 0;
+    }
+    
+    @Override
+    public void close() {
+        deleteRuns();
+        hotTable = null;
+        packer = null;
+    }
+    
+    /**
+     * Crea la tabla caliente cuando se conoce el tamaño del tablero
+     * 
+     * Después de clear() el conjunto se puede reutilizar con otro tamaño
+     * (AStar reutiliza su conjunto cerrado entre búsquedas); mezclar
+     * tamaños dentro de una misma búsqueda sigue siendo un error.
+     */
+    private void ensureInitialized(int boardSize) {
+        if (packer != null) {
+            if (packer.getSize() == boardSize) return;
+            if (size() > 0) {
+                throw new IllegalArgumentException("Tamaño de tablero distinto: " + boardSize);
+            }
+        }
+        
+        packer = new StatePacker(boardSize);
+        words = packer.getWords();
+        probeBuffer = new long[words];
+        
+        // Factor de carga máximo de 0.5 para mantener las sondas cortas
+        hotSlots = Integer.highestOneBit(hotCapacity * 2 - 1) << 1;
+        hotTable = new long[hotSlots * words];
+        hotCount = 0;
+    }
+    
+    /**
+     * Busca un estado empaquetado en la tabla caliente y en los runs
+     * 
+     * @param countStats Contar la búsqueda en las estadísticas (solo las
+     *                   de contains(): las de add() no suman a lookups)
+     */
+    private boolean containsPacked(long[] packed, boolean countStats) {
+        if (findHotSlot(packed) >= 0) {
+            if (countStats) hotHits++;
+            return true;
+        }
+        
+        long h1 = hashRecord(packed, words, 0x9E3779B97F4A7C15L);
+        long h2 = hashRecord(packed, words, 0xC2B2AE3D27D4EB4FL) | 1L;
+        
+        // Los runs más recientes primero: son los más probables de contener vecinos
+        for (int r = runs.size() - 1; r >= 0; r--) {
+            SpillRun run = runs.get(r);
+            if (!run.bloomMightContain(h1, h2)) {
+                if (countStats) bloomRejects++;
+                continue;
+            }
+            if (countStats) runProbes++;
+            if (run.binarySearch(packed, words)) {
+                return true;
+            }
+            if (countStats) falsePositives++;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Devuelve el slot que contiene el estado o -1 si no está
+     */
+    private int findHotSlot(long[] packed) {
+        int mask = hotSlots - 1;
+        int slot = (int) hashRecord(packed, words, 0x9E3779B97F4A7C15L) & mask;
+        
+        while (!isEmptySlot(slot)) {
+            if (StatePacker.compare(hotTable, slot * words, packed, 0, words) == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private void insertHot(long[] packed) {
+        int mask = hotSlots - 1;
+        int slot = (int) hashRecord(packed, words, 0x9E3779B97F4A7C15L) & mask;
+        
+        while (!isEmptySlot(slot)) {
+            slot = (slot + 1) & mask;
+        }
+        System.arraycopy(packed, 0, hotTable, slot * words, words);
+        hotCount++;
+    }
+    
+    /**
+     * Un slot vacío tiene todas sus palabras en cero (ningún tablero válido se empaqueta así)
+     */
+    private boolean isEmptySlot(int slot) {
+        int base = slot * words;
+        for (int w = 0; w < words; w++) {
+            if (hotTable[base + w] != 0L) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Ordena la tabla caliente y la escribe como un nuevo run en disco
+     */
+    private void spillHotTable() {
+        long[][] records = new long[hotCount][];
+        int n = 0;
+        for (int slot = 0; slot < hotSlots; slot++) {
+            if (!isEmptySlot(slot)) {
+                long[] record = new long[words];
+                System.arraycopy(hotTable, slot * words, record, 0, words);
+                records[n++] = record;
+            }
+        }
+        Arrays.sort(records, (a, b) -> StatePacker.compare(a, 0, b, 0, words));
+        
+        try {
+            runs.add(SpillRun.write(spillDir, records, words));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo volcar el conjunto cerrado a disco", e);
+        }
+        
+        spilledStates += records.length;
+        spilledBytes += (long) records.length * words * Long.BYTES;
+        
+        Arrays.fill(hotTable, 0L);
+        hotCount = 0;
+    }
+    
+    private void deleteRuns() {
+        for (SpillRun run : runs) {
+            run.delete();
+        }
+        runs.clear();
+    }
+    
+    /**
+     * Obtiene información sobre el volcado a disco y el costo de las búsquedas
+     */
+    public String getStats() {
+        double avgProbes = lookups == 0 ? 0 : (double) runProbes / lookups;
+        double avgNanos = lookups == 0 ? 0 : (double) lookupNanos / lookups;
+        return String.format(java.util.Locale.ROOT,
+                "Estados: %d (memoria: %d, disco: %d), Runs: %d, Volcado: %.1f MB, " +
+                "Búsquedas: %d, Aciertos en memoria: %d, Rechazos Bloom: %d, " +
+                "Sondas a runs: %.3f/búsqueda, Falsos positivos: %d, Costo: %.0f ns/búsqueda",
+                size(), hotCount, spilledStates, runs.size(), spilledBytes / (1024.0 * 1024.0),
+                lookups, hotHits, bloomRejects, avgProbes, falsePositives, avgNanos);
+    }
+    
+    // Getters para estadísticas
+    public int getRunCount() {
+        return runs.size();
+    }
+    
+    public long getSpilledStates() {
+        return spilledStates;
+    }
+    
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+    
+    public long getLookups() {
+        return lookups;
+    }
+    
+    public long getRunProbes() {
+        return runProbes;
+    }
+    
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+    
+    /**
+     * Run ordenado de estados empaquetados en un archivo mapeado en memoria
+     */
+    private static final class SpillRun {
+        private final File file;
+        private final LongBuffer data;    // Registros ordenados, mapeados solo lectura
+        private final int count;          // Número de estados del run
+        private final long[] bloomBits;   // Filtro de Bloom del run
+        private final int bloomBitCount;
+        private final long[] probe;       // Buffer para leer un registro
+        
+        private SpillRun(File file, LongBuffer data, int count, long[] bloomBits, int bloomBitCount, int words) {
+            this.file = file;
+            this.data = data;
+            this.count = count;
+            this.bloomBits = bloomBits;
+            this.bloomBitCount = bloomBitCount;
+            this.probe = new long[words];
+        }
+        
+        static SpillRun write(File dir, long[][] records, int words) throws IOException {
+            File file = File.createTempFile("closed_run_", ".bin", dir);
+            file.deleteOnExit();
+            
+            long bytes = (long) records.length * words * Long.BYTES;
+            int bloomBitCount = Math.max(64, records.length * BLOOM_BITS_PER_STATE);
+            long[] bloomBits = new long[(bloomBitCount + 63) / 64];
+            
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.nativeOrder());
+                for (long[] record : records) {
+                    for (int w = 0; w < words; w++) {
+                        if (buffer.remaining() < Long.BYTES) {
+                            buffer.flip();
+                            while (buffer.hasRemaining()) channel.write(buffer);
+                            buffer.clear();
+                        }
+                        buffer.putLong(record[w]);
+                    }
+                    
+                    long h1 = hashRecord(record, words, 0x9E3779B97F4A7C15L);
+                    long h2 = hashRecord(record, words, 0xC2B2AE3D27D4EB4FL) | 1L;
+                    for (int k = 0; k < BLOOM_HASHES; k++) {
+                        int bit = (int) Long.remainderUnsigned(h1 + k * h2, bloomBitCount);
+                        bloomBits[bit >>> 6] |= 1L << bit;
+                    }
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+                
+                // El mapeo sigue siendo válido después de cerrar el canal
+                LongBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes)
+                        .order(ByteOrder.nativeOrder())
+                        .asLongBuffer();
+                return new SpillRun(file, mapped, records.length, bloomBits, bloomBitCount, words);
+            }
+        }
+        
+        boolean bloomMightContain(long h1, long h2) {
+            for (int k = 0; k < BLOOM_HASHES; k++) {
+                int bit = (int) Long.remainderUnsigned(h1 + k * h2, bloomBitCount);
+                if ((bloomBits[bit >>> 6] & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+        
+        boolean binarySearch(long[] packed, int words) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                for (int w = 0; w < words; w++) {
+                    probe[w] = data.get(mid * words + w);
+                }
+                int cmp = StatePacker.compare(probe, 0, packed, 0, words);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        void delete() {
+            file.delete();
+        }
+    }
+    
+    /**
+     * Hash de 64 bits de un estado empaquetado (mezcla tipo splitmix)
+     */
+    private static long hashRecord(long[] packed, int words, long seed) {
+        long h = seed;
+        for (int w = 0; w < words; w++) {
+            h ^= packed[w];
+            h *= 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        h *= 0x94D049BB133111EBL;
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.rompecabezasexamen;
+
+/**
+ * Empaqueta tableros en arreglos de longs de tamaño fijo
+ * 
+ * Cada celda usa los bits mínimos necesarios para representar el valor
+ * más grande del tablero (4 bits en 4x4, 5 bits en 5x5). Las celdas no
+ * se parten entre longs: un 4x4 cabe en un solo long (16 celdas) y un 5x5
+ * usa tres (12 celdas por long). El orden de las celdas es por filas,
+ * igual que en el tablero.
+ */
+public class StatePacker {
+    
+    private final int size;           // Tamaño del tablero (n x n)
+    private final int bitsPerCell;    // Bits usados por cada celda
+    private final int cellsPerWord;   // Celdas que caben en un long
+    private final int words;          // Longs necesarios por estado
+    private final long cellMask;      // Máscara de una celda
+    
+    public StatePacker(int size) {
+        int cells = size * size;
+        this.size = size;
+        this.bitsPerCell = Math.max(1, 32 - Integer.numberOfLeadingZeros(cells - 1));
+        this.cellsPerWord = 64 / bitsPerCell;
+        this.words = (cells + cellsPerWord - 1) / cellsPerWord;
+        this.cellMask = (1L << bitsPerCell) - 1;
+    }
+    
+    /**
+     * Empaqueta un tablero en un arreglo nuevo
+     */
+    public long[] pack(int[][] board) {
+        long[] packed = new long[words];
+        pack(board, packed, 0);
+        return packed;
+    }
+    
+    /**
+     * Empaqueta un tablero en el arreglo destino a partir de offset
+     */
+    public void pack(int[][] board, long[] dest, int offset) {
+        for (int w = 0; w < words; w++) {
+            dest[offset + w] = 0L;
+        }
+        
+        int cell = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int word = cell / cellsPerWord;
+                int shift = (cell % cellsPerWord) * bitsPerCell;
+                dest[offset + word] |= ((long) board[i][j] & cellMask) << shift;
+                cell++;
+            }
+        }
+    }
+    
+    /**
+     * Reconstruye el tablero a partir de su forma empaquetada
+     */
+    public int[][] unpack(long[] packed, int offset) {
+        int[][] board = new int[size][size];
+        
+        int cell = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int word = cell / cellsPerWord;
+                int shift = (cell % cellsPerWord) * bitsPerCell;
+                board[i][j] = (int) ((packed[offset + word] >>> shift) & cellMask);
+                cell++;
+            }
+        }
+        
+        return board;
+    }
+    
+    /**
+     * Compara dos estados empaquetados palabra por palabra (orden de los runs ordenados)
+     */
+    public static int compare(long[] a, int aOffset, long[] b, int bOffset, int words) {
+        for (int w = 0; w < words; w++) {
+            int cmp = Long.compare(a[aOffset + w], b[bOffset + w]);
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public int getWords() {
+        return words;
+    }
+    
+    public int getBitsPerCell() {
+        return bitsPerCell;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.rompecabezasexamen;
+
+/**
+ * Tabla de transposición de tamaño fijo para búsquedas en profundidad
+ * 
+ * Guarda, por hash de 64 bits del estado, la mejor cota inferior conocida
+ * de los movimientos que faltan para resolverlo. Es "con pérdida": cada
+ * hash cae en un solo slot y, si hay colisión, se conserva la entrada
+ * obtenida con la búsqueda más profunda (reemplazo por profundidad).
+ * 
+ * Todo vive en arreglos primitivos para no crear objetos por entrada.
+ */
+public class TranspositionTable {
+    
+    private static final long EMPTY = 0L;
+    
+    private final long[] keys;      // Hash completo del estado (0 = slot vacío)
+    private final byte[] bounds;    // Cota inferior de movimientos restantes
+    private final byte[] depths;    // Profundidad de la búsqueda que produjo la cota
+    private final int mask;
+    
+    // Estadísticas
+    private long probes;
+    private long hits;
+    private long stores;
+    private long replacements;
+    
+    /**
+     * @param capacityLog2 La tabla tendrá 2^capacityLog2 entradas
+     */
+    public TranspositionTable(int capacityLog2) {
+        int capacity = 1 << capacityLog2;
+        this.keys = new long[capacity];
+        this.bounds = new byte[capacity];
+        this.depths = new byte[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    /**
+     * Devuelve la cota guardada para el hash o -1 si no hay entrada
+     */
+    public int probe(long hash) {
+        probes++;
+        long key = normalize(hash);
+        int slot = (int) key & mask;
+        if (keys[slot] == key) {
+            hits++;
+            return bounds[slot];
+        }
+        return -1;
+    }
+    
+    /**
+     * Guarda una cota si el slot está libre, es del mismo estado o la nueva
+     * búsqueda fue al menos igual de profunda que la guardada
+     */
+    public void store(long hash, int bound, int depth) {
+        long key = normalize(hash);
+        int slot = (int) key & mask;
+        byte clampedBound = (byte) Math.min(bound, Byte.MAX_VALUE);
+        byte clampedDepth = (byte) Math.min(depth, Byte.MAX_VALUE);
+        
+        if (keys[slot] == key) {
+            // Mismo estado: solo mejorar la cota
+            if (clampedBound > bounds[slot]) bounds[slot] = clampedBound;
+            if (clampedDepth > depths[slot]) depths[slot] = clampedDepth;
+            stores++;
+        } else if (keys[slot] == EMPTY || clampedDepth >= depths[slot]) {
+            if (keys[slot] != EMPTY) replacements++;
+            keys[slot] = key;
+            bounds[slot] = clampedBound;
+            depths[slot] = clampedDepth;
+            stores++;
+        }
+    }
+    
+    public void clear() {
+        java.util.Arrays.fill(keys, EMPTY);
+        probes = hits = stores = replacements = 0;
+    }
+    
+    /**
+     * El hash 0 se reserva para slots vacíos
+     */
+    private static long normalize(long hash) {
+        return hash == EMPTY ? 1L : hash;
+    }
+    
+    public int getCapacity() {
+        return keys.length;
+    }
+    
+    public long getProbes() {
+        return probes;
+    }
+    
+    public long getHits() {
+        return hits;
+    }
+    
+    public long getStores() {
+        return stores;
+    }
+    
+    public long getReplacements() {
+        return replacements;
+    }
+}
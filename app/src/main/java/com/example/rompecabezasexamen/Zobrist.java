@@ -0,0 +1,73 @@
+package com.example.rompecabezasexamen;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tablas de hashing Zobrist para tableros del puzzle
+ * 
+ * Cada par (pieza, celda) tiene un número aleatorio de 64 bits y el hash
+ * de un tablero es el XOR de los números de cada pieza en su celda. El
+ * espacio vacío no se incluye porque su posición queda determinada por
+ * las demás piezas.
+ * 
+ * Al mover una pieza de "from" a "to" el hash se actualiza con dos XOR:
+ *   hash ^ table[pieza][from] ^ table[pieza][to]
+ */
+public final class Zobrist {
+    
+    private static final long SEED = 0x5EED_2B0B_15F0_0DL;
+    private static final int MAX_CACHED_SIZE = 16;
+    private static final AtomicReferenceArray<long[][]> CACHE = new AtomicReferenceArray<>(MAX_CACHED_SIZE + 1);
+    
+    private Zobrist() {
+    }
+    
+    /**
+     * Tabla [pieza][celda] para un tablero de n x n (se crea una sola vez por tamaño)
+     * 
+     * Sin locks: se llama por cada hijo generado, también desde los hilos
+     * de ParallelIDAStar. Si dos hilos crean la misma tabla a la vez ambas
+     * son iguales (misma semilla) y se queda la primera publicada.
+     */
+    public static long[][] forSize(int size) {
+        if (size <= MAX_CACHED_SIZE) {
+            long[][] cached = CACHE.get(size);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        int cells = size * size;
+        Random random = new Random(SEED + size);
+        long[][] table = new long[cells][cells];
+        for (int tile = 1; tile < cells; tile++) {
+            for (int cell = 0; cell < cells; cell++) {
+                table[tile][cell] = random.nextLong();
+            }
+        }
+        
+        if (size <= MAX_CACHED_SIZE && !CACHE.compareAndSet(size, null, table)) {
+            return CACHE.get(size);
+        }
+        return table;
+    }
+    
+    /**
+     * Hash completo de un tablero
+     */
+    public static long hash(int[][] board) {
+        int size = board.length;
+        long[][] table = forSize(size);
+        long h = 0L;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int value = board[i][j];
+                if (value != 0) {
+                    h ^= table[value][i * size + j];
+                }
+            }
+        }
+        return h;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de DecodePlan: región central, muestreo y pico de memoria al
+ * preparar el puzzle con fotos de cámara habituales
+ */
+public class DecodePlanTest {
+    
+    private static final int TARGET = 1080;
+    
+    // Tamaños de foto habituales: 12 MP, 50 MP (4:3), 48 MP vertical y panorámica
+    private static final int[][] CAMERA_SIZES = {
+            {4000, 3000}, {8160, 6120}, {6000, 8000}, {12000, 3000}
+    };
+    
+    @Test
+    public void regionIsCenteredSquare() {
+        DecodePlan plan = DecodePlan.centerSquare(4000, 3000, TARGET, false);
+        
+        assertEquals(500, plan.getRegionLeft());
+        assertEquals(0, plan.getRegionTop());
+        assertEquals(3000, plan.getRegionSide());
+        assertEquals(2, plan.getSampleSize());
+        assertEquals(1500, plan.getDecodedSide());
+        assertEquals(TARGET, plan.getOutputSide());
+        assertTrue(plan.isCopyNeeded());
+    }
+    
+    @Test
+    public void sampleSizeNeverDropsBelowTarget() {
+        for (int[] size : CAMERA_SIZES) {
+            DecodePlan plan = DecodePlan.centerSquare(size[0], size[1], TARGET, false);
+            int sample = plan.getSampleSize();
+            
+            assertEquals("potencia de 2", 0, sample & (sample - 1));
+            assertTrue(plan.getDecodedSide() >= TARGET);
+            assertTrue("el doble de muestreo también alcanzaba",
+                    plan.getRegionSide() / (sample * 2) < TARGET);
+        }
+    }
+    
+    @Test
+    public void smallImageIsDecodedOnceWithoutScaling() {
+        DecodePlan plan = DecodePlan.centerSquare(640, 480, TARGET, false);
+        
+        assertEquals(1, plan.getSampleSize());
+        assertEquals(480, plan.getOutputSide());
+        assertFalse(plan.isCopyNeeded());
+        assertEquals(480L * 480 * 4, plan.getPeakBytes());
+        
+        // Una rotación EXIF obliga a una copia aunque no haya que escalar
+        assertTrue(DecodePlan.centerSquare(640, 480, TARGET, true).isCopyNeeded());
+    }
+    
+    /**
+     * Regresión del pico de memoria: menos de 5 veces la salida y al menos
+     * 5 veces menos que decodificar la foto completa
+     */
+    @Test
+    public void peakBytesStayBounded() {
+        for (int[] size : CAMERA_SIZES) {
+            DecodePlan plan = DecodePlan.centerSquare(size[0], size[1], TARGET, true);
+            long full = DecodePlan.fullDecodePeakBytes(size[0], size[1], TARGET);
+            
+            assertTrue(plan + " supera 5 veces la salida",
+                    plan.getPeakBytes() < 5 * plan.getOutputBytes());
+            assertTrue(plan + " frente a " + full / 1024 + " KB",
+                    plan.getPeakBytes() * 5 <= full);
+        }
+        
+        // Imagen del tamaño de la pantalla: la ganancia es menor pero existe
+        DecodePlan screen = DecodePlan.centerSquare(1920, 1080, TARGET, true);
+        assertTrue(screen.getPeakBytes() < DecodePlan.fullDecodePeakBytes(1920, 1080, TARGET));
+        
+        // 50 MP: unos 14 MB en lugar de unos 350 MB
+        DecodePlan plan = DecodePlan.centerSquare(8160, 6120, TARGET, false);
+        assertEquals(1530L * 1530 * 4 + TARGET * TARGET * 4L, plan.getPeakBytes());
+    }
+    
+    @Test
+    public void rejectsEmptyImage() {
+        try {
+            DecodePlan.centerSquare(0, 3000, TARGET, false);
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // Esperado
+        }
+    }
+}
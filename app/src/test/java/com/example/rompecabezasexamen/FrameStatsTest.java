@@ -0,0 +1,73 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de FrameStats: percentiles del histograma, conteo de jank y
+ * formato del resumen que se guarda con cada récord
+ */
+public class FrameStatsTest {
+    
+    private static final long MILLIS = 1_000_000L;
+    private static final long DEADLINE = 16_666_667L;   // 60 Hz
+    
+    @Test
+    public void percentilesWithinOneBucket() {
+        FrameStats stats = new FrameStats();
+        for (int i = 1; i <= 100; i++) {
+            stats.recordFrame(i * MILLIS, DEADLINE);
+        }
+        
+        assertEquals(100, stats.getFrameCount());
+        assertEquals(50.0, stats.getFramePercentileMillis(0.50), 0.25);
+        assertEquals(90.0, stats.getFramePercentileMillis(0.90), 0.25);
+        assertEquals(99.0, stats.getFramePercentileMillis(0.99), 0.25);
+        assertEquals(100.0, stats.getFramePercentileMillis(1.0), 1e-9);
+    }
+    
+    @Test
+    public void repeatedValueIsReportedExactly() {
+        FrameStats stats = new FrameStats();
+        for (int i = 0; i < 60; i++) {
+            stats.recordFrame(8_300_000L, DEADLINE);
+            stats.recordDraw(400_000L);
+        }
+        
+        assertEquals(8.3, stats.getFramePercentileMillis(0.50), 1e-9);
+        assertEquals(8.3, stats.getFramePercentileMillis(0.99), 1e-9);
+        assertEquals(0.4, stats.getDrawPercentileMillis(0.95), 1e-9);
+        assertEquals(0, stats.getJankCount());
+    }
+    
+    @Test
+    public void framesOverDeadlineCountAsJank() {
+        FrameStats stats = new FrameStats();
+        stats.recordFrame(10 * MILLIS, DEADLINE);
+        stats.recordFrame(17 * MILLIS, DEADLINE);
+        stats.recordFrame(250 * MILLIS, DEADLINE);
+        stats.recordFrame(40 * MILLIS, 0);
+        
+        assertEquals(2, stats.getJankCount());
+        assertEquals(250.0, stats.getFramePercentileMillis(1.0), 1e-9);
+        assertEquals(40.0, stats.getLastFrameMillis(), 1e-9);
+    }
+    
+    @Test
+    public void summaryAndReset() {
+        FrameStats stats = new FrameStats();
+        assertEquals("frames=0;jank=0;p50=0.00;p90=0.00;p95=0.00;p99=0.00;max=0.00;"
+                + "draw_p50=0.00;draw_p95=0.00;draw_p99=0.00", stats.toSummary());
+        
+        stats.recordFrame(20 * MILLIS, DEADLINE);
+        stats.recordDraw(MILLIS);
+        assertEquals("frames=1;jank=1;p50=20.00;p90=20.00;p95=20.00;p99=20.00;max=20.00;"
+                + "draw_p50=1.00;draw_p95=1.00;draw_p99=1.00", stats.toSummary());
+        
+        stats.reset();
+        assertEquals(0, stats.getFrameCount());
+        assertEquals(0, stats.getDrawCount());
+        assertEquals(0.0, stats.getFramePercentileMillis(0.5), 0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de HintService: caché de las pistas a lo largo del camino
+ */
+public class HintServiceTest {
+    
+    /**
+     * Servicio que devuelve siempre el mismo camino (no óptimo)
+     */
+    private static final class FixedSolverService extends SolverService {
+        private final List<String> moves;
+        int calls;
+        
+        FixedSolverService(List<String> moves) {
+            this.moves = moves;
+        }
+        
+        @Override
+        public SolverResult solve(int[][] board, long budgetMillis) {
+            calls++;
+            return new SolverResult(new ArrayList<>(moves), SolverResult.Engine.HIERARCHICAL, false,
+                    0, 0, 0, -1);
+        }
+    }
+    
+    @Test
+    public void pathWithInverseMoveIsCachedToTheEnd() {
+        // El vacío va a la izquierda, vuelve y termina: deshace su propio movimiento
+        int[][] board = {{1, 2, 3}, {4, 5, 6}, {7, 0, 8}};
+        List<String> moves = List.of("IZQUIERDA", "DERECHA", "DERECHA");
+        assertTrue(SolverTestUtils.solves(board, moves));
+        
+        FixedSolverService solver = new FixedSolverService(moves);
+        HintService hints = new HintService(solver);
+        
+        HintService.Hint first = hints.getHint(board);
+        assertEquals("IZQUIERDA", first.getMove());
+        assertEquals(3, first.getDistance());
+        assertFalse(first.isExact());
+        
+        // Dos estados distintos: el tercero repite el inicial
+        assertEquals(2, hints.getCacheSize());
+        HintService.Hint next = hints.getHint(new int[][]{{1, 2, 3}, {4, 5, 6}, {0, 7, 8}});
+        assertTrue(next.isCached());
+        assertEquals("DERECHA", next.getMove());
+        assertEquals(1, solver.calls);
+    }
+}
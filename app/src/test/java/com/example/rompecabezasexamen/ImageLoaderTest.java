@@ -0,0 +1,105 @@
+package com.example.rompecabezasexamen;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ImageDecoder;
+import android.graphics.Paint;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de ImageLoader: se decodifica solo el cuadrado central, al
+ * tamaño pedido, sin crear nunca la imagen completa
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ImageLoaderTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    /**
+     * JPEG apaisado: mitad izquierda roja, franja central verde, resto azul
+     */
+    private static ByteBuffer encodeJpeg(int width, int height) {
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint();
+        canvas.drawColor(Color.BLUE);
+        paint.setColor(Color.RED);
+        canvas.drawRect(0, 0, (width - height) / 2f, height, paint);
+        paint.setColor(Color.GREEN);
+        canvas.drawRect(width / 2f - 10, 0, width / 2f + 10, height, paint);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, 90, out);
+        bitmap.recycle();
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+    
+    @Test
+    public void decodesCenterSquareAtTargetSize() throws Exception {
+        ImageLoader.Result result = ImageLoader.decodeSquare(
+                ImageDecoder.createSource(encodeJpeg(4000, 3000)), 1080);
+        Bitmap bitmap = result.getBitmap();
+        
+        assertEquals(1080, bitmap.getWidth());
+        assertEquals(1080, bitmap.getHeight());
+        assertEquals(4000, result.getSourceWidth());
+        assertEquals(3000, result.getSourceHeight());
+        assertNotEquals(Bitmap.Config.HARDWARE, bitmap.getConfig());
+        
+        // El recorte empieza donde termina la franja roja y está centrado en la verde
+        assertTrue(Color.blue(bitmap.getPixel(20, 540)) > 200);
+        assertTrue(Color.green(bitmap.getPixel(540, 540)) > 200);
+        
+        // Pico: solo el cuadrado de salida, no los 48 MB de la imagen completa
+        assertEquals(1080L * 1080 * 4, result.getPeakBytes());
+        assertEquals(4000L * 3000 * 4, result.getFullDecodeBytes());
+    }
+    
+    @Test
+    public void fileDecodesOnlyTheCenterRegion() throws Exception {
+        File photo = folder.newFile("foto.jpg");
+        ByteBuffer jpeg = encodeJpeg(4000, 3000);
+        try (FileOutputStream out = new FileOutputStream(photo)) {
+            out.write(jpeg.array());
+        }
+        
+        ImageLoader.Result result = ImageLoader.decodeSquare(photo, 1080);
+        Bitmap bitmap = result.getBitmap();
+        DecodePlan plan = DecodePlan.centerSquare(4000, 3000, 1080, false);
+        
+        assertEquals(1080, bitmap.getWidth());
+        assertEquals(1080, bitmap.getHeight());
+        assertTrue(Color.blue(bitmap.getPixel(20, 540)) > 200);
+        assertTrue(Color.green(bitmap.getPixel(540, 540)) > 200);
+        
+        // Región 3000x3000 a 1/2 (1500x1500) más la salida: lo que predice el plan
+        assertEquals(plan.getPeakBytes(), result.getPeakBytes());
+    }
+    
+    @Test
+    public void smallImagesAreNotUpscaled() throws Exception {
+        ImageLoader.Result result = ImageLoader.decodeSquare(
+                ImageDecoder.createSource(encodeJpeg(640, 480)), 1080);
+        
+        assertEquals(480, result.getBitmap().getWidth());
+        assertEquals(480, result.getBitmap().getHeight());
+    }
+}
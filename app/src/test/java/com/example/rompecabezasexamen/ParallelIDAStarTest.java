@@ -0,0 +1,89 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de ParallelIDAStar: soluciones óptimas, búsquedas simultáneas
+ * sobre la misma instancia e interrupción del hilo que llama
+ */
+public class ParallelIDAStarTest {
+    
+    @Test
+    public void matchesSerialIdaStarLength() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelIDAStar parallel = new ParallelIDAStar(pool, 50_000_000);
+            IDAStar serial = new IDAStar();
+            for (int[][] board : SolverBenchmark.createCorpus(3, 20, 60, 7L)) {
+                List<String> expected = serial.solvePuzzle(board);
+                List<String> actual = parallel.solvePuzzle(board);
+                
+                assertNotNull(actual);
+                assertEquals(expected.size(), actual.size());
+                assertTrue(SolverTestUtils.solves(board, actual));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void concurrentSearchesOnOneInstance() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            ParallelIDAStar parallel = new ParallelIDAStar(pool, 50_000_000);
+            List<int[][]> corpus = SolverBenchmark.createCorpus(3, 12, 80, 11L);
+            
+            Future<?>[] futures = new Future<?>[corpus.size()];
+            for (int i = 0; i < corpus.size(); i++) {
+                int[][] board = corpus.get(i);
+                futures[i] = callers.submit(() -> {
+                    List<String> solution = parallel.solvePuzzle(board);
+                    assertNotNull(solution);
+                    assertEquals(new IDAStar().solvePuzzle(board).size(), solution.size());
+                    assertTrue(SolverTestUtils.solves(board, solution));
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            callers.shutdown();
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void interruptingCallerAbandonsSearch() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            // Con Manhattan un 4x4 tan mezclado tarda mucho más que la espera
+            ParallelIDAStar parallel = new ParallelIDAStar(pool, Integer.MAX_VALUE);
+            int[][] board = SolverBenchmark.createCorpus(4, 1, 400, 5L).get(0);
+            
+            Future<List<String>> result = caller.submit(() -> parallel.solvePuzzle(board));
+            Thread.sleep(100);
+            result.cancel(true);
+            
+            caller.shutdown();
+            assertTrue(caller.awaitTermination(5, TimeUnit.SECONDS));
+            assertFalse(parallel.isSolutionFound());
+            assertTrue(parallel.getNodesExpanded() > 0);
+        } finally {
+            caller.shutdownNow();
+            pool.shutdown();
+        }
+    }
+}
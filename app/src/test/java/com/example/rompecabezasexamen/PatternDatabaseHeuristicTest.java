@@ -0,0 +1,62 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de PatternDatabaseHeuristic compartida entre hilos
+ */
+public class PatternDatabaseHeuristicTest {
+    
+    private static final int[][] PARTITION_3X3 = {{1, 2, 3, 4}, {5, 6, 7, 8}};
+    
+    @Test
+    public void withReflectionSharesTablesAndTakesMaximum() {
+        PatternDatabaseHeuristic direct = PatternDatabaseHeuristic.build(3, PARTITION_3X3, false);
+        PatternDatabaseHeuristic reflected = direct.withReflection(true);
+        
+        assertSame(direct, direct.withReflection(false));
+        assertFalse(direct.isUseReflection());
+        assertTrue(reflected.isUseReflection());
+        for (int[][] board : SolverBenchmark.createCorpus(3, 200, 60, 13L)) {
+            int h = direct.estimate(board);
+            int hReflected = direct.estimate(PuzzleState.reflectBoard(board));
+            assertEquals(Math.max(h, hReflected), reflected.estimate(board));
+        }
+    }
+    
+    @Test
+    public void concurrentLookupsAreAllCounted() throws Exception {
+        PatternDatabaseHeuristic heuristic = PatternDatabaseHeuristic.build(3, PARTITION_3X3, true);
+        List<int[][]> boards = SolverBenchmark.createCorpus(3, 500, 60, 17L);
+        int threads = 4;
+        int rounds = 20;
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(() -> {
+                    for (int r = 0; r < rounds; r++) {
+                        for (int[][] board : boards) {
+                            heuristic.estimate(board);
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        assertEquals((long) threads * rounds * boards.size(), heuristic.getLookups());
+    }
+}
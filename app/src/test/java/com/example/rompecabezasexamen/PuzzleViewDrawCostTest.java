@@ -0,0 +1,96 @@
+package com.example.rompecabezasexamen;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.util.Log;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.shadows.ShadowLog;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Costo de PuzzleView.onDraw según el tamaño del tablero (3x3 a 10x10),
+ * sin dispositivo
+ * 
+ * Usa los gráficos nativos de Robolectric: cada frame se dibuja de verdad
+ * (con Skia, por software) en un bitmap del tamaño de una pantalla. Los
+ * tiempos se escriben con la etiqueta PUZZLE_BENCH (en la salida de la
+ * prueba) y se comprueba algo que no depende del equipo: el 10x10 no cuesta
+ * más que el 3x3 multiplicado por la proporción de piezas.
+ * 
+ * El presupuesto absoluto de 16 ms por frame solo se exige con
+ * -Ppuzzle.drawBudget=true (en una máquina lenta fallaría sin motivo). En un
+ * dispositivo real se mide con PuzzleViewDrawBenchmark (androidTest).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class PuzzleViewDrawCostTest {
+    
+    private static final String TAG = "PUZZLE_BENCH";
+    private static final int VIEW_SIZE = 1080;
+    private static final int WARMUP_FRAMES = 50;
+    private static final int MEASURED_FRAMES = 200;
+    private static final double FRAME_BUDGET_MILLIS = 16.0;
+    private static final double MAX_COST_RATIO = 100.0 / 9;   // Piezas del 10x10 respecto al 3x3
+    private static final boolean ENFORCE_BUDGET = Boolean.getBoolean("puzzle.drawBudget");
+    
+    @Before
+    public void setUp() {
+        ShadowLog.stream = System.out;
+    }
+    
+    @Test
+    public void drawCostGrowsAtMostWithTileCount() {
+        for (boolean numbers : new boolean[]{false, true}) {
+            double[] millis = new double[11];
+            for (int size = 3; size <= 10; size++) {
+                millis[size] = measureDrawMillis(size, numbers);
+                Log.i(TAG, String.format(Locale.ROOT, "%s %dx%d: %.3f ms/frame",
+                        numbers ? "números" : "imagen", size, size, millis[size]));
+                if (ENFORCE_BUDGET) {
+                    assertTrue(size + "x" + size + " tarda " + millis[size] + " ms por frame",
+                            millis[size] < FRAME_BUDGET_MILLIS);
+                }
+            }
+            
+            assertTrue(String.format(Locale.ROOT, "10x10 (%.3f ms) más de %.1f veces el 3x3 (%.3f ms)",
+                    millis[10], MAX_COST_RATIO, millis[3]),
+                    millis[10] <= MAX_COST_RATIO * millis[3]);
+        }
+    }
+    
+    /**
+     * Tiempo medio de onDraw con todas las piezas visibles
+     */
+    private static double measureDrawMillis(int size, boolean numbers) {
+        Bitmap image = numbers ? null : Bitmap.createBitmap(1024, 768, Bitmap.Config.ARGB_8888);
+        PuzzleView view = new PuzzleView(RuntimeEnvironment.getApplication());
+        view.setPuzzle(image, size);
+        view.layout(0, 0, VIEW_SIZE, VIEW_SIZE);
+        view.showHint(size - 1, size - 2);
+        
+        Bitmap target = Bitmap.createBitmap(VIEW_SIZE, VIEW_SIZE, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            view.onDraw(canvas);
+        }
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            view.onDraw(canvas);
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / MEASURED_FRAMES;
+        assertEquals(size * size, view.getLastFrameTileCount());
+        return millis;
+    }
+}
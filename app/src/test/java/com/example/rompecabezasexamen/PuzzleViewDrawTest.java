@@ -0,0 +1,163 @@
+package com.example.rompecabezasexamen;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de PuzzleView: una vez preparado el puzzle, onDraw no reserva
+ * memoria (se cuentan los bytes reservados por el hilo durante muchos
+ * frames) y todas las piezas salen de un único atlas
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PuzzleViewDrawTest {
+    
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 1000;
+    
+    /**
+     * Canvas que no dibuja: así solo se mide lo que reserva PuzzleView
+     */
+    private static class NoOpCanvas extends Canvas {
+        int drawCalls;
+        RectF clip;   // Recorte simulado (null = todo)
+        
+        @Override
+        public boolean quickReject(float left, float top, float right, float bottom) {
+            return clip != null && !clip.intersects(left, top, right, bottom);
+        }
+        
+        @Override
+        public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+            drawCalls++;
+        }
+        
+        @Override
+        public void drawText(String text, float x, float y, Paint paint) {
+            drawCalls++;
+        }
+        
+        @Override
+        public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+            drawCalls++;
+        }
+        
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+            drawCalls++;
+        }
+        
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+            drawCalls++;
+        }
+        
+        @Override
+        public int save() {
+            return 1;
+        }
+        
+        @Override
+        public void restore() {
+        }
+        
+        @Override
+        public boolean clipPath(Path path) {
+            return true;
+        }
+    }
+    
+    @Test
+    public void numberModeDrawDoesNotAllocate() {
+        PuzzleView view = createView(null, 4);
+        view.showHint(3, 2);
+        view.setDebugOverlayEnabled(true);
+        assertNoAllocations(view);
+    }
+    
+    @Test
+    public void imageModeDrawDoesNotAllocate() {
+        Bitmap image = Bitmap.createBitmap(400, 300, Bitmap.Config.ARGB_8888);
+        PuzzleView view = createView(image, 5);
+        assertNoAllocations(view);
+    }
+    
+    @Test
+    public void piecesShareOneAtlasSizedToTheBoard() {
+        Bitmap image = Bitmap.createBitmap(1200, 900, Bitmap.Config.ARGB_8888);
+        PuzzleView view = createView(image, 5);
+        
+        assertEquals(1, view.getTextureCount());
+        assertEquals(1, view.getAtlasBuilds());
+        // Tablero de 720 px más la sombra y el margen de cada celda
+        long maxSide = 720 + 5 * 16;
+        assertTrue(view.getBitmapMemoryBytes() <= maxSide * maxSide * 4);
+        
+        // Cambiar de tamaño reemplaza el atlas en lugar de acumular bitmaps
+        view.layout(0, 0, 600, 600);
+        assertEquals(1, view.getTextureCount());
+        assertEquals(2, view.getAtlasBuilds());
+    }
+    
+    @Test
+    public void drawSkipsCellsOutsideTheClip() {
+        PuzzleView view = createView(null, 4);
+        NoOpCanvas canvas = new NoOpCanvas();
+        
+        view.onDraw(canvas);
+        assertEquals(16, view.getLastFrameTileCount());
+        
+        // Un recorte dentro de la primera celda solo redibuja esa celda
+        canvas.clip = new RectF(100, 100, 110, 110);
+        view.onDraw(canvas);
+        assertEquals(1, view.getLastFrameTileCount());
+    }
+    
+    private static PuzzleView createView(Bitmap image, int size) {
+        PuzzleView view = new PuzzleView(RuntimeEnvironment.getApplication());
+        view.setPuzzle(image, size);
+        view.layout(0, 0, 800, 800);
+        return view;
+    }
+    
+    private static void assertNoAllocations(PuzzleView view) {
+        NoOpCanvas canvas = new NoOpCanvas();
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            view.onDraw(canvas);
+        }
+        assertTrue("onDraw no dibujó nada", canvas.drawCalls > 0);
+        
+        // Costo de la propia medición
+        long before = allocatedBytes();
+        long overhead = allocatedBytes() - before;
+        
+        before = allocatedBytes();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            view.onDraw(canvas);
+        }
+        long allocated = allocatedBytes() - before - overhead;
+        
+        // Un solo objeto por frame serían al menos 16 bytes por frame
+        assertTrue("onDraw reservó " + allocated + " bytes en " + MEASURED_FRAMES + " frames",
+                allocated < MEASURED_FRAMES);
+    }
+    
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.rompecabezasexamen;
+
+import android.os.Looper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Pruebas de la entrada de PuzzleView: deslizamientos de varias piezas y
+ * toques encolados durante una animación
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PuzzleViewInputTest {
+    
+    /**
+     * Listener que registra cada movimiento como "filaOrigen,colOrigen->filaDestino,colDestino"
+     */
+    private static class RecordingListener implements PuzzleView.OnPieceMoveListener {
+        final List<String> moves = new ArrayList<>();
+        int completions;
+        
+        @Override
+        public void onPieceMove(int fromRow, int fromCol, int toRow, int toCol) {
+            moves.add(fromRow + "," + fromCol + "->" + toRow + "," + toCol);
+        }
+        
+        @Override
+        public void onPuzzleCompleted() {
+            completions++;
+        }
+    }
+    
+    @Test
+    public void rowSlideCountsOneMovePerTile() {
+        RecordingListener listener = new RecordingListener();
+        PuzzleView view = createView(listener, false);
+        
+        // El vacío está en (3, 3): tocar (3, 0) desliza tres piezas
+        assertTrue(view.slidePiece(3, 0));
+        
+        assertEquals(List.of("3,2->3,3", "3,1->3,2", "3,0->3,1"), listener.moves);
+        int[][] board = view.getCurrentBoard();
+        assertArrayEquals(new int[]{0, 13, 14, 15}, board[3]);
+        assertEquals(0, listener.completions);
+        
+        // Volver por la misma fila completa el puzzle una sola vez
+        assertTrue(view.slidePiece(3, 3));
+        assertEquals(6, listener.moves.size());
+        assertEquals(1, listener.completions);
+    }
+    
+    @Test
+    public void tapOutsideBlankRowAndColumnDoesNothing() {
+        RecordingListener listener = new RecordingListener();
+        PuzzleView view = createView(listener, false);
+        
+        assertFalse(view.slidePiece(0, 0));
+        assertFalse(view.slidePiece(3, 3));   // El propio vacío
+        assertTrue(listener.moves.isEmpty());
+    }
+    
+    @Test
+    public void tapsDuringAnimationArePlayedBackToBack() {
+        RecordingListener listener = new RecordingListener();
+        PuzzleView view = createView(listener, true);
+        
+        assertTrue(view.slidePiece(2, 3));   // Empieza la animación
+        assertTrue(view.isAnimating());
+        assertTrue(view.slidePiece(2, 0));   // Se encola: el vacío estará en (2, 3)
+        assertTrue(view.slidePiece(0, 0));   // Se encola: el vacío estará en (2, 0)
+        
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(2));
+        
+        assertFalse(view.isAnimating());
+        assertEquals(1 + 3 + 2, listener.moves.size());
+        assertEquals(0, view.getCurrentBoard()[0][0]);
+    }
+    
+    @Test
+    public void disablingTouchSettlesBoardAndDropsQueuedTaps() {
+        RecordingListener listener = new RecordingListener();
+        PuzzleView view = createView(listener, true);
+        
+        assertTrue(view.slidePiece(2, 3));   // Empieza la animación
+        assertTrue(view.slidePiece(2, 0));   // Se encola
+        
+        view.setTouchEnabled(false);
+        
+        // El deslizamiento en curso se aplicó y el encolado se descartó
+        assertFalse(view.isAnimating());
+        assertEquals(List.of("2,3->3,3"), listener.moves);
+        assertEquals(0, view.getCurrentBoard()[2][3]);
+        
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(2));
+        assertEquals(1, listener.moves.size());
+    }
+    
+    @Test
+    public void setBoardStateDiscardsSlideInProgress() {
+        RecordingListener listener = new RecordingListener();
+        PuzzleView view = createView(listener, true);
+        
+        assertTrue(view.slidePiece(0, 3));   // Columna entera: tres piezas en camino
+        assertTrue(view.isAnimating());
+        
+        // Tablero nuevo con el vacío en la esquina opuesta
+        int[][] shuffled = {
+            {0, 1, 2, 3},
+            {4, 5, 6, 7},
+            {8, 9, 10, 11},
+            {12, 13, 14, 15}
+        };
+        view.setBoardState(shuffled);
+        assertFalse(view.isAnimating());
+        
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(2));
+        
+        assertTrue(listener.moves.isEmpty());
+        assertArrayEquals(shuffled, view.getCurrentBoard());
+        
+        // El tablero nuevo sigue respondiendo con normalidad
+        assertTrue(view.slidePiece(0, 1));
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(2));
+        assertEquals(List.of("0,1->0,0"), listener.moves);
+    }
+    
+    @Test
+    public void tapQueueIsBounded() {
+        RecordingListener listener = new RecordingListener();
+        PuzzleView view = createView(listener, true);
+        
+        assertTrue(view.slidePiece(2, 3));
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (view.slidePiece(3, 3)) accepted++;
+        }
+        
+        assertTrue(accepted < 10);
+        assertEquals(10 - accepted, view.getDroppedTaps());
+    }
+    
+    private static PuzzleView createView(RecordingListener listener, boolean animations) {
+        PuzzleView view = new PuzzleView(RuntimeEnvironment.getApplication());
+        view.setPuzzle(null, 4);
+        view.layout(0, 0, 800, 800);
+        view.setAnimationsEnabled(animations);
+        view.setOnPieceMoveListener(listener);
+        return view;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de SolutionPlayer: ningún movimiento se pierde ni se repite,
+ * aunque la velocidad sea alta y los frames lleguen irregulares
+ */
+public class SolutionPlayerTest {
+    
+    private static final long FRAME_NANOS = 16_666_667L;   // 60 Hz
+    
+    /**
+     * Listener que registra los movimientos y los frames que redibujan
+     */
+    private static class RecordingListener implements SolutionPlayer.Listener {
+        final List<String> received = new ArrayList<>();
+        int redraws;
+        int finishedCalls;
+        
+        @Override
+        public void onMove(String move) {
+            received.add(move);
+        }
+        
+        @Override
+        public void onFrameApplied(int appliedThisFrame, int appliedTotal, int total) {
+            redraws++;
+            assertEquals(received.size(), appliedTotal);
+        }
+        
+        @Override
+        public void onFinished() {
+            finishedCalls++;
+        }
+    }
+    
+    private static List<String> randomMoves(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> moves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            moves.add(PuzzleState.MOVE_NAMES[random.nextInt(4)] + "#" + i);
+        }
+        return moves;
+    }
+    
+    @Test
+    public void maxSpeed_noMoveLost() {
+        List<String> moves = randomMoves(500, 1);
+        RecordingListener listener = new RecordingListener();
+        SolutionPlayer player = new SolutionPlayer(moves, listener);
+        player.setMovesPerSecond(SolutionPlayer.MAX_MOVES_PER_SECOND);
+        
+        long time = 0;
+        int frames = 0;
+        while (player.doFrame(time)) {
+            time += FRAME_NANOS;
+            assertTrue("La reproducción no termina", ++frames < 100_000);
+        }
+        
+        assertEquals(moves, listener.received);
+        assertEquals(1, listener.finishedCalls);
+        assertTrue(player.isFinished());
+        assertEquals(listener.redraws, player.getFrames());
+    }
+    
+    @Test
+    public void jitteryFramesAndSpeedChanges_noMoveLostOrRepeated() {
+        List<String> moves = randomMoves(1000, 2);
+        RecordingListener listener = new RecordingListener();
+        SolutionPlayer player = new SolutionPlayer(moves, listener);
+        Random random = new Random(3);
+        
+        long time = 0;
+        int frames = 0;
+        while (player.doFrame(time)) {
+            // Frames irregulares, algunos muy atrasados (frames saltados)
+            time += random.nextInt(10) == 0 ? FRAME_NANOS * (2 + random.nextInt(30)) : FRAME_NANOS / 2 + random.nextInt((int) FRAME_NANOS);
+            if (frames % 50 == 0) {
+                player.setMovesPerSecond(1 + random.nextInt(80));
+            }
+            assertTrue("La reproducción no termina", ++frames < 1_000_000);
+        }
+        
+        assertEquals(moves, listener.received);
+        assertEquals(1, listener.finishedCalls);
+    }
+    
+    @Test
+    public void oneRedrawPerFrame_evenWhenBatching() {
+        List<String> moves = randomMoves(120, 4);
+        RecordingListener listener = new RecordingListener();
+        SolutionPlayer player = new SolutionPlayer(moves, listener);
+        player.setMovesPerSecond(SolutionPlayer.MAX_MOVES_PER_SECOND);
+        
+        // Frames a 10 Hz: cada uno debe aplicar varios movimientos en un solo lote
+        long time = 0;
+        int frames = 0;
+        while (player.doFrame(time)) {
+            time += FRAME_NANOS * 6;
+            frames++;
+        }
+        
+        assertEquals(moves, listener.received);
+        assertTrue(listener.redraws <= frames + 1);
+        assertTrue(listener.redraws < moves.size());
+    }
+    
+    @Test
+    public void pauseResumeAndSkip() {
+        List<String> moves = randomMoves(300, 5);
+        RecordingListener listener = new RecordingListener();
+        SolutionPlayer player = new SolutionPlayer(moves, listener);
+        player.setMovesPerSecond(30);
+        
+        long time = 0;
+        for (int i = 0; i < 30; i++) {
+            assertTrue(player.doFrame(time));
+            time += FRAME_NANOS;
+        }
+        int beforePause = listener.received.size();
+        assertTrue(beforePause > 0);
+        
+        // En pausa no se aplica nada y no se piden más frames
+        player.pause();
+        assertFalse(player.doFrame(time));
+        time += 10_000_000_000L;
+        assertFalse(player.doFrame(time));
+        assertEquals(beforePause, listener.received.size());
+        
+        // Al reanudar, el tiempo en pausa no cuenta como crédito
+        player.resume();
+        assertTrue(player.doFrame(time));
+        time += FRAME_NANOS;
+        assertTrue(player.doFrame(time));
+        assertTrue(listener.received.size() <= beforePause + 1);
+        
+        // Saltar aplica todo lo pendiente en el siguiente frame
+        player.skip();
+        assertFalse(player.doFrame(time + FRAME_NANOS));
+        assertEquals(moves, listener.received);
+        assertEquals(1, listener.finishedCalls);
+        assertFalse(player.doFrame(time + 2 * FRAME_NANOS));
+    }
+    
+    @Test
+    public void emptySolution_finishesImmediately() {
+        RecordingListener listener = new RecordingListener();
+        SolutionPlayer player = new SolutionPlayer(new ArrayList<>(), listener);
+        
+        assertFalse(player.doFrame(0));
+        assertTrue(listener.received.isEmpty());
+        assertEquals(0, listener.redraws);
+        assertEquals(1, listener.finishedCalls);
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.rompecabezasexamen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks de los algoritmos de resolución sobre un corpus fijo de tableros
+ * 
+ * Vive con las pruebas para no viajar en el APK. Se ejecuta en la JVM (no
+ * depende de Android) con las clases de la app y de las pruebas, por ejemplo:
+ *   java -cp build/intermediates/javac/debug/classes:build/intermediates/javac/debugUnitTest/classes \
+ *       com.example.rompecabezasexamen.SolverBenchmark
+ * Las comprobaciones de corrección están en SolverCorrectnessTest.
+ * 
+ * El corpus se genera con una semilla fija para que los conteos de nodos
+ * sean comparables entre ejecuciones y entre cambios del código.
+ */
+public class SolverBenchmark {
+    
+    private static final long CORPUS_SEED = 20241018L;
+    private static final int CORPUS_SIZE = 25;          // Tableros 4x4 del corpus
+    private static final int CORPUS_WALK = 150;          // Movimientos aleatorios por tablero
+    private static final int MAX_NODES = 2_000_000;     // Límite de expansiones por búsqueda
+    
+    public static void main(String[] args) {
+        List<int[][]> corpus = createCorpus(4, CORPUS_SIZE, CORPUS_WALK, CORPUS_SEED);
+        runReflectionBenchmark(corpus);
+        runIdaBenchmark(corpus);
+        runEpeaBenchmark(createCorpus(4, CORPUS_SIZE, 60, CORPUS_SEED));
+        runParallelBenchmark(corpus);
+    }
+    
+    /**
+     * Genera tableros resolubles con caminatas aleatorias desde el objetivo
+     */
+    public static List<int[][]> createCorpus(int size, int count, int walkLength, long seed) {
+        Random random = new Random(seed);
+        List<int[][]> corpus = new ArrayList<>();
+        
+        int[][] solved = new int[size][size];
+        for (int i = 0; i < size * size - 1; i++) {
+            solved[i / size][i % size] = i + 1;
+        }
+        
+        for (int b = 0; b < count; b++) {
+            PuzzleState current = new PuzzleState(solved, 0, null, null);
+            for (int m = 0; m < walkLength; m++) {
+                List<PuzzleState> neighbors = current.getNeighbors();
+                current = new PuzzleState(neighbors.get(random.nextInt(neighbors.size())).getBoard(), 0, null, null);
+            }
+            corpus.add(current.getBoard());
+        }
+        return corpus;
+    }
+    
+    /**
+     * Compara los nodos expandidos por IDA* con PDB sola y con
+     * max(h, h_reflejado) (A* no sirve: la PDB no es consistente y sus
+     * soluciones podrían no ser óptimas)
+     */
+    public static void runReflectionBenchmark(List<int[][]> corpus) {
+        long buildStart = System.currentTimeMillis();
+        PatternDatabaseHeuristic directHeuristic = PatternDatabaseHeuristic.build(
+                4, PatternDatabaseHeuristic.STANDARD_4X4_PARTITION, false);
+        PatternDatabaseHeuristic reflectedHeuristic = directHeuristic.withReflection(true);
+        System.out.printf(Locale.ROOT, "PDB 5-5-5 construida en %d ms%n",
+                System.currentTimeMillis() - buildStart);
+        
+        long directNodes = 0, reflectedNodes = 0;
+        long directMillis = 0, reflectedMillis = 0;
+        int solved = 0;
+        
+        IDAStar directIda = new IDAStar(MAX_NODES, 22);
+        directIda.setHeuristic(directHeuristic);
+        IDAStar reflectedIda = new IDAStar(MAX_NODES, 22);
+        reflectedIda.setHeuristic(reflectedHeuristic);
+        
+        for (int[][] board : corpus) {
+            List<String> direct = directIda.solvePuzzle(board);
+            int directLength = direct == null ? -1 : direct.size();
+            directMillis += directIda.getElapsedMillis();
+            long nodesDirect = directIda.getNodesExpanded();
+            
+            List<String> reflected = reflectedIda.solvePuzzle(board);
+            reflectedMillis += reflectedIda.getElapsedMillis();
+            long nodesReflected = reflectedIda.getNodesExpanded();
+            
+            if (direct == null || reflected == null) {
+                System.out.println("Sin solución dentro del límite, tablero omitido");
+                continue;
+            }
+            if (directLength != reflected.size()) {
+                throw new IllegalStateException("Longitudes distintas: " + directLength + " vs " + reflected.size());
+            }
+            solved++;
+            directNodes += nodesDirect;
+            reflectedNodes += nodesReflected;
+            System.out.printf(Locale.ROOT, "largo %2d  nodos %8d -> %8d%n",
+                    directLength, nodesDirect, nodesReflected);
+        }
+        
+        System.out.printf(Locale.ROOT,
+                "Reflexión: %d tableros, nodos %d -> %d (%.1f%% menos), tiempo %d ms -> %d ms%n",
+                solved, directNodes, reflectedNodes,
+                directNodes == 0 ? 0 : 100.0 * (directNodes - reflectedNodes) / directNodes,
+                directMillis, reflectedMillis);
+    }
+    
+    /**
+     * Mide por separado el efecto de la tabla de transposición y del
+     * ordenamiento de movimientos en IDA* (nodos y tiempo)
+     */
+    public static void runIdaBenchmark(List<int[][]> corpus) {
+        PatternDatabaseHeuristic heuristic = PatternDatabaseHeuristic.build(
+                4, PatternDatabaseHeuristic.STANDARD_4X4_PARTITION, true);
+        boolean[][] configs = {{false, false}, {true, false}, {false, true}, {true, true}};
+        
+        for (boolean[] config : configs) {
+            IDAStar ida = new IDAStar(50_000_000, 22);
+            ida.setHeuristic(heuristic);
+            ida.setUseTranspositionTable(config[0]);
+            ida.setUseMoveOrdering(config[1]);
+            
+            long nodes = 0, millis = 0, totalLength = 0;
+            int solved = 0;
+            for (int[][] board : corpus) {
+                List<String> solution = ida.solvePuzzle(board);
+                if (solution == null) continue;
+                solved++;
+                nodes += ida.getNodesExpanded();
+                millis += ida.getElapsedMillis();
+                totalLength += solution.size();
+            }
+            
+            System.out.printf(Locale.ROOT,
+                    "IDA* TT=%-5s orden=%-5s: %d tableros, largo total %d, nodos %d, tiempo %d ms%n",
+                    config[0], config[1], solved, totalLength, nodes, millis);
+        }
+    }
+    
+    /**
+     * Compara A* y EPEA* (distancia Manhattan) en inserciones a la cola
+     */
+    public static void runEpeaBenchmark(List<int[][]> corpus) {
+        long aStarNodes = 0, aStarMillis = 0;
+        long epeaExpansions = 0, epeaGenerated = 0, epeaSkipped = 0, epeaReinsertions = 0, epeaMillis = 0;
+        int solved = 0;
+        
+        for (int[][] board : corpus) {
+            AStar aStar = new AStar(new HashClosedSet(), MAX_NODES);
+            long start = System.currentTimeMillis();
+            List<String> reference = aStar.solvePuzzle(board);
+            int referenceLength = reference == null ? -1 : reference.size();
+            aStarMillis += System.currentTimeMillis() - start;
+            
+            EPEAStar epea = new EPEAStar(MAX_NODES);
+            List<String> solution = epea.solvePuzzle(board);
+            if (reference == null || solution == null) continue;
+            if (solution.size() != referenceLength) {
+                throw new IllegalStateException("Longitudes distintas: " + referenceLength + " vs " + solution.size());
+            }
+            
+            solved++;
+            aStarNodes += aStar.getIterations();
+            epeaExpansions += epea.getExpansions();
+            epeaGenerated += epea.getChildrenGenerated();
+            epeaSkipped += epea.getChildrenSkipped();
+            epeaReinsertions += epea.getReinsertions();
+            epeaMillis += epea.getElapsedMillis();
+        }
+        
+        System.out.printf(Locale.ROOT,
+                "A*: %d tableros, %d expansiones, %d ms%n" +
+                "EPEA*: %d expansiones, %d hijos insertados, %d hijos omitidos, %d reinserciones, %d ms%n",
+                solved, aStarNodes, aStarMillis,
+                epeaExpansions, epeaGenerated, epeaSkipped, epeaReinsertions, epeaMillis);
+    }
+    
+    /**
+     * Mide la aceleración de ParallelIDAStar respecto a IDA* serial (sin
+     * tabla de transposición, igual que la versión paralela) para 1, 2, 4...
+     * hilos hasta el número de procesadores disponibles
+     */
+    public static void runParallelBenchmark(List<int[][]> corpus) {
+        PatternDatabaseHeuristic heuristic = PatternDatabaseHeuristic.build(
+                4, PatternDatabaseHeuristic.STANDARD_4X4_PARTITION, true);
+        
+        IDAStar serial = new IDAStar(50_000_000, 4);
+        serial.setHeuristic(heuristic);
+        serial.setUseTranspositionTable(false);
+        
+        // Calentamiento: JIT y construcción del autómata de poda fuera de la medición
+        for (int[][] board : corpus) {
+            serial.solvePuzzle(board);
+        }
+        
+        long serialNodes = 0, serialMillis = 0, serialLength = 0;
+        for (int[][] board : corpus) {
+            List<String> solution = serial.solvePuzzle(board);
+            if (solution == null) continue;
+            serialNodes += serial.getNodesExpanded();
+            serialMillis += serial.getElapsedMillis();
+            serialLength += solution.size();
+        }
+        System.out.printf(Locale.ROOT, "IDA* serial: largo total %d, nodos %d, tiempo %d ms%n",
+                serialLength, serialNodes, serialMillis);
+        
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int step = 1; ; step *= 2) {
+            int threads = Math.min(step, processors);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ParallelIDAStar parallel = new ParallelIDAStar(pool, 50_000_000);
+            parallel.setHeuristic(heuristic);
+            for (int[][] board : corpus) {
+                parallel.solvePuzzle(board);
+            }
+            
+            long nodes = 0, millis = 0, totalLength = 0;
+            for (int[][] board : corpus) {
+                List<String> solution = parallel.solvePuzzle(board);
+                if (solution == null) continue;
+                nodes += parallel.getNodesExpanded();
+                millis += parallel.getElapsedMillis();
+                totalLength += solution.size();
+            }
+            pool.shutdown();
+            
+            if (totalLength != serialLength) {
+                throw new IllegalStateException("Largo total distinto: " + serialLength + " vs " + totalLength);
+            }
+            System.out.printf(Locale.ROOT,
+                    "IDA* paralelo %2d hilos (corte %d): nodos %d, tiempo %d ms, aceleración %.2fx%n",
+                    threads, parallel.getSplitDepth(), nodes, millis,
+                    millis == 0 ? 0 : (double) serialMillis / millis);
+            if (threads == processors) break;
+        }
+    }
+}
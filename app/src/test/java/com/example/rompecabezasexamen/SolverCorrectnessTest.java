@@ -0,0 +1,177 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Corrección de los motores de resolución contra distancias exactas
+ * 
+ * Un BFS desde el objetivo recorre los 181440 estados resolubles del 3x3 y
+ * da la distancia exacta de cada uno. Con eso se comprueba que los motores
+ * óptimos devuelven el largo mínimo y que las PDB nunca sobrestiman.
+ */
+public class SolverCorrectnessTest {
+    
+    private static final int SIZE = 3;
+    private static final int STATES_3X3 = 181440;
+    private static final int[][] PARTITION_3X3 = {{1, 2, 3, 4}, {5, 6, 7, 8}};
+    
+    private static Map<Long, Integer> exactDistances;
+    
+    @Test
+    public void optimalSolversMatchBreadthFirstDistance() {
+        Map<Long, Integer> distances = exactDistances();
+        for (int[][] board : SolverBenchmark.createCorpus(SIZE, 30, 100, 3L)) {
+            int expected = distances.get(pack(board));
+            
+            assertOptimal("A*", board, expected, new AStar().solvePuzzle(board));
+            assertOptimal("IDA*", board, expected, new IDAStar().solvePuzzle(board));
+            assertOptimal("EPEA*", board, expected, new EPEAStar().solvePuzzle(board));
+        }
+    }
+    
+    @Test
+    public void patternDatabaseIsAdmissible() {
+        Map<Long, Integer> distances = exactDistances();
+        PatternDatabaseHeuristic reflected = PatternDatabaseHeuristic.build(SIZE, PARTITION_3X3, true);
+        
+        // Todos los estados, con y sin reflexión
+        for (boolean reflection : new boolean[]{false, true}) {
+            PatternDatabaseHeuristic heuristic = reflected.withReflection(reflection);
+            for (Map.Entry<Long, Integer> entry : distances.entrySet()) {
+                int[][] board = unpack(entry.getKey());
+                int h = heuristic.estimate(board);
+                if (h > entry.getValue()) {
+                    fail("h = " + h + " > " + entry.getValue() + " (reflexión " + reflection + ")");
+                }
+            }
+        }
+    }
+    
+    /**
+     * La PDB no es consistente: solo los motores que la usan en SolverService
+     * (IDA* y A* ponderado anytime, que reabre estados)
+     */
+    @Test
+    public void patternDatabaseKeepsSolutionsOptimal() {
+        Map<Long, Integer> distances = exactDistances();
+        PatternDatabaseHeuristic heuristic = PatternDatabaseHeuristic.build(SIZE, PARTITION_3X3, true);
+        IDAStar ida = new IDAStar();
+        ida.setHeuristic(heuristic);
+        AnytimeWeightedAStar anytime = new AnytimeWeightedAStar();
+        anytime.setHeuristic(heuristic);
+        
+        for (int[][] board : SolverBenchmark.createCorpus(SIZE, 30, 100, 5L)) {
+            int expected = distances.get(pack(board));
+            assertOptimal("IDA* con PDB", board, expected, ida.solvePuzzle(board));
+            assertOptimal("A* anytime con PDB", board, expected, anytime.solvePuzzle(board, 60_000));
+            assertTrue(anytime.isOptimal());
+        }
+    }
+    
+    @Test
+    public void transpositionTableDoesNotChangeSolutionLength() {
+        Map<Long, Integer> distances = exactDistances();
+        IDAStar withTable = new IDAStar();
+        IDAStar withoutTable = new IDAStar();
+        withoutTable.setUseTranspositionTable(false);
+        
+        for (int[][] board : SolverBenchmark.createCorpus(SIZE, 30, 100, 9L)) {
+            int expected = distances.get(pack(board));
+            assertOptimal("IDA* con TT", board, expected, withTable.solvePuzzle(board));
+            assertOptimal("IDA* sin TT", board, expected, withoutTable.solvePuzzle(board));
+        }
+        
+        // 4x4 cercanos al objetivo: sin distancia exacta, basta con que coincidan
+        for (int[][] board : SolverBenchmark.createCorpus(4, 10, 40, 9L)) {
+            List<String> a = withTable.solvePuzzle(board);
+            List<String> b = withoutTable.solvePuzzle(board);
+            assertNotNull(a);
+            assertNotNull(b);
+            assertEquals(b.size(), a.size());
+            assertTrue(SolverTestUtils.solves(board, a));
+        }
+    }
+    
+    private static void assertOptimal(String solver, int[][] board, int expected, List<String> moves) {
+        assertNotNull(solver + " sin solución", moves);
+        assertEquals(solver + ": largo", expected, moves.size());
+        assertTrue(solver + ": la solución no resuelve el tablero", SolverTestUtils.solves(board, moves));
+    }
+    
+    /**
+     * Distancia exacta al objetivo de cada estado del 3x3 (BFS, se calcula una vez)
+     */
+    private static synchronized Map<Long, Integer> exactDistances() {
+        if (exactDistances != null) return exactDistances;
+        
+        int cells = SIZE * SIZE;
+        int[] goal = new int[cells];
+        for (int i = 0; i < cells - 1; i++) {
+            goal[i] = i + 1;
+        }
+        
+        Map<Long, Integer> distances = new HashMap<>();
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        distances.put(pack(goal), 0);
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            int[] cellsOf = queue.poll();
+            int distance = distances.get(pack(cellsOf));
+            int empty = indexOfZero(cellsOf);
+            int row = empty / SIZE, col = empty % SIZE;
+            for (int d = 0; d < PuzzleState.ROW_MOVES.length; d++) {
+                int r = row + PuzzleState.ROW_MOVES[d];
+                int c = col + PuzzleState.COL_MOVES[d];
+                if (r < 0 || c < 0 || r >= SIZE || c >= SIZE) continue;
+                int[] next = cellsOf.clone();
+                next[empty] = next[r * SIZE + c];
+                next[r * SIZE + c] = 0;
+                if (distances.putIfAbsent(pack(next), distance + 1) == null) {
+                    queue.add(next);
+                }
+            }
+        }
+        assertEquals(STATES_3X3, distances.size());
+        exactDistances = distances;
+        return distances;
+    }
+    
+    private static int indexOfZero(int[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == 0) return i;
+        }
+        throw new IllegalStateException("Tablero sin espacio vacío");
+    }
+    
+    private static long pack(int[] cells) {
+        long key = 0;
+        for (int value : cells) {
+            key = (key << 4) | value;
+        }
+        return key;
+    }
+    
+    private static long pack(int[][] board) {
+        int[] cells = new int[SIZE * SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            System.arraycopy(board[i], 0, cells, i * SIZE, SIZE);
+        }
+        return pack(cells);
+    }
+    
+    private static int[][] unpack(long key) {
+        int[][] board = new int[SIZE][SIZE];
+        for (int i = SIZE * SIZE - 1; i >= 0; i--) {
+            board[i / SIZE][i % SIZE] = (int) (key & 0xF);
+            key >>>= 4;
+        }
+        return board;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.rompecabezasexamen;
+
+import com.example.rompecabezasexamen.SolverScheduler.Lane;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de SolverScheduler: orden de los carriles, hilo reservado al
+ * carril interactivo y expulsión de tareas especulativas
+ */
+public class SolverSchedulerTest {
+    
+    private static final long TIMEOUT_SECONDS = 5;
+    
+    private SolverScheduler scheduler;
+    private final List<String> order = Collections.synchronizedList(new ArrayList<>());
+    
+    @Before
+    public void setUp() {
+        scheduler = new SolverScheduler(2);   // Un hilo de fondo y uno reservado
+    }
+    
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+    
+    /**
+     * Tarea que espera a que se abra la compuerta
+     */
+    private static Runnable blockedUntil(CountDownLatch gate, CountDownLatch running) {
+        return () -> {
+            running.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+    
+    @Test
+    public void interactiveRunsWhileBackgroundSlotsAreBusy() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        scheduler.submit(Lane.MAINTENANCE, blockedUntil(gate, running));
+        assertTrue(running.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        
+        scheduler.submit(Lane.MAINTENANCE, () -> order.add("M"));
+        scheduler.submit(Lane.SPECULATIVE, () -> order.add("S"));
+        Future<?> interactive = scheduler.submit(Lane.INTERACTIVE, () -> order.add("I"));
+        
+        interactive.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals("el trabajo de fondo no toma el hilo reservado",
+                Collections.singletonList("I"), new ArrayList<>(order));
+        assertEquals(1, scheduler.getQueueDepth(Lane.MAINTENANCE));
+        assertEquals(1, scheduler.getQueueDepth(Lane.SPECULATIVE));
+        gate.countDown();
+    }
+    
+    @Test
+    public void lanesRunInPriorityOrder() throws Exception {
+        CountDownLatch backgroundGate = new CountDownLatch(1);
+        CountDownLatch interactiveGate = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(2);
+        scheduler.submit(Lane.MAINTENANCE, blockedUntil(backgroundGate, running));
+        scheduler.submit(Lane.INTERACTIVE, blockedUntil(interactiveGate, running));
+        assertTrue(running.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        
+        // Llegan en el orden inverso a su prioridad
+        Future<?> maintenance = scheduler.submit(Lane.MAINTENANCE, () -> order.add("M"));
+        scheduler.submit(Lane.SPECULATIVE, () -> order.add("S"));
+        Future<?> interactive = scheduler.submit(Lane.INTERACTIVE, () -> order.add("I"));
+        
+        interactiveGate.countDown();
+        interactive.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        backgroundGate.countDown();
+        maintenance.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertEquals(List.of("I", "S", "M"), new ArrayList<>(order));
+    }
+    
+    @Test
+    public void interactivePreemptsSpeculativeWhenAllWorkersAreBusy() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(2);
+        Future<?> speculative = scheduler.submit(Lane.SPECULATIVE, () -> {
+            running.countDown();
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+        });
+        scheduler.submit(Lane.INTERACTIVE, blockedUntil(gate, running));
+        assertTrue(running.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        
+        Future<?> interactive = scheduler.submit(Lane.INTERACTIVE, () -> order.add("I"));
+        interactive.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertTrue(speculative.isCancelled());
+        assertEquals(1, scheduler.getPreempted(Lane.SPECULATIVE));
+        gate.countDown();
+    }
+    
+    @Test
+    public void maintenanceIsNotPreempted() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(2);
+        Future<?> maintenance = scheduler.submit(Lane.MAINTENANCE, blockedUntil(gate, running));
+        scheduler.submit(Lane.INTERACTIVE, blockedUntil(gate, running));
+        assertTrue(running.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        
+        Future<?> interactive = scheduler.submit(Lane.INTERACTIVE, () -> order.add("I"));
+        assertFalse(maintenance.isCancelled());
+        assertEquals(0, scheduler.getPreempted(Lane.MAINTENANCE));
+        
+        gate.countDown();
+        interactive.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        maintenance.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
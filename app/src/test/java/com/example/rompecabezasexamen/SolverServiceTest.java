@@ -0,0 +1,62 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de SolverService: construir una tabla no bloquea las consultas
+ * que hace el hilo principal, y las llamadas con plazo no construyen tablas
+ */
+public class SolverServiceTest {
+    
+    @Test
+    public void isPreparedDoesNotWaitForTableBuild() throws Exception {
+        SolverService service = new SolverService();
+        Thread builder = new Thread(() -> service.prepare(3));
+        builder.start();
+        Thread.sleep(50);   // La tabla exacta del 3x3 tarda alrededor de un segundo
+        
+        long start = System.nanoTime();
+        boolean prepared = service.isPrepared(3);
+        service.setTableDirectory(null);
+        service.getStats();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        boolean stillBuilding = builder.isAlive();
+        
+        builder.join();
+        assertTrue("la construcción terminó demasiado rápido para la prueba", stillBuilding);
+        assertFalse(prepared);
+        assertTrue("las consultas esperaron " + millis + " ms", millis < 100);
+        assertTrue(service.isPrepared(3));
+    }
+    
+    @Test
+    public void budgetedSolveDoesNotBuildExactTable() {
+        SolverService service = new SolverService();
+        for (int[][] board : SolverBenchmark.createCorpus(3, 10, 100, 31L)) {
+            SolverResult result = service.solve(board, HintService.DEFAULT_BUDGET_MILLIS);
+            
+            assertNotEquals(SolverResult.Engine.EXACT_TABLE, result.getEngine());
+            assertTrue(result.isSolved());
+            assertTrue(SolverTestUtils.solves(board, result.getMoves()));
+        }
+        assertFalse(service.isPrepared(3));
+        
+        service.prepare(3);
+        int[][] board = SolverBenchmark.createCorpus(3, 1, 100, 32L).get(0);
+        assertEquals(SolverResult.Engine.EXACT_TABLE, service.solve(board, 50).getEngine());
+    }
+    
+    @Test
+    public void hierarchicalSolverStopsAtDeadline() {
+        int[][] board = SolverBenchmark.createCorpus(10, 1, 2000, 33L).get(0);
+        
+        assertNull(HierarchicalSolver.solve(board, System.currentTimeMillis()));
+        List<String> moves = HierarchicalSolver.solve(board);
+        assertNotNull(moves);
+        assertTrue(SolverTestUtils.solves(board, moves));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.rompecabezasexamen;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utilidades compartidas por las pruebas de los motores de resolución
+ */
+final class SolverTestUtils {
+    
+    private SolverTestUtils() {
+    }
+    
+    /**
+     * Aplica los movimientos del espacio vacío (PuzzleState.MOVE_NAMES) y
+     * verifica que el tablero termina resuelto
+     */
+    static boolean solves(int[][] board, List<String> moves) {
+        int size = board.length;
+        int[][] current = new int[size][];
+        int emptyRow = -1, emptyCol = -1;
+        for (int i = 0; i < size; i++) {
+            current[i] = board[i].clone();
+            for (int j = 0; j < size; j++) {
+                if (current[i][j] == 0) {
+                    emptyRow = i;
+                    emptyCol = j;
+                }
+            }
+        }
+        
+        for (String move : moves) {
+            int direction = Arrays.asList(PuzzleState.MOVE_NAMES).indexOf(move);
+            if (direction < 0) return false;
+            int row = emptyRow + PuzzleState.ROW_MOVES[direction];
+            int col = emptyCol + PuzzleState.COL_MOVES[direction];
+            if (row < 0 || col < 0 || row >= size || col >= size) return false;
+            current[emptyRow][emptyCol] = current[row][col];
+            current[row][col] = 0;
+            emptyRow = row;
+            emptyCol = col;
+        }
+        
+        for (int i = 0; i < size * size - 1; i++) {
+            if (current[i / size][i % size] != i + 1) return false;
+        }
+        return true;
+    }
+}
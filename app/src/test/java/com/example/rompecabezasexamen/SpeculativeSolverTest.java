@@ -0,0 +1,94 @@
+package com.example.rompecabezasexamen;
+
+import com.example.rompecabezasexamen.SolverScheduler.Lane;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de SpeculativeSolver con un planificador de 2 hilos (uno de
+ * fondo y uno reservado al carril interactivo)
+ */
+public class SpeculativeSolverTest {
+    
+    private static final long TIMEOUT_SECONDS = 10;
+    
+    // A dos movimientos de la solución
+    private static final int[][] NEAR_GOAL = {{1, 2, 3}, {4, 5, 6}, {0, 7, 8}};
+    
+    private SolverScheduler scheduler;
+    private ExecutorService caller;
+    private SpeculativeSolver speculativeSolver;
+    
+    @Before
+    public void setUp() {
+        scheduler = new SolverScheduler(2);
+        caller = Executors.newSingleThreadExecutor();
+        speculativeSolver = new SpeculativeSolver(new SolverService(), scheduler);
+    }
+    
+    @After
+    public void tearDown() {
+        caller.shutdownNow();
+        scheduler.shutdown();
+    }
+    
+    /**
+     * Con el hilo de fondo ocupado (por ejemplo construyendo una tabla) la
+     * especulación nunca empieza: solve() no debe esperarla
+     */
+    @Test
+    public void speculationStuckInQueueIsSolvedInline() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        scheduler.submit(Lane.MAINTENANCE, () -> {
+            running.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(running.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        
+        speculativeSolver.speculate(NEAR_GOAL);
+        try {
+            // Si solve() esperara a la especulación no terminaría hasta abrir la compuerta
+            Future<SolverResult> result = caller.submit(() -> speculativeSolver.solve(NEAR_GOAL));
+            SolverResult solved = result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            
+            assertTrue(solved.isSolved());
+            assertEquals(2, solved.getMoves().size());
+            assertEquals(0, speculativeSolver.getHits());
+            assertEquals(0, speculativeSolver.getInFlightHits());
+            assertEquals(1, speculativeSolver.getMisses());
+            assertEquals(1, speculativeSolver.getNotStarted());
+            assertEquals(0, scheduler.getQueueDepth(Lane.SPECULATIVE));
+        } finally {
+            gate.countDown();
+        }
+    }
+    
+    @Test
+    public void differentBoardIsAMiss() throws Exception {
+        speculativeSolver.speculate(NEAR_GOAL);
+        int[][] other = {{1, 2, 3}, {4, 5, 6}, {7, 0, 8}};
+        
+        SolverResult solved = caller.submit(() -> speculativeSolver.solve(other))
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        
+        assertEquals(1, solved.getMoves().size());
+        assertEquals(1, speculativeSolver.getMisses());
+        assertEquals(0, speculativeSolver.getNotStarted());
+        assertEquals(1, speculativeSolver.getCancelled());
+    }
+}
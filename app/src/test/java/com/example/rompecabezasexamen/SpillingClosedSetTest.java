@@ -0,0 +1,81 @@
+package com.example.rompecabezasexamen;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de SpillingClosedSet: volcado a disco y reutilización entre búsquedas
+ */
+public class SpillingClosedSetTest {
+    
+    private File spillDir;
+    private SpillingClosedSet closedSet;
+    
+    @Before
+    public void setUp() throws Exception {
+        spillDir = Files.createTempDirectory("spill_test").toFile();
+        closedSet = new SpillingClosedSet(spillDir, 1000);
+    }
+    
+    @After
+    public void tearDown() {
+        closedSet.close();
+        File[] files = spillDir.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        spillDir.delete();
+    }
+    
+    @Test
+    public void aStarReusesSetAcrossBoardSizes() {
+        AStar aStar = new AStar(closedSet, 50000);
+        
+        for (int[][] board : SolverBenchmark.createCorpus(3, 3, 100, 21L)) {
+            assertSolved(board, aStar.solvePuzzle(board));
+        }
+        for (int[][] board : SolverBenchmark.createCorpus(4, 3, 30, 21L)) {
+            assertSolved(board, aStar.solvePuzzle(board));
+        }
+        int[][] board = SolverBenchmark.createCorpus(3, 1, 100, 22L).get(0);
+        assertSolved(board, aStar.solvePuzzle(board));
+    }
+    
+    @Test
+    public void spilledStatesAreStillFound() {
+        List<int[][]> boards = SolverBenchmark.createCorpus(3, 3000, 60, 5L);
+        int added = 0;
+        for (int[][] board : boards) {
+            if (closedSet.add(new PuzzleState(board, 0, null, null))) added++;
+        }
+        
+        assertTrue(closedSet.getRunCount() > 0);
+        assertEquals(added, closedSet.size());
+        for (int[][] board : boards) {
+            assertTrue(closedSet.contains(new PuzzleState(board, 0, null, null)));
+        }
+    }
+    
+    @Test
+    public void mixingSizesWithoutClearIsRejected() {
+        closedSet.add(new PuzzleState(SolverBenchmark.createCorpus(3, 1, 10, 1L).get(0), 0, null, null));
+        try {
+            closedSet.add(new PuzzleState(SolverBenchmark.createCorpus(4, 1, 10, 1L).get(0), 0, null, null));
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // Tamaño de tablero distinto dentro de la misma búsqueda
+        }
+    }
+    
+    private static void assertSolved(int[][] board, List<String> moves) {
+        assertNotNull(moves);
+        assertTrue(SolverTestUtils.solves(board, moves));
+    }
+}